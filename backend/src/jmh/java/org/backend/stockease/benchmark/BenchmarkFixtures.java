@@ -0,0 +1,102 @@
+package org.backend.stockease.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.backend.stockease.entity.CartItem;
+import org.backend.stockease.entity.Category;
+import org.backend.stockease.entity.Delivery;
+import org.backend.stockease.entity.Order;
+import org.backend.stockease.entity.OrderItem;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.SubscriptionPlan;
+import org.backend.stockease.entity.enums.DeliveryStatus;
+import org.backend.stockease.entity.enums.OrderStatus;
+
+/**
+ * Detached entity graphs shaped like what the controllers serialize, for the
+ * benchmarks that don't need a database.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static Product product(long id, long shopId) {
+        SubscriptionPlan plan = new SubscriptionPlan();
+        plan.setId(1L);
+        plan.setName("Premium");
+        plan.setDescription("Benchmark plan");
+        plan.setMonthlyPrice(new BigDecimal("29.99"));
+        plan.setDurationMonths(1);
+        plan.setMaxProducts(500);
+        plan.setMaxOrdersPerMonth(5000);
+
+        Shop shop = new Shop();
+        shop.setId(shopId);
+        shop.setName("Benchmark shop " + shopId);
+        shop.setDescription("A shop with a realistic amount of text in its description");
+        shop.setSubscriptionPlan(plan);
+        shop.setSubscriptionStartDate(LocalDateTime.now().minusDays(10));
+        shop.setSubscriptionEndDate(LocalDateTime.now().plusDays(20));
+
+        Category category = new Category();
+        category.setId(id % 8 + 1);
+        category.setName("Category " + (id % 8 + 1));
+        category.setDescription("Benchmark category");
+
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Benchmark product " + id);
+        product.setDescription("Wireless noise cancelling headphones with a long battery life");
+        product.setPrice(new BigDecimal("19.99").add(BigDecimal.valueOf(id % 100, 2)));
+        product.setOriginalPrice(new BigDecimal("39.99"));
+        product.setStock(100);
+        product.setImageUrl("https://example.com/images/" + id + ".jpg");
+        product.setRating(4.5);
+        product.setCategory(category);
+        product.setShop(shop);
+        return product;
+    }
+
+    static List<CartItem> cartItems(int count, int shops) {
+        List<CartItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new CartItem((long) i, null, product(i, i % shops + 1), i % 3 + 1));
+        }
+        return items;
+    }
+
+    static Order order(int itemCount) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setOrderNumber("BENCH001");
+        order.setStatus(OrderStatus.PENDING);
+        order.setOrderDate(LocalDateTime.now());
+        order.setDeliveryOption("standard");
+
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem cartItem : cartItems(itemCount, 4)) {
+            OrderItem item = new OrderItem(cartItem.getId(), order, cartItem.getProduct(),
+                cartItem.getQuantity(), cartItem.getProduct().getPrice());
+            total = total.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+            items.add(item);
+        }
+        order.setItems(items);
+        order.setTotalAmount(total);
+
+        Delivery delivery = new Delivery();
+        delivery.setId(1L);
+        delivery.setOrder(order);
+        delivery.setStatus(DeliveryStatus.PENDING);
+        delivery.setTrackingNumber("TRKBENCH001");
+        delivery.setAddress("1 Benchmark Street");
+        delivery.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(5));
+        order.setDelivery(delivery);
+        return order;
+    }
+}
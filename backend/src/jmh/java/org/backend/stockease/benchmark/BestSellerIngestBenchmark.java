@@ -0,0 +1,121 @@
+package org.backend.stockease.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.backend.stockease.service.implementation.BestSellerEngine;
+import org.backend.stockease.service.implementation.CatalogCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * BestSellerEngine: orders recorded per second from several checkout threads
+ * (the target is well above 10k/s), the cost of a ranking pass over the whole
+ * catalog, and reading the published top list.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BestSellerIngestBenchmark {
+
+    private static final int ORDERS_PER_THREAD = 4096;
+
+    @Param({ "10000", "100000" })
+    public int products;
+
+    @Param({ "3" })
+    public int itemsPerOrder;
+
+    private BestSellerEngine engine;
+
+    @Setup
+    public void setUp() {
+        CatalogCache catalogCache = new CatalogCache();
+        ReflectionTestUtils.setField(catalogCache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(catalogCache, "maxEntries", 500L);
+        ReflectionTestUtils.setField(catalogCache, "listingTtlMillis", 60000L);
+        ReflectionTestUtils.setField(catalogCache, "categoriesTtlMillis", 600000L);
+        ReflectionTestUtils.invokeMethod(catalogCache, "init");
+
+        engine = new BestSellerEngine();
+        ReflectionTestUtils.setField(engine, "catalogCache", catalogCache);
+        ReflectionTestUtils.setField(engine, "windowHours", 168L);
+        ReflectionTestUtils.setField(engine, "buckets", 28);
+        ReflectionTestUtils.setField(engine, "topK", 20);
+        ReflectionTestUtils.invokeMethod(engine, "init");
+
+        // Every product has sold at least once, so rankings cover the whole catalog
+        long now = System.currentTimeMillis();
+        for (long id = 1; id <= products; id++) {
+            engine.record(new long[] { id }, new long[] { id % 200 + 1 }, new long[] { id % 500 + 1 },
+                new int[] { 1 + (int) (id % 7) }, now);
+        }
+        engine.rank();
+    }
+
+    @State(Scope.Thread)
+    public static class Orders {
+        private long[][] productIds;
+        private long[][] categoryIds;
+        private long[][] shopIds;
+        private int[][] quantities;
+        private int next;
+
+        @Setup
+        public void setUp(BestSellerIngestBenchmark benchmark) {
+            SplittableRandom random = new SplittableRandom();
+            productIds = new long[ORDERS_PER_THREAD][benchmark.itemsPerOrder];
+            categoryIds = new long[ORDERS_PER_THREAD][benchmark.itemsPerOrder];
+            shopIds = new long[ORDERS_PER_THREAD][benchmark.itemsPerOrder];
+            quantities = new int[ORDERS_PER_THREAD][benchmark.itemsPerOrder];
+            for (int order = 0; order < ORDERS_PER_THREAD; order++) {
+                for (int item = 0; item < benchmark.itemsPerOrder; item++) {
+                    long id = 1 + random.nextInt(benchmark.products);
+                    productIds[order][item] = id;
+                    categoryIds[order][item] = id % 200 + 1;
+                    shopIds[order][item] = id % 500 + 1;
+                    quantities[order][item] = 1 + random.nextInt(3);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(4)
+    public void recordOrder(Orders orders) {
+        int order = orders.next++ & (ORDERS_PER_THREAD - 1);
+        engine.record(orders.productIds[order], orders.categoryIds[order], orders.shopIds[order],
+            orders.quantities[order], System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void rank() {
+        engine.rank();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public List<Long> topProducts() {
+        return engine.topProducts();
+    }
+}
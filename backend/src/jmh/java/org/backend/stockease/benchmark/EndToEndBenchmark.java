@@ -0,0 +1,200 @@
+package org.backend.stockease.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.backend.stockease.StockEaseApplication;
+import org.backend.stockease.entity.Category;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.SubscriptionPlan;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.repository.CategoryRepository;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.backend.stockease.repository.SubscriptionPlanRepository;
+import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.service.CartService;
+import org.backend.stockease.service.OrderService;
+import org.backend.stockease.service.ProductService;
+import org.backend.stockease.service.ShopService;
+import org.backend.stockease.service.implementation.CatalogCache;
+import org.backend.stockease.service.implementation.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Service-level hot paths against the full application on an in-memory H2
+ * database seeded with a few thousand products and a history of orders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    @Param({ "50" })
+    public int shops;
+
+    @Param({ "100" })
+    public int productsPerShop;
+
+    @Param({ "50" })
+    public int buyers;
+
+    @Param({ "5" })
+    public int ordersPerBuyer;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ShopService shopService;
+    private CartService cartService;
+    private OrderService orderService;
+    private CatalogCache catalogCache;
+
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> buyerIds = new ArrayList<>();
+    private Long shopId;
+    private int checkoutCounter;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(StockEaseApplication.class)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "spring.h2.console.enabled=false",
+                "server.port=0")
+            .run();
+        productService = context.getBean(ProductService.class);
+        shopService = context.getBean(ShopService.class);
+        cartService = context.getBean(CartService.class);
+        orderService = context.getBean(OrderService.class);
+        catalogCache = context.getBean(CatalogCache.class);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object activeProductPage() {
+        return productService.getActiveProductPage(null, 20);
+    }
+
+    @Benchmark
+    public Object allActiveProducts() {
+        return productService.getAllProducts();
+    }
+
+    @Benchmark
+    public Object cachedProductListing() {
+        return catalogCache.getProducts(CatalogCache.ALL_PRODUCTS, productService::getAllProducts);
+    }
+
+    @Benchmark
+    public Object searchProducts() {
+        return productService.searchProducts("headphones 4", 0, 20);
+    }
+
+    @Benchmark
+    public Object orderHistory() {
+        return orderService.getUserOrders(buyerIds.get(0));
+    }
+
+    @Benchmark
+    public Object shopStatistics() {
+        return shopService.getShopStatistics(shopId);
+    }
+
+    @Benchmark
+    public Object checkoutThreeItems() {
+        int n = checkoutCounter++;
+        Long buyerId = buyerIds.get(n % buyerIds.size());
+        for (int i = 0; i < 3; i++) {
+            cartService.addToCart(buyerId, productIds.get((n * 3 + i) % productIds.size()), 1);
+        }
+        return orderService.createOrder(buyerId, "1 Benchmark Street", "standard");
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ShopRepository shopRepository = context.getBean(ShopRepository.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        SubscriptionPlan plan = context.getBean(SubscriptionPlanRepository.class).findByName("Enterprise").orElseThrow();
+        List<Category> categories = categoryRepository.findAll();
+
+        for (int s = 0; s < shops; s++) {
+            User owner = new User();
+            owner.setName("Benchmark seller " + s);
+            owner.setEmail("bench-seller-" + s + "@test.com");
+            owner.setPassword("secret");
+            owner = userRepository.save(owner);
+
+            Shop shop = new Shop();
+            shop.setName("Benchmark shop " + s);
+            shop.setOwner(owner);
+            shop.setSubscriptionPlan(plan);
+            shop.setSubscriptionStartDate(LocalDateTime.now());
+            shop.setSubscriptionEndDate(LocalDateTime.now().plusMonths(1));
+            shop = shopRepository.save(shop);
+            if (shopId == null) {
+                shopId = shop.getId();
+            }
+
+            List<Product> products = new ArrayList<>(productsPerShop);
+            for (int p = 0; p < productsPerShop; p++) {
+                Product product = new Product();
+                product.setName("Benchmark headphones " + s + "-" + p);
+                product.setDescription("Wireless noise cancelling headphones with a long battery life");
+                product.setPrice(new BigDecimal("19.99").add(BigDecimal.valueOf(p, 2)));
+                product.setStock(1_000_000);
+                product.setIsActive(true);
+                product.setIsBestSeller(p % 20 == 0);
+                product.setCategory(categories.isEmpty() ? null : categories.get(p % categories.size()));
+                product.setShop(shop);
+                products.add(product);
+            }
+            for (Product product : productRepository.saveAll(products)) {
+                productIds.add(product.getId());
+            }
+        }
+
+        for (int b = 0; b < buyers; b++) {
+            User buyer = new User();
+            buyer.setName("Benchmark buyer " + b);
+            buyer.setEmail("bench-buyer-" + b + "@test.com");
+            buyer.setPassword("secret");
+            buyerIds.add(userRepository.save(buyer).getId());
+        }
+        for (int o = 0; o < ordersPerBuyer; o++) {
+            for (int b = 0; b < buyers; b++) {
+                checkoutThreeItems();
+            }
+        }
+
+        // The search index is rebuilt on startup; pick up the seeded products
+        context.getBean(ProductSearchIndex.class).rebuild();
+    }
+}
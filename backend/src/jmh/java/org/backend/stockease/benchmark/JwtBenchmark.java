@@ -0,0 +1,114 @@
+package org.backend.stockease.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.backend.stockease.security.JwtAuthenticationCache;
+import org.backend.stockease.security.JwtAuthenticationFilter;
+import org.backend.stockease.security.JwtProvider;
+import org.backend.stockease.service.implementation.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.servlet.ServletException;
+
+/**
+ * Token generation and verification, and the per-request cost of the JWT filter
+ * with and without a cached verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtProvider jwtProvider;
+    private JwtAuthenticationCache authenticationCache;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtProvider = new JwtProvider();
+        token = jwtProvider.generateTokenFromUserId(42L, "bench@test.com", "CLIENT");
+
+        authenticationCache = new JwtAuthenticationCache();
+        ReflectionTestUtils.setField(authenticationCache, "maxSize", 10000);
+        ReflectionTestUtils.setField(authenticationCache, "ttlMillis", 300000L);
+        ReflectionTestUtils.invokeMethod(authenticationCache, "init");
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtProvider", jwtProvider);
+        ReflectionTestUtils.setField(filter, "authenticationCache", authenticationCache);
+        // Stands in for the role lookup an uncached token costs; without a database it measures the filter alone
+        ReflectionTestUtils.setField(filter, "userDetailsService", new UserDetailsServiceImpl() {
+            @Override
+            public UserDetails loadTokenPrincipal(Long userId) {
+                return new User(userId.toString(), "", List.of(new SimpleGrantedAuthority("ROLE_CLIENT")));
+            }
+        });
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtProvider.generateTokenFromUserId(42L, "bench@test.com", "CLIENT");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Object parseClaimsOnce() {
+        return jwtProvider.parseClaims(token);
+    }
+
+    // What the filter did per request before claims were parsed once
+    @Benchmark
+    public void parseClaimsThreeTimes(Blackhole blackhole) {
+        blackhole.consume(jwtProvider.validateToken(token));
+        blackhole.consume(jwtProvider.getEmailFromToken(token));
+        blackhole.consume(jwtProvider.getUserIdFromToken(token));
+    }
+
+    @Benchmark
+    public Object filterCachedToken() throws ServletException, IOException {
+        return runFilter();
+    }
+
+    @Benchmark
+    public Object filterUncachedToken() throws ServletException, IOException {
+        authenticationCache.clear();
+        return runFilter();
+    }
+
+    private Object runFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cart/42");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,60 @@
+package org.backend.stockease.benchmark;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.backend.stockease.entity.CartItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The BigDecimal arithmetic of OrderServiceImpl.createOrder: order total and
+ * per-shop revenue over the cart, done the same way as the checkout loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalBenchmark {
+
+    @Param({ "1", "20", "100" })
+    public int cartSize;
+
+    private List<CartItem> cartItems;
+
+    @Setup
+    public void setUp() {
+        cartItems = BenchmarkFixtures.cartItems(cartSize, 5);
+    }
+
+    @Benchmark
+    public void orderTotals(Blackhole blackhole) {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        Map<Long, BigDecimal> shopRevenueMap = new HashMap<>();
+        for (CartItem cartItem : cartItems) {
+            BigDecimal itemRevenue = cartItem.getProduct().getPrice()
+                .multiply(BigDecimal.valueOf(cartItem.getQuantity()));
+            totalAmount = totalAmount.add(itemRevenue);
+            if (cartItem.getProduct().getShop() != null) {
+                shopRevenueMap.merge(cartItem.getProduct().getShop().getId(), itemRevenue, BigDecimal::add);
+            }
+        }
+        blackhole.consume(totalAmount);
+        blackhole.consume(shopRevenueMap);
+    }
+}
@@ -0,0 +1,132 @@
+package org.backend.stockease.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.backend.stockease.StockEaseApplication;
+import org.backend.stockease.config.SyntheticDataGenerator;
+import org.backend.stockease.service.CartService;
+import org.backend.stockease.service.OrderService;
+import org.backend.stockease.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Catalog and checkout throughput under the default persistence settings and
+ * under the prod profile. H2 in MySQL compatibility mode stands in for MySQL, so
+ * the prod run exercises its pool sizing, autocommit handling, Flyway schema and
+ * Hibernate settings; the MySQL driver flags (rewriteBatchedStatements and the
+ * prepared statement cache) only take effect against a real MySQL server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(8)
+@Fork(1)
+public class PersistenceProfileBenchmark {
+
+    @Param({ "default", "prod" })
+    public String profile;
+
+    @Param({ "5000" })
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private CartService cartService;
+    private OrderService orderService;
+
+    private List<Long> productIds;
+    private List<Long> categoryIds;
+    private List<Long> buyerIds;
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(StockEaseApplication.class)
+            .profiles(profile.equals("prod") ? new String[] { "prod" } : new String[0])
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:persistence-" + profile + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driverClassName=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "stockease.sql-trace.log-to-console=false",
+                // Synthetic shops on the small plans would run out of monthly orders mid-run
+                "stockease.quotas.enabled=false",
+                // Keep the synthetic shops whose subscriptions have lapsed in the data set
+                "stockease.subscription-expiry.enabled=false",
+                "server.port=0")
+            .run();
+        productService = context.getBean(ProductService.class);
+        cartService = context.getBean(CartService.class);
+        orderService = context.getBean(OrderService.class);
+
+        context.getBean(SyntheticDataGenerator.class).generate(50, products, 500, 2000, 42L);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        // Checkout must never run out of stock during the measurement (in a transaction, prod runs without autocommit)
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+            .executeWithoutResult(status -> jdbcTemplate.update("UPDATE products SET stock = 1000000"));
+        productIds = jdbcTemplate.queryForList("SELECT id FROM products WHERE is_active = TRUE ORDER BY id", Long.class);
+        categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories ORDER BY id", Long.class);
+        buyerIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE 'gen42-buyer-%' ORDER BY id", Long.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    // Each benchmark thread checks out with its own buyers so carts never collide
+    @State(Scope.Thread)
+    public static class Buyer {
+        int thread = -1;
+        int counter;
+    }
+
+    @Benchmark
+    public Object catalogPage(Buyer buyer) {
+        long after = productIds.get(buyer.counter++ % productIds.size()) - 1;
+        return productService.getActiveProductPage(after, 20);
+    }
+
+    @Benchmark
+    public Object catalogCategory(Buyer buyer) {
+        return productService.getProductsByCategory(categoryIds.get(buyer.counter++ % categoryIds.size()));
+    }
+
+    @Benchmark
+    public Object checkoutThreeItems(Buyer buyer) {
+        if (buyer.thread < 0) {
+            buyer.thread = threadCounter.getAndIncrement();
+        }
+        int n = buyer.counter++;
+        // Buyers whose index is congruent to the thread number (up to 16 threads)
+        int stride = 16;
+        Long buyerId = buyerIds.get(buyer.thread + (n % (buyerIds.size() / stride)) * stride);
+        for (int i = 0; i < 3; i++) {
+            cartService.addToCart(buyerId, productIds.get((n * 7 + i * 131 + buyer.thread) % productIds.size()), 1);
+        }
+        return orderService.createOrder(buyerId, "1 Benchmark Street", "standard");
+    }
+}
@@ -0,0 +1,127 @@
+package org.backend.stockease.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.backend.stockease.StockEaseApplication;
+import org.backend.stockease.config.SyntheticDataGenerator;
+import org.backend.stockease.security.JwtProvider;
+import org.backend.stockease.service.PlatformStatisticsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * GET /api/admin/statistics over HTTP against a year of synthetic history with at
+ * least a million order items, after the rollup job has caught up. The trial fails
+ * if the p99 of a timed run after the measurement is above maxP99Millis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PlatformStatisticsBenchmark {
+
+    private static final long MIN_ORDER_ITEMS = 1_000_000;
+    private static final int LATENCY_SAMPLES = 200;
+
+    // The generator writes 2.5 lines per order on average
+    @Param({ "420000" })
+    public int orders;
+
+    @Param({ "100" })
+    public long maxP99Millis;
+
+    private ConfigurableApplicationContext context;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(StockEaseApplication.class)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:statistics-benchmark;DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "spring.h2.console.enabled=false",
+                "stockease.datagen.history-days=365",
+                // Rolled up once below, not in the middle of a measurement
+                "stockease.statistics.rollup-initial-delay-ms=3600000",
+                "stockease.statistics.rollup-interval-ms=3600000",
+                "stockease.subscription-expiry.enabled=false",
+                "server.port=0")
+            .run();
+
+        context.getBean(SyntheticDataGenerator.class).generate(100, 10000, 5000, orders, 42L);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        long orderItems = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items", Long.class);
+        if (orderItems < MIN_ORDER_ITEMS) {
+            throw new IllegalStateException("Only " + orderItems + " order items were generated; raise the orders param");
+        }
+
+        long started = System.currentTimeMillis();
+        context.getBean(PlatformStatisticsService.class).refreshRollups();
+        System.out.println("✅ " + orderItems + " order items, rolled up in " + (System.currentTimeMillis() - started) + " ms");
+
+        Map<String, Object> admin = jdbcTemplate.queryForMap("SELECT id, email FROM users WHERE role = 'ADMIN' ORDER BY id LIMIT 1");
+        String token = context.getBean(JwtProvider.class)
+            .generateTokenFromUserId(((Number) admin.get("id")).longValue(), (String) admin.get("email"), "ADMIN");
+        request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                + context.getEnvironment().getProperty("local.server.port") + "/api/admin/statistics"))
+            .header("Authorization", "Bearer " + token)
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void checkLatencyAndStop() throws Exception {
+        try {
+            long[] nanos = new long[LATENCY_SAMPLES];
+            for (int i = 0; i < nanos.length; i++) {
+                long started = System.nanoTime();
+                platformStatistics();
+                nanos[i] = System.nanoTime() - started;
+            }
+            Arrays.sort(nanos);
+            double p50 = nanos[nanos.length / 2] / 1_000_000.0;
+            double p99 = nanos[(int) Math.ceil(nanos.length * 0.99) - 1] / 1_000_000.0;
+            System.out.println(String.format("📊 /api/admin/statistics p50 %.2f ms, p99 %.2f ms (bound %d ms)", p50, p99, maxP99Millis));
+            if (p99 > maxP99Millis) {
+                throw new IllegalStateException(String.format(
+                    "/api/admin/statistics p99 %.2f ms is above the %d ms bound", p99, maxP99Millis));
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public String platformStatistics() throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("/api/admin/statistics returned " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,306 @@
+package org.backend.stockease.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.backend.stockease.StockEaseApplication;
+import org.backend.stockease.config.SyntheticDataGenerator;
+import org.backend.stockease.security.JwtProvider;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Boots the application on an in-memory H2 database, fills it with the synthetic
+ * data generator and replays a fixed browse/search/add-to-cart/checkout mix over
+ * HTTP from a number of virtual users. Every virtual user has its own seeded
+ * Random, so two runs with the same settings send the same requests.
+ *
+ * Settings are system properties: load.threads, load.duration-seconds,
+ * load.warmup-seconds, load.shops, load.products, load.users, load.orders, load.seed,
+ * load.mix (browse, or blocking for checkout plus admin statistics) and
+ * load.server-threads (platform, or virtual for the virtual-threads profile).
+ * Prints p50/p99 latency and throughput per endpoint and writes them to
+ * target/load-report-{mix}-{server-threads}.json.
+ */
+public class LoadDriver {
+
+    private static final String[] SEARCH_TERMS = {
+        "laptop", "wireless headphones", "smart watch", "chair", "speaker", "eco bottle", "camera", "pro keyboard"
+    };
+
+    private final int threads = Integer.getInteger("load.threads", 16);
+    private final int durationSeconds = Integer.getInteger("load.duration-seconds", 60);
+    private final int warmupSeconds = Integer.getInteger("load.warmup-seconds", 10);
+    private final int shops = Integer.getInteger("load.shops", 100);
+    private final int products = Integer.getInteger("load.products", 10000);
+    private final int users = Integer.getInteger("load.users", 5000);
+    private final int orders = Integer.getInteger("load.orders", 20000);
+    private final long seed = Long.getLong("load.seed", 42L);
+    private final String mix = System.getProperty("load.mix", "browse");
+    private final String serverThreads = System.getProperty("load.server-threads", "platform");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    private String baseUrl;
+    private List<Long> buyerIds;
+    private List<Long> productIds;
+    private List<Long> categoryIds;
+    private Map<Long, String> tokens;
+    private String adminToken;
+
+    public static void main(String[] args) throws Exception {
+        new LoadDriver().run();
+    }
+
+    private void run() throws Exception {
+        if (serverThreads.equals("virtual") && Runtime.version().feature() < 21) {
+            System.err.println("⚠️ Virtual threads need JDK 21+; the server will fall back to platform threads");
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(StockEaseApplication.class)
+            .profiles(serverThreads.equals("virtual") ? new String[] { "virtual-threads" } : new String[0])
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "spring.h2.console.enabled=false",
+                // Synthetic shops on the small plans would run out of monthly orders mid-run
+                "stockease.quotas.enabled=false",
+                // Keep the synthetic shops whose subscriptions have lapsed in the data set
+                "stockease.subscription-expiry.enabled=false",
+                "server.port=0")
+            .run();
+        try {
+            prepare(context);
+            System.out.println("🔥 Warming up for " + warmupSeconds + " s with " + threads + " virtual users");
+            drive(warmupSeconds, 0);
+            stats.clear();
+            recording = true;
+            System.out.println("🚀 Measuring for " + durationSeconds + " s with " + threads + " virtual users");
+            drive(durationSeconds, 1);
+            report();
+        } finally {
+            context.close();
+        }
+    }
+
+    private void prepare(ConfigurableApplicationContext context) {
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        context.getBean(SyntheticDataGenerator.class).generate(shops, products, users, orders, seed);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        buyerIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ? ORDER BY id", Long.class,
+            "gen" + seed + "-buyer-%");
+        productIds = jdbcTemplate.queryForList("SELECT id FROM products WHERE is_active = TRUE AND stock > 0 ORDER BY id", Long.class);
+        categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories ORDER BY id", Long.class);
+
+        // One token per buyer, created up front so signing does not show up in the latencies
+        JwtProvider jwtProvider = context.getBean(JwtProvider.class);
+        tokens = new ConcurrentHashMap<>();
+        for (int i = 0; i < Math.min(threads, buyerIds.size()); i++) {
+            Long buyerId = buyerIds.get(i);
+            tokens.put(buyerId, jwtProvider.generateTokenFromUserId(buyerId, "gen" + seed + "-buyer-" + i + "@stockease.test", "CLIENT"));
+        }
+        Map<String, Object> admin = jdbcTemplate.queryForMap("SELECT id, email FROM users WHERE role = 'ADMIN' ORDER BY id LIMIT 1");
+        adminToken = jwtProvider.generateTokenFromUserId(((Number) admin.get("id")).longValue(), (String) admin.get("email"), "ADMIN");
+    }
+
+    private void drive(int seconds, long phase) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int virtualUser = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    session(virtualUser, new Random(seed * 31 + virtualUser * 17L + phase), deadline);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + t);
+            thread.start();
+        }
+        done.await();
+    }
+
+    private void session(int virtualUser, Random random, long deadline) {
+        if (mix.equals("blocking")) {
+            blockingSession(virtualUser, random, deadline);
+        } else {
+            browseSession(virtualUser, random, deadline);
+        }
+    }
+
+    // 60% browse, 20% search, 15% add to cart, 5% checkout
+    private void browseSession(int virtualUser, Random random, long deadline) {
+        Long buyerId = buyerIds.get(virtualUser % buyerIds.size());
+        String token = tokens.get(buyerId);
+        int cartLines = 0;
+        while (System.nanoTime() < deadline) {
+            int roll = random.nextInt(100);
+            if (roll < 60) {
+                browse(random, token);
+            } else if (roll < 80) {
+                String term = SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+                get("search", "/api/products/search?keyword=" + term.replace(" ", "+") + "&page=0&size=20", token);
+            } else if (roll < 95 || cartLines == 0) {
+                Long productId = productIds.get(random.nextInt(productIds.size()));
+                post("cart/add", "/api/cart/add",
+                    "{\"userId\":" + buyerId + ",\"productId\":" + productId + ",\"quantity\":1}", token);
+                cartLines++;
+            } else {
+                post("orders/create", "/api/orders/create",
+                    "{\"userId\":" + buyerId + ",\"address\":\"1 Load Street\",\"deliveryOption\":\"standard\"}", token);
+                cartLines = 0;
+            }
+        }
+    }
+
+    // Requests that hold a thread while they wait on JDBC: 30% admin statistics, 50% add to cart, 20% checkout
+    private void blockingSession(int virtualUser, Random random, long deadline) {
+        Long buyerId = buyerIds.get(virtualUser % buyerIds.size());
+        String token = tokens.get(buyerId);
+        int cartLines = 0;
+        while (System.nanoTime() < deadline) {
+            int roll = random.nextInt(100);
+            if (roll < 30) {
+                get("admin/statistics", "/api/admin/statistics", adminToken);
+            } else if (roll < 80 || cartLines == 0) {
+                Long productId = productIds.get(random.nextInt(productIds.size()));
+                post("cart/add", "/api/cart/add",
+                    "{\"userId\":" + buyerId + ",\"productId\":" + productId + ",\"quantity\":1}", token);
+                cartLines++;
+            } else {
+                post("orders/create", "/api/orders/create",
+                    "{\"userId\":" + buyerId + ",\"address\":\"1 Load Street\",\"deliveryOption\":\"standard\"}", token);
+                cartLines = 0;
+            }
+        }
+    }
+
+    private void browse(Random random, String token) {
+        int roll = random.nextInt(4);
+        if (roll == 0) {
+            long after = productIds.get(random.nextInt(productIds.size())) - 1;
+            get("products/page", "/api/products?after=" + after + "&limit=20", token);
+        } else if (roll == 1 && !categoryIds.isEmpty()) {
+            get("products/category", "/api/products/category/" + categoryIds.get(random.nextInt(categoryIds.size())), token);
+        } else if (roll == 2) {
+            get("products/{id}", "/api/products/" + productIds.get(random.nextInt(productIds.size())), token);
+        } else {
+            get("products/bestsellers", "/api/products/bestsellers", token);
+        }
+    }
+
+    private void get(String endpoint, String path, String token) {
+        send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET(), token);
+    }
+
+    private void post(String endpoint, String path, String body, String token) {
+        send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body)), token);
+    }
+
+    private void send(String endpoint, HttpRequest.Builder builder, String token) {
+        HttpRequest request = builder.header("Authorization", "Bearer " + token).timeout(Duration.ofSeconds(30)).build();
+        long started = System.nanoTime();
+        boolean ok;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            ok = response.statusCode() < 400;
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (recording) {
+            stats.computeIfAbsent(endpoint, k -> new EndpointStats()).record(System.nanoTime() - started, ok);
+        }
+    }
+
+    private void report() throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threads", threads);
+        report.put("durationSeconds", durationSeconds);
+        report.put("shops", shops);
+        report.put("products", products);
+        report.put("users", users);
+        report.put("orders", orders);
+        report.put("seed", seed);
+        report.put("mix", mix);
+        report.put("serverThreads", serverThreads);
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        System.out.println("📊 Load test results (" + mix + " mix, " + serverThreads + " server threads, "
+            + threads + " virtual users, " + durationSeconds + " s)");
+        System.out.println(String.format("%-22s %10s %10s %10s %10s %8s", "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "errors"));
+        stats.keySet().stream().sorted().forEach(endpoint -> {
+            EndpointStats endpointStats = stats.get(endpoint);
+            long[] latencies = endpointStats.sortedLatencies();
+            double p50 = percentile(latencies, 0.50) / 1_000_000.0;
+            double p99 = percentile(latencies, 0.99) / 1_000_000.0;
+            double throughput = latencies.length / (double) durationSeconds;
+            System.out.println(String.format("%-22s %10d %10.1f %10.2f %10.2f %8d",
+                endpoint, latencies.length, throughput, p50, p99, endpointStats.errors.get()));
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", latencies.length);
+            row.put("throughputPerSecond", throughput);
+            row.put("p50Millis", p50);
+            row.put("p99Millis", p99);
+            row.put("errors", endpointStats.errors.get());
+            endpoints.put(endpoint, row);
+        });
+        report.put("endpoints", endpoints);
+
+        Path output = Path.of("target", "load-report-" + mix + "-" + serverThreads + ".json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+        System.out.println("✅ Report written to " + output.toAbsolutePath());
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static class EndpointStats {
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        private synchronized void record(long nanos, boolean ok) {
+            latencies.add(nanos);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        private synchronized long[] sortedLatencies() {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
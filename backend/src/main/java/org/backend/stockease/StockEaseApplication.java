@@ -2,8 +2,10 @@ package org.backend.stockease;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class StockEaseApplication {
 
     public static void main(String[] args) {
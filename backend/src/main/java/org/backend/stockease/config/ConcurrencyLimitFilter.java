@@ -0,0 +1,68 @@
+package org.backend.stockease.config;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * With virtual threads Tomcat no longer caps how many requests run at once, so
+ * thousands of them could queue inside Hikari and time out there, halfway through
+ * a service call. This admits at most stockease.virtual-threads.max-concurrent-requests
+ * into the application (a small multiple of the pool size keeps the pool busy
+ * without a long queue in front of it). Others wait in a fair queue and get a 503
+ * once stockease.virtual-threads.queue-timeout-ms has passed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    @Value("${stockease.virtual-threads.max-concurrent-requests:200}")
+    private int maxConcurrentRequests;
+
+    @Value("${stockease.virtual-threads.queue-timeout-ms:5000}")
+    private long queueTimeoutMillis;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxConcurrentRequests, true);
+        System.out.println("🧵 Virtual-thread request mode: at most " + maxConcurrentRequests + " requests in flight");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -15,10 +15,12 @@ import org.backend.stockease.repository.SubscriptionPlanRepository;
 import org.backend.stockease.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 @Component
+@Order(1)
 public class DataInitializer implements CommandLineRunner {
 
     @Autowired
@@ -259,7 +261,8 @@ public class DataInitializer implements CommandLineRunner {
         System.out.println("✅ Created " + products.size() + " products");
     }
 
-    private Product createProduct(String name, String description, BigDecimal price, 
+    // Also used by SyntheticDataGenerator so generated products look like the demo ones
+    static Product createProduct(String name, String description, BigDecimal price, 
                                   BigDecimal originalPrice, Integer stock, Category category, 
                                   Double rating, Boolean isBestSeller, String imageUrl) {
         Product product = new Product();
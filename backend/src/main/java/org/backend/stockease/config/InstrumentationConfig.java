@@ -0,0 +1,37 @@
+package org.backend.stockease.config;
+
+import javax.sql.DataSource;
+
+import org.backend.stockease.metrics.RowCountingInterceptor;
+import org.backend.stockease.metrics.SqlTracer;
+import org.backend.stockease.metrics.TracingDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class InstrumentationConfig {
+
+    // putIfAbsent so an interceptor set through spring.jpa.properties still wins
+    @Bean
+    public HibernatePropertiesCustomizer requestMetricsHibernateHooks() {
+        return properties -> properties.putIfAbsent(AvailableSettings.INTERCEPTOR, new RowCountingInterceptor());
+    }
+
+    // Every connection, JPA and JdbcTemplate alike, goes through the SQL trace and the per-request statement count
+    @Bean
+    public static BeanPostProcessor sqlTracingDataSourcePostProcessor(ObjectProvider<SqlTracer> sqlTracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource, sqlTracer.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package org.backend.stockease.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool plus one pool per
+ * replica in stockease.read-replica.urls. Connections for @Transactional(readOnly = true)
+ * work (including the Spring Data finders, which are read-only by default) go
+ * through {@link ReplicaRouter}; everything else stays on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "stockease.read-replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${stockease.read-replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${stockease.read-replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${stockease.read-replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${stockease.read-replica.max-lag-ms:2000}")
+    private long maxLagMillis;
+
+    @Bean
+    public ReplicaRouter replicaRouter(DataSourceProperties properties, Environment environment, ReadYourWrites readYourWrites) {
+        HikariDataSource primary = pool(properties, environment, properties.determineUrl(),
+            properties.determineUsername(), properties.determinePassword());
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("stockease-primary");
+        }
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = pool(properties, environment, replicaUrls.get(i).trim(), replicaUsername, replicaPassword);
+            replica.setPoolName("stockease-replica-" + (i + 1));
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        System.out.println("🔀 Read-only transactions routed across " + replicas.size() + " replica(s)");
+        return new ReplicaRouter(primary, replicas, readYourWrites, maxLagMillis);
+    }
+
+    // Hibernate asks for the connection while beginning the transaction, before Spring has marked it
+    // read-only; the lazy proxy only picks the physical connection at the first statement
+    @Bean
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        return new LazyConnectionDataSourceProxy(replicaRouter.getDataSource());
+    }
+
+    // Hand the connection back after every transaction, otherwise the open-in-view session would
+    // keep using whichever database the request's first transaction picked
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionRelease() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    // Same pool settings (spring.datasource.hikari.*) for the primary and every replica
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String url, String username, String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+            .url(url).username(username).password(password).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+}
@@ -0,0 +1,57 @@
+package org.backend.stockease.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which users wrote recently so their reads stay on the primary until
+ * the replicas have had time to catch up (a buyer who just checked out must see
+ * the order in their history). Keyed by the authenticated user; anonymous
+ * requests are never pinned.
+ */
+@Component
+public class ReadYourWrites {
+
+    @Value("${stockease.read-replica.sticky-ms:5000}")
+    private long stickyMillis;
+
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public void markWrite() {
+        String user = currentUser();
+        if (user == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (stickyUntil.size() > 10000) {
+            stickyUntil.values().removeIf(until -> until <= now);
+        }
+        stickyUntil.put(user, now + stickyMillis);
+    }
+
+    public boolean mustReadPrimary() {
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (until <= System.currentTimeMillis()) {
+            stickyUntil.remove(user, until);
+            return false;
+        }
+        return true;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,154 @@
+package org.backend.stockease.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Picks the database behind every connection: the primary, unless the current
+ * transaction is read-only. Read-only transactions get the next replica in
+ * round-robin order that is within stockease.read-replica.max-lag-ms of the
+ * primary, or the primary itself when the current user has just written or no
+ * replica is fresh enough. Lag comes from a heartbeat row the primary rewrites
+ * every stockease.read-replica.heartbeat-interval-ms and the replicas receive
+ * through replication. Replicas start out of rotation until their first check.
+ */
+public class ReplicaRouter implements AutoCloseable {
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final DataSource routingDataSource = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? readConnection() : primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    };
+
+    public ReplicaRouter(HikariDataSource primary, List<HikariDataSource> replicas, ReadYourWrites readYourWrites, long maxLagMillis) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.readYourWrites = readYourWrites;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public DataSource getDataSource() {
+        return routingDataSource;
+    }
+
+    private Connection readConnection() throws SQLException {
+        if (!replicas.isEmpty() && !readYourWrites.mustReadPrimary()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.usable) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.markUnusable("connection failed: " + e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${stockease.read-replica.heartbeat-interval-ms:1000}")
+    public void checkLag() {
+        long now = System.currentTimeMillis();
+        try {
+            writeHeartbeat(now);
+        } catch (SQLException e) {
+            // Without a fresh heartbeat on the primary the replica lag cannot be told apart from an outage
+            System.err.println("❌ Replica heartbeat could not be written: " + e.getMessage());
+            replicas.forEach(replica -> replica.markUnusable("no heartbeat on the primary"));
+            return;
+        }
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT beat_millis FROM replica_heartbeat WHERE id = 1");
+                 ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    replica.markUnusable("no heartbeat replicated yet");
+                    continue;
+                }
+                long lag = Math.max(0, now - rs.getLong(1));
+                if (lag > maxLagMillis) {
+                    replica.markUnusable(lag + " ms behind");
+                } else {
+                    replica.markUsable(lag);
+                }
+            } catch (SQLException e) {
+                replica.markUnusable(e.getMessage());
+            }
+        }
+    }
+
+    private void writeHeartbeat(long now) throws SQLException {
+        try (Connection connection = primary.getConnection()) {
+            int updated;
+            try (PreparedStatement update = connection.prepareStatement("UPDATE replica_heartbeat SET beat_millis = ? WHERE id = 1")) {
+                update.setLong(1, now);
+                updated = update.executeUpdate();
+            }
+            if (updated == 0) {
+                try (PreparedStatement insert = connection.prepareStatement("INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, ?)")) {
+                    insert.setLong(1, now);
+                    insert.executeUpdate();
+                }
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private static class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean usable;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private void markUsable(long lag) {
+            if (!usable) {
+                usable = true;
+                System.out.println("✅ Replica " + dataSource.getPoolName() + " in rotation (" + lag + " ms behind)");
+            }
+        }
+
+        private void markUnusable(String reason) {
+            if (usable) {
+                usable = false;
+                System.err.println("⚠️ Replica " + dataSource.getPoolName() + " out of rotation, reads go to the primary: " + reason);
+            }
+        }
+    }
+}
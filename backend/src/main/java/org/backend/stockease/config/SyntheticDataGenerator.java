@@ -0,0 +1,347 @@
+package org.backend.stockease.config;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.backend.stockease.entity.Category;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.entity.SubscriptionPlan;
+import org.backend.stockease.entity.enums.DeliveryStatus;
+import org.backend.stockease.entity.enums.OrderStatus;
+import org.backend.stockease.entity.enums.Role;
+import org.backend.stockease.repository.CategoryRepository;
+import org.backend.stockease.repository.SubscriptionPlanRepository;
+import org.backend.stockease.service.implementation.CatalogCache;
+import org.backend.stockease.service.implementation.ProductSearchIndex;
+import org.backend.stockease.service.implementation.ShopQuotas;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Bulk-loads a synthetic marketplace for scale and load testing: sellers with
+ * shops, products, buyers with carts and an order history, plus the statistics
+ * rows the app maintains for them. Everything is written with JDBC batches and
+ * driven by a seeded Random, so the same settings always produce the same data.
+ *
+ * Runs after DataInitializer when stockease.datagen.enabled=true, or on demand
+ * through {@link #generate}.
+ */
+@Component
+@Order(2)
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final String[] ADJECTIVES = {
+        "Premium", "Wireless", "Smart", "Portable", "Ergonomic", "Compact", "Classic", "Pro", "Eco", "Ultra"
+    };
+    private static final String[] NOUNS = {
+        "Laptop", "Headphones", "Chair", "Watch", "Speaker", "Keyboard", "Lamp", "Backpack", "Shoes", "Mat",
+        "Mouse", "Desk", "Bottle", "Jacket", "Camera"
+    };
+    private static final String[] FEATURES = {
+        "with a long battery life", "made from recycled materials", "with a two year warranty",
+        "designed for everyday use", "with fast charging", "in a lightweight build"
+    };
+    private static final OrderStatus[] ORDER_STATUSES = {
+        OrderStatus.DELIVERED, OrderStatus.DELIVERED, OrderStatus.DELIVERED, OrderStatus.SHIPPED,
+        OrderStatus.PROCESSING, OrderStatus.PENDING, OrderStatus.CANCELLED
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SubscriptionPlanRepository subscriptionPlanRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ShopQuotas shopQuotas;
+
+    @Value("${stockease.datagen.enabled:false}")
+    private boolean enabled;
+
+    @Value("${stockease.datagen.shops:100}")
+    private int shops;
+
+    @Value("${stockease.datagen.products:10000}")
+    private int products;
+
+    @Value("${stockease.datagen.users:5000}")
+    private int users;
+
+    @Value("${stockease.datagen.orders:20000}")
+    private int orders;
+
+    @Value("${stockease.datagen.seed:42}")
+    private long seed;
+
+    @Value("${stockease.datagen.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${stockease.datagen.history-days:90}")
+    private int historyDays;
+
+    @Override
+    public void run(String... args) {
+        if (enabled) {
+            generate(shops, products, users, orders, seed);
+        }
+    }
+
+    public Summary generate(int shopCount, int productCount, int userCount, int orderCount, long randomSeed) {
+        long started = System.currentTimeMillis();
+        Random random = new Random(randomSeed);
+        Summary summary = new TransactionTemplate(transactionManager).execute(status ->
+            load(random, randomSeed, shopCount, productCount, userCount, orderCount));
+        productSearchIndex.rebuild();
+        catalogCache.invalidateAll();
+        shopQuotas.reconcile();
+        summary.elapsedMillis = System.currentTimeMillis() - started;
+        System.out.println("✅ Generated " + summary.shops + " shops, " + summary.products + " products, "
+            + summary.users + " users and " + summary.orders + " orders in " + summary.elapsedMillis + " ms");
+        return summary;
+    }
+
+    private Summary load(Random random, long randomSeed, int shopCount, int productCount, int userCount, int orderCount) {
+        List<SubscriptionPlan> plans = subscriptionPlanRepository.findAll();
+        List<Category> categories = categoryRepository.findAll();
+        if (plans.isEmpty() || categories.isEmpty()) {
+            throw new RuntimeException("Subscription plans and categories must exist before generating data");
+        }
+        // One hash for everybody; BCrypt per user would dominate the load time
+        String password = passwordEncoder.encode("password");
+        String prefix = "gen" + randomSeed;
+        LocalDateTime now = LocalDate.now().atStartOfDay();
+
+        // Sellers and their shops
+        List<Object[]> sellerRows = new ArrayList<>(shopCount);
+        for (int i = 0; i < shopCount; i++) {
+            sellerRows.add(new Object[] { "Seller " + i, prefix + "-seller-" + i + "@stockease.test", password, Role.SELLER.name() });
+        }
+        List<Long> sellerIds = insertWithIdentity("users", "INSERT INTO users (name, email, password, role) VALUES (?, ?, ?, ?)", sellerRows);
+
+        List<Object[]> shopRows = new ArrayList<>(shopCount);
+        for (int i = 0; i < shopCount; i++) {
+            SubscriptionPlan plan = plans.get(random.nextInt(plans.size()));
+            LocalDateTime start = now.minusDays(random.nextInt(Math.max(historyDays, 1)));
+            shopRows.add(new Object[] { prefix + " shop " + i, "Synthetic shop number " + i, sellerIds.get(i), plan.getId(),
+                Timestamp.valueOf(start), Timestamp.valueOf(start.plusMonths(plan.getDurationMonths())), true, Timestamp.valueOf(start) });
+        }
+        List<Long> shopIds = insertWithIdentity("shops",
+            "INSERT INTO shops (name, description, owner_id, subscription_plan_id, subscription_start_date, subscription_end_date, "
+                + "is_active, created_at, total_revenue, total_orders) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, 0)", shopRows);
+
+        // Products, built the same way as the demo catalog
+        List<Object[]> productRows = new ArrayList<>(productCount);
+        List<BigDecimal> prices = new ArrayList<>(productCount);
+        List<Integer> productShops = new ArrayList<>(productCount);
+        Map<Integer, int[]> shopProductCounts = new HashMap<>();
+        for (int i = 0; i < productCount; i++) {
+            String noun = NOUNS[random.nextInt(NOUNS.length)];
+            BigDecimal price = BigDecimal.valueOf(500 + random.nextInt(150000), 2);
+            BigDecimal originalPrice = random.nextInt(3) == 0 ? price.multiply(new BigDecimal("1.25")).setScale(2, RoundingMode.HALF_UP) : null;
+            int stock = random.nextInt(10) == 0 ? 0 : random.nextInt(500);
+            Product product = DataInitializer.createProduct(
+                ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + noun + " " + i,
+                noun + " " + FEATURES[random.nextInt(FEATURES.length)],
+                price, originalPrice, stock, categories.get(random.nextInt(categories.size())),
+                Math.round((3.0 + random.nextDouble() * 2.0) * 10.0) / 10.0, random.nextInt(25) == 0,
+                "https://example.com/images/" + noun.toLowerCase() + "-" + (i % 50) + ".jpg");
+            int shopIndex = random.nextInt(shopCount);
+            productRows.add(new Object[] { product.getName(), product.getDescription(), product.getPrice(), product.getOriginalPrice(),
+                product.getStock(), product.getImageUrl(), product.getRating(), product.getIsBestSeller(), product.getIsActive(),
+                product.getCategory().getId(), shopIds.get(shopIndex) });
+            prices.add(price);
+            productShops.add(shopIndex);
+            int[] counts = shopProductCounts.computeIfAbsent(shopIndex, k -> new int[2]);
+            counts[0]++;
+            if (stock > 0) {
+                counts[1]++;
+            }
+        }
+        List<Long> productIds = insertWithIdentity("products",
+            "INSERT INTO products (name, description, price, original_price, stock, image_url, rating, is_best_seller, is_active, "
+                + "category_id, shop_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", productRows);
+
+        // Buyers with their carts
+        List<Object[]> buyerRows = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            buyerRows.add(new Object[] { "Buyer " + i, prefix + "-buyer-" + i + "@stockease.test", password, Role.CLIENT.name() });
+        }
+        List<Long> buyerIds = insertWithIdentity("users", "INSERT INTO users (name, email, password, role) VALUES (?, ?, ?, ?)", buyerRows);
+        List<Object[]> cartRows = new ArrayList<>(userCount);
+        for (Long buyerId : buyerIds) {
+            cartRows.add(new Object[] { buyerId });
+        }
+        batch("INSERT INTO carts (user_id) VALUES (?)", cartRows);
+
+        // Order history spread over the last historyDays days
+        SequenceIds orderIds = new SequenceIds("orders_seq");
+        SequenceIds orderItemIds = new SequenceIds("order_items_seq");
+        SequenceIds deliveryIds = new SequenceIds("deliveries_seq");
+        List<Object[]> orderRows = new ArrayList<>(orderCount);
+        List<Object[]> itemRows = new ArrayList<>(orderCount * 3);
+        List<Object[]> deliveryRows = new ArrayList<>(orderCount);
+        BigDecimal[] shopRevenue = new BigDecimal[shopCount];
+        int[] shopOrders = new int[shopCount];
+        Map<String, BigDecimal[]> dailyStatistics = new HashMap<>();
+        for (int i = 0; i < orderCount && !buyerIds.isEmpty() && !productIds.isEmpty(); i++) {
+            long orderId = orderIds.next();
+            LocalDateTime orderDate = now.minusDays(random.nextInt(Math.max(historyDays, 1))).plusMinutes(random.nextInt(24 * 60));
+            OrderStatus status = ORDER_STATUSES[random.nextInt(ORDER_STATUSES.length)];
+
+            BigDecimal total = BigDecimal.ZERO;
+            Map<Integer, BigDecimal> revenueByShop = new HashMap<>();
+            int lines = 1 + random.nextInt(4);
+            for (int line = 0; line < lines; line++) {
+                int productIndex = random.nextInt(productIds.size());
+                int quantity = 1 + random.nextInt(3);
+                BigDecimal price = prices.get(productIndex);
+                BigDecimal lineTotal = price.multiply(BigDecimal.valueOf(quantity));
+                total = total.add(lineTotal);
+                revenueByShop.merge(productShops.get(productIndex), lineTotal, BigDecimal::add);
+                itemRows.add(new Object[] { orderItemIds.next(), orderId, productIds.get(productIndex), quantity, price });
+            }
+
+            String orderNumber = String.format("G%07d", i);
+            orderRows.add(new Object[] { orderId, orderNumber, buyerIds.get(random.nextInt(buyerIds.size())), total,
+                status.name(), Timestamp.valueOf(orderDate), "standard" });
+            boolean delivered = status == OrderStatus.DELIVERED;
+            deliveryRows.add(new Object[] { deliveryIds.next(), orderId,
+                delivered ? DeliveryStatus.DELIVERED.name() : DeliveryStatus.PENDING.name(), "TRK" + orderNumber,
+                i + " Synthetic Street", Timestamp.valueOf(orderDate.plusDays(5)),
+                delivered ? Timestamp.valueOf(orderDate.plusDays(4)) : null });
+
+            if (status != OrderStatus.CANCELLED) {
+                for (Map.Entry<Integer, BigDecimal> entry : revenueByShop.entrySet()) {
+                    int shopIndex = entry.getKey();
+                    shopRevenue[shopIndex] = shopRevenue[shopIndex] == null ? entry.getValue() : shopRevenue[shopIndex].add(entry.getValue());
+                    shopOrders[shopIndex]++;
+                    BigDecimal[] day = dailyStatistics.computeIfAbsent(shopIndex + "|" + orderDate.toLocalDate(),
+                        k -> new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO });
+                    day[0] = day[0].add(entry.getValue());
+                    day[1] = day[1].add(BigDecimal.ONE);
+                }
+            }
+        }
+        batch("INSERT INTO orders (id, order_number, user_id, total_amount, status, order_date, delivery_option) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)", orderRows);
+        batch("INSERT INTO order_items (id, order_id, product_id, quantity, price) VALUES (?, ?, ?, ?, ?)", itemRows);
+        batch("INSERT INTO deliveries (id, order_id, status, tracking_number, address, estimated_delivery_date, actual_delivery_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)", deliveryRows);
+
+        // Counters the app would have maintained while these orders and products were written
+        List<Object[]> shopTotals = new ArrayList<>();
+        List<Object[]> productCounters = new ArrayList<>();
+        for (int i = 0; i < shopCount; i++) {
+            if (shopRevenue[i] != null) {
+                shopTotals.add(new Object[] { shopRevenue[i], shopOrders[i], shopIds.get(i) });
+            }
+            int[] counts = shopProductCounts.getOrDefault(i, new int[2]);
+            productCounters.add(new Object[] { shopIds.get(i), counts[0], counts[1] });
+        }
+        batch("UPDATE shops SET total_revenue = ?, total_orders = ? WHERE id = ?", shopTotals);
+        batch("INSERT INTO shop_statistics (shop_id, total_products, in_stock_products) VALUES (?, ?, ?)", productCounters);
+        List<Object[]> dailyRows = new ArrayList<>(dailyStatistics.size());
+        for (Map.Entry<String, BigDecimal[]> entry : dailyStatistics.entrySet()) {
+            String[] key = entry.getKey().split("\\|");
+            dailyRows.add(new Object[] { shopIds.get(Integer.parseInt(key[0])), java.sql.Date.valueOf(LocalDate.parse(key[1])),
+                entry.getValue()[0], entry.getValue()[1].intValue() });
+        }
+        batch("INSERT INTO shop_daily_statistics (shop_id, bucket_date, revenue, orders) VALUES (?, ?, ?, ?)", dailyRows);
+
+        return new Summary(shopIds.size(), productIds.size(), sellerIds.size() + buyerIds.size(), orderRows.size());
+    }
+
+    // Lets the database assign identity ids, then reads them back in insertion order
+    private List<Long> insertWithIdentity(String table, String sql, List<Object[]> rows) {
+        Long before = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        batch(sql, rows);
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE id > ? ORDER BY id", Long.class, before);
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    /**
+     * Hands out ids from the same sequence Hibernate uses. Each call to the sequence
+     * reserves the block of allocationSize ids ending at the returned value, exactly
+     * like Hibernate's pooled optimizer, so the two never collide.
+     */
+    private class SequenceIds {
+        private static final int ALLOCATION_SIZE = 50;
+
+        private final String nextValueSql;
+        private long next;
+        private long last = -1;
+
+        private SequenceIds(String sequenceName) {
+            this.nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(sequenceName);
+        }
+
+        private long next() {
+            while (next > last || next < 1) {
+                Long value = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+                last = value;
+                next = value - ALLOCATION_SIZE + 1;
+                if (next < 1) {
+                    next = 1;
+                }
+            }
+            return next++;
+        }
+    }
+
+    public static class Summary {
+        public final int shops;
+        public final int products;
+        public final int users;
+        public final int orders;
+        public long elapsedMillis;
+
+        private Summary(int shops, int products, int users, int orders) {
+            this.shops = shops;
+            this.products = products;
+            this.users = users;
+            this.orders = orders;
+        }
+    }
+}
@@ -1,24 +1,37 @@
 package org.backend.stockease.controller;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.backend.stockease.dto.CacheStatistics;
+import org.backend.stockease.dto.EndpointMetrics;
 import org.backend.stockease.dto.PlatformStatisticsResponse;
-import org.backend.stockease.entity.OrderItem;
-import org.backend.stockease.entity.Shop;
-import org.backend.stockease.repository.OrderItemRepository;
-import org.backend.stockease.repository.OrderRepository;
-import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.dto.SqlTraceEntry;
+import org.backend.stockease.dto.SqlTraceSettings;
+import org.backend.stockease.entity.PlatformDailyRollup;
+import org.backend.stockease.entity.PlatformMonthlyRollup;
+import org.backend.stockease.metrics.EndpointMetricsRegistry;
+import org.backend.stockease.metrics.SqlTracer;
 import org.backend.stockease.repository.ShopRepository;
-import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.service.AdminExportService;
+import org.backend.stockease.service.PlatformStatisticsService;
+import org.backend.stockease.service.ShopService;
+import org.backend.stockease.service.implementation.CatalogCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import lombok.AllArgsConstructor;
 
@@ -33,71 +46,84 @@ public class AdminController {
     private ShopRepository shopRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private ShopService shopService;
     
     @Autowired
-    private ProductRepository productRepository;
+    private PlatformStatisticsService platformStatisticsService;
     
     @Autowired
-    private OrderRepository orderRepository;
+    private CatalogCache catalogCache;
     
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    private EndpointMetricsRegistry endpointMetricsRegistry;
+    
+    @Autowired
+    private SqlTracer sqlTracer;
+    
+    @Autowired
+    private AdminExportService adminExportService;
 
     @GetMapping("/statistics")
     public ResponseEntity<PlatformStatisticsResponse> getPlatformStatistics() {
-        // Total shops
-        long totalShops = shopRepository.count();
-        long activeShops = shopRepository.countActiveShops();
-        
-        // Total subscription revenue (monthly)
-        BigDecimal monthlySubscriptionRevenue = shopRepository.findAll().stream()
-            .filter(Shop::getIsActive)
-            .map(shop -> shop.getSubscriptionPlan().getMonthlyPrice())
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Total subscription revenue (all time - approximate)
-        BigDecimal totalSubscriptionRevenue = shopRepository.findAll().stream()
-            .filter(Shop::getIsActive)
-            .map(shop -> {
-                long monthsActive = java.time.temporal.ChronoUnit.MONTHS.between(
-                    shop.getSubscriptionStartDate(), 
-                    shop.getSubscriptionEndDate().isAfter(LocalDateTime.now()) 
-                        ? LocalDateTime.now() 
-                        : shop.getSubscriptionEndDate()
-                );
-                return shop.getSubscriptionPlan().getMonthlyPrice()
-                    .multiply(BigDecimal.valueOf(Math.max(1, monthsActive)));
-            })
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Total users
-        long totalUsers = userRepository.count();
-        
-        // Total products
-        long totalProducts = productRepository.count();
-        
-        // Total orders
-        long totalOrders = orderRepository.count();
-        
-        // Total sales revenue (from all orders)
-        List<OrderItem> allOrderItems = orderItemRepository.findAll();
-        BigDecimal totalSalesRevenue = allOrderItems.stream()
-            .map(oi -> oi.getPrice().multiply(BigDecimal.valueOf(oi.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        PlatformStatisticsResponse stats = new PlatformStatisticsResponse(
-            totalShops,
-            activeShops,
-            totalSubscriptionRevenue,
-            monthlySubscriptionRevenue,
-            totalUsers,
-            totalProducts,
-            totalOrders,
-            totalSalesRevenue
-        );
-        
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(platformStatisticsService.getPlatformStatistics());
+    }
+
+    @GetMapping("/statistics/daily")
+    public ResponseEntity<List<PlatformDailyRollup>> getDailyRollups(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(platformStatisticsService.getDailyRollups(days));
+    }
+
+    @GetMapping("/statistics/monthly")
+    public ResponseEntity<List<PlatformMonthlyRollup>> getMonthlyRollups() {
+        return ResponseEntity.ok(platformStatisticsService.getMonthlyRollups());
+    }
+
+    @GetMapping("/cache/catalog")
+    public ResponseEntity<CacheStatistics> getCatalogCacheStatistics() {
+        return ResponseEntity.ok(catalogCache.getStatistics());
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<List<EndpointMetrics>> getEndpointMetrics() {
+        return ResponseEntity.ok(endpointMetricsRegistry.getSnapshot());
+    }
+
+    @GetMapping("/metrics/prometheus")
+    public ResponseEntity<String> getPrometheusMetrics() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8"))
+            .body(endpointMetricsRegistry.toPrometheus());
+    }
+
+    @DeleteMapping("/metrics")
+    public ResponseEntity<Void> resetEndpointMetrics() {
+        endpointMetricsRegistry.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/sql-trace")
+    public ResponseEntity<SqlTraceSettings> getSqlTraceSettings() {
+        return ResponseEntity.ok(sqlTracer.getSettings());
+    }
+
+    @PutMapping("/sql-trace")
+    public ResponseEntity<?> updateSqlTraceSettings(@RequestBody Map<String, Object> request) {
+        try {
+            return ResponseEntity.ok(sqlTracer.update(
+                request.get("enabled") != null ? Boolean.valueOf(request.get("enabled").toString()) : null,
+                request.get("sampleRate") != null ? Double.valueOf(request.get("sampleRate").toString()) : null,
+                request.get("slowQueryMs") != null ? Long.valueOf(request.get("slowQueryMs").toString()) : null,
+                request.get("logToConsole") != null ? Boolean.valueOf(request.get("logToConsole").toString()) : null));
+        } catch (RuntimeException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @GetMapping("/sql-trace/slow")
+    public ResponseEntity<List<SqlTraceEntry>> getSlowQueries() {
+        return ResponseEntity.ok(sqlTracer.getRecentSlowQueries());
     }
 
    /*  @GetMapping("/shops")
@@ -106,8 +132,41 @@ public class AdminController {
     }*/
 
     @GetMapping("/shops")
-public ResponseEntity<List<Shop>> getAllShopsWithOwnerAndPlan() {
-    return ResponseEntity.ok(shopRepository.findAllWithOwnerAndPlan());
-}
+    public ResponseEntity<?> getAllShopsWithOwnerAndPlan(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(shopRepository.findAllWithOwnerAndPlan());
+        }
+        return ResponseEntity.ok(shopService.getAdminShopPage(after, limit));
+    }
+
+    // Whole-table downloads as NDJSON, streamed while the rows are read
+    @GetMapping("/export/shops")
+    public ResponseEntity<StreamingResponseBody> exportShops() {
+        return ndjson("shops", adminExportService::exportShops);
+    }
+
+    @GetMapping("/export/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ndjson("users", adminExportService::exportUsers);
+    }
+
+    @GetMapping("/export/orders")
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        return ndjson("orders", adminExportService::exportOrders);
+    }
+
+    @GetMapping("/export/order-items")
+    public ResponseEntity<StreamingResponseBody> exportOrderItems() {
+        return ndjson("order-items", adminExportService::exportOrderItems);
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(String name, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(AdminExportService.MEDIA_TYPE))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + ".ndjson\"")
+            .body(body);
+    }
 }
 
@@ -3,11 +3,12 @@ package org.backend.stockease.controller;
 import lombok.AllArgsConstructor;
 import org.backend.stockease.entity.Category;
 import org.backend.stockease.service.CategoryService;
+import org.backend.stockease.service.implementation.CatalogCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 @AllArgsConstructor
 
 @RestController
@@ -17,10 +18,15 @@ public class CategoryController {
     
     @Autowired
     private CategoryService categoryService;
+    
+    @Autowired
+    private CatalogCache catalogCache;
 
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<byte[]> getAllCategories() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(catalogCache.getCategories(categoryService::getAllCategories));
     }
 
     @GetMapping("/{id}")
@@ -1,19 +1,30 @@
 package org.backend.stockease.controller;
 
 import lombok.AllArgsConstructor;
+import org.backend.stockease.dto.ProductImportResult;
 import org.backend.stockease.entity.Product;
 import org.backend.stockease.entity.Shop;
+import org.backend.stockease.service.ProductBulkService;
 import org.backend.stockease.service.ProductService;
 import org.backend.stockease.service.ShopService;
+import org.backend.stockease.service.implementation.CatalogCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 @AllArgsConstructor
 
 @RestController
@@ -26,10 +37,21 @@ public class ProductController {
     
     @Autowired
     private ShopService shopService;
+    
+    @Autowired
+    private CatalogCache catalogCache;
+    
+    @Autowired
+    private ProductBulkService productBulkService;
 
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return json(catalogCache.getProducts(CatalogCache.ALL_PRODUCTS, productService::getAllProducts));
+        }
+        return json(catalogCache.getProductPage(after, limit, () -> productService.getActiveProductPage(after, limit)));
     }
 
     @GetMapping("/{id}")
@@ -41,7 +63,7 @@ public class ProductController {
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'SELLER')")
-    public ResponseEntity<Product> createProduct(@RequestBody Product product) {
+    public ResponseEntity<?> createProduct(@RequestBody Product product) {
         // If seller, automatically assign product to their shop
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         boolean isSeller = auth.getAuthorities().stream()
@@ -66,12 +88,19 @@ public class ProductController {
             }
         }
         
-        return new ResponseEntity<>(productService.createProduct(product), HttpStatus.CREATED);
+        try {
+            return new ResponseEntity<>(productService.createProduct(product), HttpStatus.CREATED);
+        } catch (RuntimeException e) {
+            // Plan limit reached
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'SELLER')")
-    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product productDetails) {
+    public ResponseEntity<?> updateProduct(@PathVariable Long id, @RequestBody Product productDetails) {
         // Verify seller owns the product or is admin
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream()
@@ -100,9 +129,16 @@ public class ProductController {
             }
         }
         
-        return productService.updateProduct(id, productDetails)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return productService.updateProduct(id, productDetails)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RuntimeException e) {
+            // Moving the product would put its new shop over the plan limit
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -169,18 +205,93 @@ public class ProductController {
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable Long categoryId) {
-        return ResponseEntity.ok(productService.getProductsByCategory(categoryId));
+    public ResponseEntity<byte[]> getProductsByCategory(@PathVariable Long categoryId) {
+        return json(catalogCache.getProducts(CatalogCache.categoryKey(categoryId),
+            () -> productService.getProductsByCategory(categoryId)));
+    }
+
+    /**
+     * Bulk upload of a shop's products as CSV (header row first) or NDJSON, sent as the
+     * raw request body. Rows that fail validation or exceed the plan's product limit are
+     * reported by line; the others are imported.
+     */
+    @PostMapping(value = "/shop/{shopId}/import", consumes = { "text/csv", "application/x-ndjson" })
+    @PreAuthorize("hasAnyRole('ADMIN', 'SELLER')")
+    public ResponseEntity<ProductImportResult> importProducts(@PathVariable Long shopId, HttpServletRequest request) throws IOException {
+        if (!canManageShop(shopId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        ProductBulkService.Format format = ProductBulkService.Format.of(request.getContentType());
+        return ResponseEntity.ok(productBulkService.importProducts(shopId, format, request.getInputStream()));
+    }
+
+    @GetMapping("/shop/{shopId}/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SELLER')")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @PathVariable Long shopId,
+            @RequestParam(defaultValue = "csv") String format) {
+        if (!canManageShop(shopId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        ProductBulkService.Format exportFormat;
+        try {
+            exportFormat = ProductBulkService.Format.of(format);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"shop-" + shopId + "-products." + exportFormat.getExtension() + "\"")
+            .body(output -> productBulkService.exportProducts(shopId, exportFormat, output));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String keyword) {
-        return ResponseEntity.ok(productService.searchProducts(keyword));
+    public ResponseEntity<List<Product>> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        if (size == null) {
+            return ResponseEntity.ok(productService.searchProducts(keyword));
+        }
+        return ResponseEntity.ok(productService.searchProducts(keyword, page, size));
     }
 
     @GetMapping("/bestsellers")
-    public ResponseEntity<List<Product>> getBestSellers() {
-        return ResponseEntity.ok(productService.getBestSellers());
+    public ResponseEntity<byte[]> getBestSellers(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long shopId) {
+        if (categoryId != null) {
+            return json(catalogCache.getProducts(CatalogCache.bestSellersInCategoryKey(categoryId),
+                () -> productService.getBestSellersInCategory(categoryId)));
+        }
+        if (shopId != null) {
+            return json(catalogCache.getProducts(CatalogCache.bestSellersOfShopKey(shopId),
+                () -> productService.getBestSellersOfShop(shopId)));
+        }
+        return json(catalogCache.getProducts(CatalogCache.BESTSELLERS, productService::getBestSellers));
+    }
+
+    // Admins manage every shop, sellers only their own
+    private boolean canManageShop(Long shopId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream()
+            .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        if (isAdmin) {
+            return true;
+        }
+        try {
+            Long userId = Long.parseLong(auth.getName());
+            return shopService.getAllShopsByOwnerId(userId).stream()
+                .anyMatch(shop -> shop.getId().equals(shopId));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Cached listings are already serialized, send the bytes as they are
+    private ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
 
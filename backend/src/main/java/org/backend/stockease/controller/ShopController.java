@@ -83,8 +83,15 @@ public class ShopController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Shop>> getAllShops(@RequestParam(required = false) Boolean active) {
-        if (active != null && active) {
+    public ResponseEntity<?> getAllShops(
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        boolean activeOnly = active != null && active;
+        if (after != null || limit != null) {
+            return ResponseEntity.ok(shopService.getShopPage(activeOnly, after, limit));
+        }
+        if (activeOnly) {
             return ResponseEntity.ok(shopService.getActiveShops());
         }
         return ResponseEntity.ok(shopService.getAllShops());
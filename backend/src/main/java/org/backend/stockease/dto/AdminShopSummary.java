@@ -0,0 +1,26 @@
+package org.backend.stockease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminShopSummary {
+    private Long id;
+    private String name;
+    private Boolean isActive;
+    private Long ownerId;
+    private String ownerName;
+    private String ownerEmail;
+    private Long subscriptionPlanId;
+    private String subscriptionPlanName;
+    private LocalDateTime subscriptionStartDate;
+    private LocalDateTime subscriptionEndDate;
+    private BigDecimal totalRevenue;
+    private Integer totalOrders;
+}
@@ -0,0 +1,23 @@
+package org.backend.stockease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointMetrics {
+    private String endpoint;
+    private Long requests;
+    private Long errors;
+    private Double meanMillis;
+    private Double p50Millis;
+    private Double p95Millis;
+    private Double p99Millis;
+    private Double maxMillis;
+    private Double statementsPerRequest;
+    private Double rowsPerRequest;
+    private Double bytesPerRequest;
+    private Double allocatedBytesPerRequest;
+}
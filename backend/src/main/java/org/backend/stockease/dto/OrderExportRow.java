@@ -0,0 +1,26 @@
+package org.backend.stockease.dto;
+
+import org.backend.stockease.entity.enums.DeliveryStatus;
+import org.backend.stockease.entity.enums.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportRow {
+    private Long id;
+    private String orderNumber;
+    private Long userId;
+    private BigDecimal totalAmount;
+    private OrderStatus status;
+    private LocalDateTime orderDate;
+    private String deliveryOption;
+    private DeliveryStatus deliveryStatus;
+    private String trackingNumber;
+}
@@ -0,0 +1,23 @@
+package org.backend.stockease.dto;
+
+import org.backend.stockease.entity.enums.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+    private Long id;
+    private String orderNumber;
+    private BigDecimal totalAmount;
+    private OrderStatus status;
+    private LocalDateTime orderDate;
+    private String deliveryOption;
+    private Integer itemCount;
+}
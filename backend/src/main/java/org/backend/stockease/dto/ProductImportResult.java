@@ -0,0 +1,30 @@
+package org.backend.stockease.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk product upload. Rejected rows are listed with their line in
+ * the upload, up to stockease.product-import.max-errors of them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResult {
+    private Integer imported = 0;
+    private Integer rejected = 0;
+    private List<RowError> errors = new ArrayList<>();
+    private Boolean errorsTruncated = false;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private Integer line;
+        private String message;
+    }
+}
@@ -0,0 +1,25 @@
+package org.backend.stockease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummary {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private BigDecimal originalPrice;
+    private Integer stock;
+    private String imageUrl;
+    private Double rating;
+    private Boolean isBestSeller;
+    private Long categoryId;
+    private String categoryName;
+    private Long shopId;
+    private String shopName;
+}
@@ -0,0 +1,17 @@
+package org.backend.stockease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShopSubscriptionTerm {
+    private LocalDateTime subscriptionStartDate;
+    private LocalDateTime subscriptionEndDate;
+    private BigDecimal monthlyPrice;
+}
@@ -0,0 +1,20 @@
+package org.backend.stockease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShopSummary {
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean isActive;
+    private String subscriptionPlanName;
+    private LocalDateTime subscriptionEndDate;
+    private LocalDateTime createdAt;
+}
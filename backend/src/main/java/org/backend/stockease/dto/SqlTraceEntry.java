@@ -0,0 +1,20 @@
+package org.backend.stockease.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlTraceEntry {
+    private LocalDateTime executedAt;
+    private String thread;
+    private String sql;
+    private String binds;
+    private Long durationMicros;
+    private Integer batchSize;
+    private Boolean slow;
+}
@@ -0,0 +1,19 @@
+package org.backend.stockease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlTraceSettings {
+    private Boolean enabled;
+    private Double sampleRate;
+    private Long slowQueryMs;
+    private Boolean logToConsole;
+    private Integer bufferSize;
+    private Long buffered;
+    private Long captured;
+    private Long dropped;
+}
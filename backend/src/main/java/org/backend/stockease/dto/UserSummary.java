@@ -0,0 +1,18 @@
+package org.backend.stockease.dto;
+
+import org.backend.stockease.entity.enums.Role;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private Long id;
+    private String name;
+    private String email;
+    private String phone;
+    private Role role;
+}
@@ -0,0 +1,40 @@
+package org.backend.stockease.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Units of one product sold in one time bucket of the best-seller window, as of
+ * the last snapshot. The whole table is rewritten by every snapshot.
+ */
+@Entity
+@Table(name = "bestseller_snapshots",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "bucket_start_millis"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestSellerSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "bucket_start_millis", nullable = false)
+    private Long bucketStartMillis;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    @Column(name = "taken_at_millis", nullable = false)
+    private Long takenAtMillis;
+}
@@ -11,17 +11,28 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@NamedEntityGraph(name = "CartItem.withProduct",
+    attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product"),
+    subgraphs = {
+        @NamedSubgraph(name = "product", attributeNodes = {
+            @NamedAttributeNode("category"),
+            @NamedAttributeNode(value = "shop", subgraph = "shop")
+        }),
+        @NamedSubgraph(name = "shop", attributeNodes = @NamedAttributeNode("subscriptionPlan"))
+    })
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Shared with CartEngine, which assigns ids to new lines before they are flushed
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_seq")
+    @SequenceGenerator(name = "cart_items_seq", sequenceName = "cart_items_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cart_id", nullable = false)
     @JsonIgnore  // Prevent circular reference: CartItem -> Cart -> CartItem
     private Cart cart;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
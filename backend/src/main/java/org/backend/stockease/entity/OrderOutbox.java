@@ -0,0 +1,80 @@
+package org.backend.stockease.entity;
+
+import java.time.LocalDateTime;
+
+import org.backend.stockease.entity.enums.OutboxStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Work left over from a checkout, written in the checkout transaction: the shop
+ * revenue to add, the delivery to create and the cart items to delete. Each
+ * step has its own flag, set in the same transaction as the step itself, so a
+ * retried entry never applies a step twice.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false, unique = true)
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String orderNumber;
+
+    private String address;
+
+    // shopId=revenue pairs, comma separated
+    @Column(length = 8000)
+    private String shopRevenue;
+
+    // Comma separated cart_items ids
+    @Column(length = 8000)
+    private String cartItemIds;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private Boolean shopCountersApplied = false;
+
+    @Column(nullable = false)
+    private Boolean deliveryCreated = false;
+
+    @Column(nullable = false)
+    private Boolean cartCleared = false;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime processedAt;
+}
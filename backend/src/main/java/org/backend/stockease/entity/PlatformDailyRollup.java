@@ -0,0 +1,37 @@
+package org.backend.stockease.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Platform-wide order totals for one closed day, filled in by the rollup job.
+ */
+@Entity
+@Table(name = "platform_daily_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private LocalDate rollupDate;
+
+    @Column(nullable = false)
+    private Long totalOrders = 0L;
+
+    @Column(nullable = false)
+    private BigDecimal salesRevenue = BigDecimal.ZERO;
+}
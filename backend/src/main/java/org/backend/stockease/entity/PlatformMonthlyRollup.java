@@ -0,0 +1,38 @@
+package org.backend.stockease.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Platform-wide order totals per month (keyed by the first day of the month),
+ * built from the closed daily rollups.
+ */
+@Entity
+@Table(name = "platform_monthly_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformMonthlyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private LocalDate rollupMonth;
+
+    @Column(nullable = false)
+    private Long totalOrders = 0L;
+
+    @Column(nullable = false)
+    private BigDecimal salesRevenue = BigDecimal.ZERO;
+}
@@ -0,0 +1,43 @@
+package org.backend.stockease.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per shop and day holding that day's sales, so rolling windows
+ * (last 30 days) are a sum over at most 30 rows.
+ */
+@Entity
+@Table(name = "shop_daily_statistics",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"shop_id", "bucket_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShopDailyStatistics {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "shop_id", nullable = false)
+    private Long shopId;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Integer orders = 0;
+}
@@ -0,0 +1,47 @@
+package org.backend.stockease.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sales of one shop and day not yet folded into the shop totals and its daily
+ * bucket. Each shop and day has up to stockease.shop-counters.shards of these,
+ * so concurrent orders for the same shop spread over several rows.
+ */
+@Entity
+@Table(name = "shop_revenue_shards",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"shop_id", "bucket_date", "shard"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShopRevenueShard {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "shop_id", nullable = false)
+    private Long shopId;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(nullable = false)
+    private Integer shard;
+
+    @Column(nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Integer orders = 0;
+}
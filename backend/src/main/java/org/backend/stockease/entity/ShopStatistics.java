@@ -0,0 +1,29 @@
+package org.backend.stockease.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-shop product counters, kept up to date by the product write paths so the
+ * seller dashboard never has to scan the products table.
+ */
+@Entity
+@Table(name = "shop_statistics")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShopStatistics {
+    @Id
+    private Long shopId;
+
+    @Column(nullable = false)
+    private Integer totalProducts = 0;
+
+    @Column(nullable = false)
+    private Integer inStockProducts = 0; // products with stock > 0
+}
@@ -5,6 +5,7 @@ public enum DeliveryStatus {
     IN_TRANSIT,
     OUT_FOR_DELIVERY,
     DELIVERED,
-    FAILED
+    FAILED,
+    CANCELLED
 }
 
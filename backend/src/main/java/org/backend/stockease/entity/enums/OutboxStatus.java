@@ -0,0 +1,7 @@
+package org.backend.stockease.entity.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,22 @@
+package org.backend.stockease.event;
+
+import org.backend.stockease.entity.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the product write paths; listeners run after the transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Product product;
+}
@@ -0,0 +1,20 @@
+package org.backend.stockease.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the shop write paths; listeners run after the transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class ShopChangedEvent {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long shopId;
+}
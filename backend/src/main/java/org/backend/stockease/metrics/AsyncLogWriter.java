@@ -0,0 +1,70 @@
+package org.backend.stockease.metrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Console output for the diagnostics that run on request threads (SQL trace,
+ * slow requests). Callers only drop a line into a bounded queue, or lose it if
+ * the queue is full; a single background thread builds and prints each line,
+ * so a slow console never holds up a request.
+ */
+@Component
+public class AsyncLogWriter {
+
+    @Value("${stockease.log-writer.buffer-size:4096}")
+    private int bufferSize;
+
+    private BlockingQueue<Supplier<String>> buffer;
+    private Thread writer;
+
+    @PostConstruct
+    void start() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        writer = new Thread(this::drain, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        writer.interrupt();
+    }
+
+    /**
+     * Queues a line, built on the writer thread; false if it was dropped because the queue is full.
+     */
+    public boolean write(Supplier<String> line) {
+        return buffer.offer(line);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getBuffered() {
+        return buffer.size();
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Supplier<String> line = buffer.take();
+                try {
+                    System.out.println(line.get());
+                } catch (RuntimeException e) {
+                    System.err.println("❌ Could not write log line: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.backend.stockease.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.backend.stockease.dto.EndpointMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Latency histograms and per-request database/serialization totals for every
+ * controller method, exported as JSON for the admin API and in the Prometheus
+ * text format.
+ */
+@Component
+public class EndpointMetricsRegistry {
+
+    // Upper bounds in seconds, the usual Prometheus HTTP buckets plus a few below 5 ms
+    private static final double[] BUCKETS = {
+        0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+
+    private final Map<String, Stats> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, boolean error, int statements, long rows, long bytes, long allocatedBytes) {
+        endpoints.computeIfAbsent(endpoint, k -> new Stats()).record(nanos, error, statements, rows, bytes, allocatedBytes);
+    }
+
+    public List<EndpointMetrics> getSnapshot() {
+        List<EndpointMetrics> snapshot = new ArrayList<>();
+        endpoints.forEach((endpoint, stats) -> {
+            long count = stats.count.sum();
+            if (count == 0) {
+                return;
+            }
+            snapshot.add(new EndpointMetrics(endpoint, count, stats.errors.sum(),
+                millis(stats.totalNanos.sum()) / count,
+                stats.percentileMillis(0.50), stats.percentileMillis(0.95), stats.percentileMillis(0.99),
+                millis(stats.maxNanos.get()),
+                stats.statements.sum() / (double) count,
+                stats.rows.sum() / (double) count,
+                stats.bytes.sum() / (double) count,
+                stats.allocatedBytes.sum() / (double) count));
+        });
+        snapshot.sort(Comparator.comparing(EndpointMetrics::getEndpoint));
+        return snapshot;
+    }
+
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        List<String> names = new ArrayList<>(endpoints.keySet());
+        names.sort(null);
+
+        out.append("# HELP stockease_http_request_duration_seconds Request latency per controller method\n");
+        out.append("# TYPE stockease_http_request_duration_seconds histogram\n");
+        for (String endpoint : names) {
+            Stats stats = endpoints.get(endpoint);
+            String label = "endpoint=\"" + endpoint + "\"";
+            long cumulative = 0;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                cumulative += stats.buckets[i].sum();
+                out.append("stockease_http_request_duration_seconds_bucket{").append(label)
+                    .append(",le=\"").append(format(BUCKETS[i])).append("\"} ").append(cumulative).append('\n');
+            }
+            out.append("stockease_http_request_duration_seconds_bucket{").append(label).append(",le=\"+Inf\"} ")
+                .append(stats.count.sum()).append('\n');
+            out.append("stockease_http_request_duration_seconds_sum{").append(label).append("} ")
+                .append(format(stats.totalNanos.sum() / 1e9)).append('\n');
+            out.append("stockease_http_request_duration_seconds_count{").append(label).append("} ")
+                .append(stats.count.sum()).append('\n');
+        }
+
+        counter(out, names, "stockease_http_request_errors_total", "Requests answered with a 4xx or 5xx status", s -> s.errors);
+        counter(out, names, "stockease_http_sql_statements_total", "SQL statements executed, through JPA or JdbcTemplate", s -> s.statements);
+        counter(out, names, "stockease_http_rows_fetched_total", "Entity rows hydrated by Hibernate", s -> s.rows);
+        counter(out, names, "stockease_http_response_bytes_total", "Response body bytes written", s -> s.bytes);
+        counter(out, names, "stockease_http_allocated_bytes_total", "Heap bytes allocated by the request thread", s -> s.allocatedBytes);
+        return out.toString();
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    private void counter(StringBuilder out, List<String> names, String metric, String help,
+            Function<Stats, LongAdder> value) {
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(metric).append(" counter\n");
+        for (String endpoint : names) {
+            out.append(metric).append("{endpoint=\"").append(endpoint).append("\"} ")
+                .append(value.apply(endpoints.get(endpoint)).sum()).append('\n');
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%s", value);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Stats {
+        private final LongAdder[] buckets = new LongAdder[BUCKETS.length];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        private Stats() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void record(long nanos, boolean error, int statementCount, long rowCount, long byteCount, long allocated) {
+            double seconds = nanos / 1e9;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                if (seconds <= BUCKETS[i]) {
+                    buckets[i].increment();
+                    break;
+                }
+            }
+            count.increment();
+            if (error) {
+                errors.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            statements.add(statementCount);
+            rows.add(rowCount);
+            bytes.add(byteCount);
+            allocatedBytes.add(allocated);
+        }
+
+        // Upper bound of the bucket holding the percentile; requests beyond the last bucket report the max
+        private double percentileMillis(double fraction) {
+            long total = count.sum();
+            long rank = (long) Math.ceil(fraction * total);
+            long cumulative = 0;
+            for (int i = 0; i < BUCKETS.length; i++) {
+                cumulative += buckets[i].sum();
+                if (cumulative >= rank) {
+                    return Math.min(BUCKETS[i] * 1000, millis(maxNanos.get()));
+                }
+            }
+            return millis(maxNanos.get());
+        }
+    }
+}
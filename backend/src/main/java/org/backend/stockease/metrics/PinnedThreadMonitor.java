@@ -0,0 +1,70 @@
+package org.backend.stockease.metrics;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Logs every time a virtual thread stays pinned to its carrier longer than
+ * stockease.virtual-threads.pinned-threshold-ms, with the frames that pinned it.
+ * The top frames show the synchronized section (or native call) to replace with
+ * a ReentrantLock. Uses the JFR jdk.VirtualThreadPinned event, which only exists
+ * on JDK 21+; on older runtimes the stream simply never fires.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class PinnedThreadMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int FRAMES = 12;
+
+    @Value("${stockease.virtual-threads.pinning-diagnostics:true}")
+    private boolean enabled;
+
+    @Value("${stockease.virtual-threads.pinned-threshold-ms:20}")
+    private long thresholdMillis;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> {
+            StringBuilder message = new StringBuilder("📌 Virtual thread pinned for ")
+                .append(event.getDuration().toMillis()).append(" ms");
+            RecordedStackTrace stackTrace = event.getStackTrace();
+            if (stackTrace != null) {
+                List<RecordedFrame> frames = stackTrace.getFrames();
+                for (int i = 0; i < Math.min(FRAMES, frames.size()); i++) {
+                    RecordedFrame frame = frames.get(i);
+                    message.append("\n   at ").append(frame.getMethod().getType().getName())
+                        .append('.').append(frame.getMethod().getName())
+                        .append(':').append(frame.getLineNumber());
+                }
+            }
+            System.err.println(message);
+        });
+        stream.startAsync();
+        System.out.println("🔎 Watching for pinned virtual threads over " + thresholdMillis + " ms");
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.backend.stockease.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Times every request from before security to the last byte written and records
+ * it against the controller method that handled it, together with the SQL
+ * statements, entity rows, response bytes and heap allocation it cost. Requests
+ * slower than stockease.metrics.slow-request-ms are logged with their statements
+ * through the {@link AsyncLogWriter}, so logging never adds to their latency.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final int SLOW_LOG_STATEMENTS = 10;
+
+    @Autowired
+    private EndpointMetricsRegistry registry;
+
+    @Autowired
+    private AsyncLogWriter logWriter;
+
+    @Value("${stockease.metrics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${stockease.metrics.slow-request-ms:500}")
+    private long slowRequestMillis;
+
+    private final com.sun.management.ThreadMXBean threads = allocationTracking();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CountingResponse countingResponse = new CountingResponse(response);
+        RequestTrace trace = RequestTrace.start();
+        long allocatedBefore = threads != null ? threads.getCurrentThreadAllocatedBytes() : 0;
+        long started = System.nanoTime();
+        boolean failed = false;
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - started;
+            long allocated = threads != null ? threads.getCurrentThreadAllocatedBytes() - allocatedBefore : 0;
+            RequestTrace.end();
+
+            // Only requests that reached a controller; static resources and the H2 console are left out
+            Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+            if (handler instanceof HandlerMethod handlerMethod) {
+                String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+                boolean error = failed || response.getStatus() >= 400;
+                registry.record(endpoint, nanos, error, trace.getStatements(), trace.getRowsFetched(),
+                    countingResponse.bytes, allocated);
+                if (nanos / 1_000_000 >= slowRequestMillis) {
+                    logSlowRequest(request, endpoint, nanos, trace, countingResponse.bytes);
+                }
+            }
+        }
+    }
+
+    private void logSlowRequest(HttpServletRequest request, String endpoint, long nanos, RequestTrace trace, long bytes) {
+        // Read from the request now; the message itself is put together on the writer thread
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        logWriter.write(() -> {
+            StringBuilder message = new StringBuilder("🐢 Slow request ")
+                .append(method).append(' ').append(uri)
+                .append(" (").append(endpoint).append(") took ").append(nanos / 1_000_000).append(" ms: ")
+                .append(trace.getStatements()).append(" statements, ")
+                .append(trace.getRowsFetched()).append(" rows, ")
+                .append(bytes).append(" bytes");
+            trace.getStatementCounts().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(SLOW_LOG_STATEMENTS)
+                .forEach(entry -> message.append("\n   ").append(entry.getValue()).append("x ").append(entry.getKey()));
+            return message.toString();
+        });
+    }
+
+    private static com.sun.management.ThreadMXBean allocationTracking() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+
+    private static class CountingResponse extends HttpServletResponseWrapper {
+        private long bytes;
+        private ServletOutputStream outputStream;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
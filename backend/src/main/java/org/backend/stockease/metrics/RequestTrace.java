@@ -0,0 +1,61 @@
+package org.backend.stockease.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What the current request did against the database. Bound to the request thread
+ * by {@link RequestMetricsFilter}; statements are counted by {@link TracingDataSource}
+ * and entity rows by {@link RowCountingInterceptor}.
+ */
+public class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    // Enough to explain a slow request without keeping every statement of a bulk job
+    private static final int MAX_DISTINCT_STATEMENTS = 50;
+    private static final int MAX_STATEMENT_LENGTH = 200;
+
+    private int statements;
+    private long rowsFetched;
+    private final Map<String, Integer> statementCounts = new LinkedHashMap<>();
+
+    static RequestTrace start() {
+        RequestTrace trace = new RequestTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted(String sql) {
+        statements++;
+        // A plain Statement's batch has no single SQL text
+        String key = sql == null ? "<batch>" : sql.length() > MAX_STATEMENT_LENGTH ? sql.substring(0, MAX_STATEMENT_LENGTH) + "…" : sql;
+        if (statementCounts.containsKey(key) || statementCounts.size() < MAX_DISTINCT_STATEMENTS) {
+            statementCounts.merge(key, 1, Integer::sum);
+        }
+    }
+
+    void rowFetched() {
+        rowsFetched++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRowsFetched() {
+        return rowsFetched;
+    }
+
+    public Map<String, Integer> getStatementCounts() {
+        return statementCounts;
+    }
+}
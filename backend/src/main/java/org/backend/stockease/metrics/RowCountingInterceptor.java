@@ -0,0 +1,20 @@
+package org.backend.stockease.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Counts the entity rows Hibernate hydrates for the current request. Rows read
+ * through JdbcTemplate or scalar projections are not included.
+ */
+public class RowCountingInterceptor implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.rowFetched();
+        }
+        return false;
+    }
+}
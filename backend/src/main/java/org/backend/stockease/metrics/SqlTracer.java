@@ -0,0 +1,162 @@
+package org.backend.stockease.metrics;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.backend.stockease.dto.SqlTraceEntry;
+import org.backend.stockease.dto.SqlTraceSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Sampled SQL trace fed by {@link TracingDataSource}. Request threads only hand
+ * entries to the bounded {@link AsyncLogWriter} (and drop the entry if it is full),
+ * whose background thread writes them to the console. Statements slower than the
+ * threshold are always captured and kept for the admin API. Bind parameters are
+ * only captured when stockease.sql-trace.capture-binds is on, and never for a
+ * statement that names one of the redacted columns (passwords, emails...). The
+ * rest can be changed at runtime through PUT /api/admin/sql-trace.
+ */
+@Component
+public class SqlTracer {
+
+    private static final int RECENT_SLOW_QUERIES = 100;
+    private static final String REDACTED = "<redacted>";
+
+    @Value("${stockease.sql-trace.enabled:true}")
+    private volatile boolean enabled;
+
+    @Value("${stockease.sql-trace.sample-rate:0.0}")
+    private volatile double sampleRate;
+
+    @Value("${stockease.sql-trace.slow-query-ms:200}")
+    private volatile long slowQueryMillis;
+
+    @Value("${stockease.sql-trace.log-to-console:true}")
+    private volatile boolean logToConsole;
+
+    // Startup only, so the admin API cannot switch on the capture of user data
+    @Value("${stockease.sql-trace.capture-binds:false}")
+    private boolean captureBinds;
+
+    @Value("${stockease.sql-trace.redacted-columns:password,email,phone,address}")
+    private String[] redactedColumns;
+
+    @Autowired
+    private AsyncLogWriter logWriter;
+
+    private Pattern redacted;
+
+    private final Deque<SqlTraceEntry> recentSlow = new ArrayDeque<>();
+    private final AtomicLong captured = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        List<String> columns = new ArrayList<>();
+        for (String column : redactedColumns) {
+            if (!column.isBlank()) {
+                columns.add(Pattern.quote(column.trim()));
+            }
+        }
+        redacted = columns.isEmpty() ? null
+            : Pattern.compile("\\b(" + String.join("|", columns) + ")\\b", Pattern.CASE_INSENSITIVE);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether TracingDataSource should keep the bind parameters of its statements at all.
+     */
+    public boolean isCapturingBinds() {
+        return captureBinds;
+    }
+
+    void record(String sql, Supplier<String> binds, long nanos, int batchSize) {
+        boolean slow = nanos >= TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+        if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        SqlTraceEntry entry = new SqlTraceEntry(LocalDateTime.now(), Thread.currentThread().getName(), sql,
+            capturedBinds(sql, binds), nanos / 1_000, batchSize, slow);
+        captured.incrementAndGet();
+        if (slow) {
+            synchronized (recentSlow) {
+                if (recentSlow.size() == RECENT_SLOW_QUERIES) {
+                    recentSlow.removeFirst();
+                }
+                recentSlow.addLast(entry);
+            }
+        }
+        if (logToConsole && !logWriter.write(() -> format(entry))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private String capturedBinds(String sql, Supplier<String> binds) {
+        if (!captureBinds) {
+            return null;
+        }
+        // The column a bind belongs to is not known here, so the whole statement is redacted
+        if (sql != null && redacted != null && redacted.matcher(sql).find()) {
+            return REDACTED;
+        }
+        return binds.get();
+    }
+
+    public List<SqlTraceEntry> getRecentSlowQueries() {
+        synchronized (recentSlow) {
+            return new ArrayList<>(recentSlow);
+        }
+    }
+
+    public SqlTraceSettings getSettings() {
+        return new SqlTraceSettings(enabled, sampleRate, slowQueryMillis, logToConsole, logWriter.getBufferSize(),
+            (long) logWriter.getBuffered(), captured.get(), dropped.get());
+    }
+
+    public SqlTraceSettings update(Boolean enabled, Double sampleRate, Long slowQueryMillis, Boolean logToConsole) {
+        if (sampleRate != null && (sampleRate < 0 || sampleRate > 1)) {
+            throw new RuntimeException("Sample rate must be between 0 and 1");
+        }
+        if (slowQueryMillis != null && slowQueryMillis < 0) {
+            throw new RuntimeException("Slow query threshold must not be negative");
+        }
+        if (enabled != null) {
+            this.enabled = enabled;
+        }
+        if (sampleRate != null) {
+            this.sampleRate = sampleRate;
+        }
+        if (slowQueryMillis != null) {
+            this.slowQueryMillis = slowQueryMillis;
+        }
+        if (logToConsole != null) {
+            this.logToConsole = logToConsole;
+        }
+        System.out.println("🔧 SQL trace: enabled=" + this.enabled + ", sampleRate=" + this.sampleRate
+            + ", slowQueryMs=" + this.slowQueryMillis + ", logToConsole=" + this.logToConsole);
+        return getSettings();
+    }
+
+    private static String format(SqlTraceEntry entry) {
+        return (entry.getSlow() ? "🐢 Slow SQL " : "🔎 SQL ")
+            + String.format("%.3f ms", entry.getDurationMicros() / 1000.0)
+            + (entry.getBatchSize() > 1 ? " (batch of " + entry.getBatchSize() + ")" : "")
+            + " [" + entry.getThread() + "] " + entry.getSql()
+            + (entry.getBinds() != null ? " | binds " + entry.getBinds() : "");
+    }
+}
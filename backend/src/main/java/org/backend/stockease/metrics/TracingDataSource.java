@@ -0,0 +1,145 @@
+package org.backend.stockease.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Wraps the application DataSource so every statement execution, whether it comes
+ * from Hibernate or JdbcTemplate, is counted against the current {@link RequestTrace}
+ * and timed and handed to {@link SqlTracer} with its SQL and, if the tracer captures
+ * them, its bind parameters.
+ * Costs two nanoTime calls per execution when tracing is on and nothing beyond
+ * the proxy call and the count when it is off.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private static final int MAX_BIND_LENGTH = 100;
+
+    private final SqlTracer tracer;
+
+    public TracingDataSource(DataSource target, SqlTracer tracer) {
+        super(target);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                String name = method.getName();
+                if (result instanceof Statement statement
+                        && (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement"))) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                    return Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[] { method.getReturnType() },
+                        new StatementHandler(statement, sql));
+                }
+                return result;
+            });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+        private Map<Integer, Object> binds;
+        private int batchSize;
+
+        private StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                RequestTrace trace = RequestTrace.current();
+                if (trace != null) {
+                    trace.statementExecuted(executedSql(args));
+                }
+            }
+            if (!tracer.isEnabled()) {
+                return TracingDataSource.invoke(statement, method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                if (tracer.isCapturingBinds()) {
+                    if (binds == null) {
+                        binds = new TreeMap<>();
+                    }
+                    binds.put(index, name.equals("setNull") ? null : args[1]);
+                }
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("clearParameters")) {
+                binds = null;
+            } else if (name.startsWith("execute")) {
+                long started = System.nanoTime();
+                try {
+                    return TracingDataSource.invoke(statement, method, args);
+                } finally {
+                    tracer.record(executedSql(args), this::formatBinds, System.nanoTime() - started, Math.max(batchSize, 1));
+                    if (name.equals("executeBatch")) {
+                        batchSize = 0;
+                    }
+                }
+            }
+            return TracingDataSource.invoke(statement, method, args);
+        }
+
+        private String executedSql(Object[] args) {
+            return args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+        }
+
+        // Only the binds of the last row for a batch; enough to reproduce the statement
+        private String formatBinds() {
+            if (binds == null || binds.isEmpty()) {
+                return null;
+            }
+            StringBuilder out = new StringBuilder("[");
+            for (Object value : binds.values()) {
+                if (out.length() > 1) {
+                    out.append(", ");
+                }
+                if (value == null) {
+                    out.append("null");
+                } else if (value instanceof byte[] bytes) {
+                    out.append('<').append(bytes.length).append(" bytes>");
+                } else if (value instanceof CharSequence || value instanceof java.util.Date || value instanceof java.time.temporal.Temporal) {
+                    String text = value.toString();
+                    out.append('\'').append(text.length() > MAX_BIND_LENGTH ? text.substring(0, MAX_BIND_LENGTH) + "…" : text).append('\'');
+                } else {
+                    out.append(value);
+                }
+            }
+            return out.append(']').toString();
+        }
+    }
+}
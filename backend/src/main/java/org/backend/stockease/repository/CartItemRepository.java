@@ -1,7 +1,11 @@
 package org.backend.stockease.repository;
 
 import org.backend.stockease.entity.CartItem;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,8 +13,21 @@ import java.util.Optional;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-    List<CartItem> findByCartId(Long cartId);
-    Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
-    void deleteByCartId(Long cartId);
+    // Spelled out so the filters stay on the cart_items columns instead of joins
+    @EntityGraph("CartItem.withProduct")
+    @Query("SELECT ci FROM CartItem ci WHERE ci.cart.id = :cartId")
+    List<CartItem> findByCartId(@Param("cartId") Long cartId);
+
+    @Query("SELECT ci FROM CartItem ci WHERE ci.cart.id = :cartId AND ci.product.id = :productId")
+    Optional<CartItem> findByCartIdAndProductId(@Param("cartId") Long cartId, @Param("productId") Long productId);
+
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product p LEFT JOIN FETCH p.category " +
+           "LEFT JOIN FETCH p.shop s LEFT JOIN FETCH s.subscriptionPlan " +
+           "WHERE ci.cart.id = :cartId")
+    List<CartItem> findByCartIdWithProducts(@Param("cartId") Long cartId);
+
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    void deleteByCartId(@Param("cartId") Long cartId);
 }
 
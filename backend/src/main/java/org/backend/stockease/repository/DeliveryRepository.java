@@ -2,13 +2,25 @@ package org.backend.stockease.repository;
 
 import org.backend.stockease.entity.Delivery;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
-    Optional<Delivery> findByOrderId(Long orderId);
+    // Spelled out so uk_deliveries_order is used instead of a join to orders
+    @Query("SELECT d FROM Delivery d WHERE d.order.id = :orderId")
+    Optional<Delivery> findByOrderId(@Param("orderId") Long orderId);
+
     Optional<Delivery> findByTrackingNumber(String trackingNumber);
+
+    // A delivery that has not left yet is cancelled with its order
+    @Modifying
+    @Query("UPDATE Delivery d SET d.status = org.backend.stockease.entity.enums.DeliveryStatus.CANCELLED " +
+           "WHERE d.order.id = :orderId AND d.status = org.backend.stockease.entity.enums.DeliveryStatus.PENDING")
+    int cancelPendingOfOrder(@Param("orderId") Long orderId);
 }
 
@@ -0,0 +1,59 @@
+package org.backend.stockease.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.backend.stockease.entity.OrderOutbox;
+import org.backend.stockease.entity.enums.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+
+    @Query("SELECT o.id FROM OrderOutbox o WHERE o.status = org.backend.stockease.entity.enums.OutboxStatus.PENDING " +
+           "AND o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Items of earlier checkouts that are still in cart_items until their entry is processed
+    @Query("SELECT o.cartItemIds FROM OrderOutbox o WHERE o.userId = :userId AND o.cartCleared = false")
+    List<String> findUnclearedCartItemIds(@Param("userId") Long userId);
+
+    // Each step claims its flag first; 0 means an earlier attempt already applied it
+
+    @Modifying
+    @Query("UPDATE OrderOutbox o SET o.shopCountersApplied = true WHERE o.id = :id AND o.shopCountersApplied = false")
+    int claimShopCounters(@Param("id") Long id);
+
+    // Taken by a cancellation so counters that were never applied are not applied afterwards
+    @Modifying
+    @Query("UPDATE OrderOutbox o SET o.shopCountersApplied = true WHERE o.orderId = :orderId AND o.shopCountersApplied = false")
+    int claimShopCountersOfOrder(@Param("orderId") Long orderId);
+
+    @Modifying
+    @Query("UPDATE OrderOutbox o SET o.deliveryCreated = true WHERE o.id = :id AND o.deliveryCreated = false")
+    int claimDelivery(@Param("id") Long id);
+
+    // Taken by a cancellation so no delivery is created for the cancelled order
+    @Modifying
+    @Query("UPDATE OrderOutbox o SET o.deliveryCreated = true WHERE o.orderId = :orderId AND o.deliveryCreated = false")
+    int claimDeliveryOfOrder(@Param("orderId") Long orderId);
+
+    @Modifying
+    @Query("UPDATE OrderOutbox o SET o.cartCleared = true WHERE o.id = :id AND o.cartCleared = false")
+    int claimCartCleanup(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE OrderOutbox o SET o.status = :status, o.processedAt = :at WHERE o.id = :id")
+    int finish(@Param("id") Long id, @Param("status") OutboxStatus status, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE OrderOutbox o SET o.status = :status, o.attempts = o.attempts + 1, o.nextAttemptAt = :nextAttemptAt, " +
+           "o.lastError = :error WHERE o.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("status") OutboxStatus status,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+}
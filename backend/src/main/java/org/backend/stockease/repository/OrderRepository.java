@@ -1,20 +1,70 @@
 package org.backend.stockease.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.backend.stockease.dto.OrderSummary;
+import org.backend.stockease.dto.SalesAggregate;
 import org.backend.stockease.entity.Order;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    // Only one caller can move an order to CANCELLED; 0 means it is cancelled already or has shipped
+    @Modifying
+    @Query("UPDATE Order o SET o.status = org.backend.stockease.entity.enums.OrderStatus.CANCELLED WHERE o.id = :id " +
+           "AND (o.status IS NULL OR o.status NOT IN (org.backend.stockease.entity.enums.OrderStatus.CANCELLED, " +
+           "org.backend.stockease.entity.enums.OrderStatus.SHIPPED, org.backend.stockease.entity.enums.OrderStatus.DELIVERED))")
+    int cancelIfNotShipped(@Param("id") Long id);
+    // Order history loads items, products, shops and delivery in one query
+    @EntityGraph("Order.history")
     List<Order> findByUserIdOrderByOrderDateDesc(Long userId);
+
+    @EntityGraph("Order.history")
     Optional<Order> findByOrderNumber(String orderNumber);
+
+    @Override
+    @EntityGraph("Order.history")
+    Optional<Order> findById(Long id);
     
     // Keep old method for backward compatibility
     default List<Order> findByUserId(Long userId) {
         return findByUserIdOrderByOrderDateDesc(userId);
     }
-}
 
+    // Newest first: the cursor is the id of the last order seen
+    @Query("SELECT new org.backend.stockease.dto.OrderSummary(o.id, o.orderNumber, o.totalAmount, o.status, " +
+           "o.orderDate, o.deliveryOption, SIZE(o.items)) " +
+           "FROM Order o WHERE o.user.id = :userId AND o.id < :before ORDER BY o.id DESC")
+    List<OrderSummary> findUserSummariesBefore(@Param("userId") Long userId, @Param("before") Long before, Pageable pageable);
+
+    @Query("SELECT new org.backend.stockease.dto.SalesAggregate(COUNT(o), COALESCE(SUM(o.totalAmount), 0)) " +
+           "FROM Order o WHERE o.orderDate >= :from AND o.orderDate < :to")
+    SalesAggregate aggregateBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new org.backend.stockease.dto.SalesAggregate(COUNT(o), COALESCE(SUM(o.totalAmount), 0)) " +
+           "FROM Order o WHERE o.orderDate >= :from")
+    SalesAggregate aggregateSince(@Param("from") LocalDateTime from);
+
+    @Query("SELECT MIN(o.orderDate) FROM Order o")
+    LocalDateTime findEarliestOrderDate();
+
+    // Admin export; the delivery is fetched with the order since it can't be loaded lazily
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                  @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.delivery ORDER BY o.id")
+    Stream<Order> streamAll();
+}
@@ -0,0 +1,23 @@
+package org.backend.stockease.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.backend.stockease.dto.SalesAggregate;
+import org.backend.stockease.entity.PlatformDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PlatformDailyRollupRepository extends JpaRepository<PlatformDailyRollup, Long> {
+    Optional<PlatformDailyRollup> findTopByOrderByRollupDateDesc();
+    Optional<PlatformDailyRollup> findByRollupDate(LocalDate rollupDate);
+    List<PlatformDailyRollup> findByRollupDateGreaterThanEqualOrderByRollupDateAsc(LocalDate from);
+
+    @Query("SELECT new org.backend.stockease.dto.SalesAggregate(COALESCE(SUM(d.totalOrders), 0), COALESCE(SUM(d.salesRevenue), 0)) " +
+           "FROM PlatformDailyRollup d WHERE d.rollupDate >= :from AND d.rollupDate < :to")
+    SalesAggregate aggregateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
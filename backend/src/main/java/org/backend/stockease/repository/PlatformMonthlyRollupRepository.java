@@ -0,0 +1,21 @@
+package org.backend.stockease.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.backend.stockease.dto.SalesAggregate;
+import org.backend.stockease.entity.PlatformMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PlatformMonthlyRollupRepository extends JpaRepository<PlatformMonthlyRollup, Long> {
+    Optional<PlatformMonthlyRollup> findByRollupMonth(LocalDate rollupMonth);
+    List<PlatformMonthlyRollup> findAllByOrderByRollupMonthAsc();
+
+    @Query("SELECT new org.backend.stockease.dto.SalesAggregate(COALESCE(SUM(m.totalOrders), 0), COALESCE(SUM(m.salesRevenue), 0)) " +
+           "FROM PlatformMonthlyRollup m")
+    SalesAggregate aggregateAll();
+}
@@ -1,38 +1,89 @@
 package org.backend.stockease.repository;
 
+import org.backend.stockease.dto.ProductSummary;
 import org.backend.stockease.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByCategoryId(Long categoryId);
+    // Catalog reads load category, shop and plan up front: everything a product serializes
+    @Override
+    @EntityGraph("Product.catalog")
+    Optional<Product> findById(Long id);
+
+    @Override
+    @EntityGraph("Product.catalog")
+    List<Product> findAllById(Iterable<Long> ids);
+
+    // Spelled out so the filter stays on products.category_id instead of a join to categories
+    @EntityGraph("Product.catalog")
+    @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId")
+    List<Product> findByCategoryId(@Param("categoryId") Long categoryId);
     
+    @EntityGraph("Product.catalog")
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.category.id = :categoryId")
     List<Product> findActiveByCategoryId(@Param("categoryId") Long categoryId);
     
+    @EntityGraph("Product.catalog")
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND (LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     List<Product> searchActiveProducts(@Param("keyword") String keyword);
     
+    @EntityGraph("Product.catalog")
     @Query("SELECT p FROM Product p WHERE p.isActive = true")
     List<Product> findAllActive();
     
+    @EntityGraph("Product.catalog")
     List<Product> findByIsBestSellerTrue();
     
+    @EntityGraph("Product.catalog")
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.isBestSeller = true")
     List<Product> findActiveBestSellers();
     
+    @EntityGraph("Product.catalog")
     @Query("SELECT p FROM Product p WHERE p.shop.id = :shopId AND p.isActive = true")
     List<Product> findByShopId(@Param("shopId") Long shopId);
     
+    @EntityGraph("Product.catalog")
     @Query("SELECT p FROM Product p WHERE p.shop.id = :shopId AND p.category.id = :categoryId")
     List<Product> findByShopIdAndCategoryId(@Param("shopId") Long shopId, @Param("categoryId") Long categoryId);
     
+    @EntityGraph("Product.catalog")
     @Query("SELECT p FROM Product p WHERE p.shop.id = :shopId")
     List<Product> findAllByShopId(@Param("shopId") Long shopId);
+
+    @Query("SELECT new org.backend.stockease.dto.ProductSummary(p.id, p.name, p.price, p.originalPrice, p.stock, " +
+           "p.imageUrl, p.rating, p.isBestSeller, c.id, c.name, s.id, s.name) " +
+           "FROM Product p LEFT JOIN p.category c LEFT JOIN p.shop s " +
+           "WHERE p.isActive = true AND p.id > :after ORDER BY p.id")
+    List<ProductSummary> findActiveSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    long countByShopId(Long shopId);
+
+    long countByShopIdAndStockGreaterThan(Long shopId, Integer stock);
+
+    // Both re-check the end date, so products of a shop renewed since it was picked up stay active
+    @Query("SELECT p.id FROM Product p WHERE p.shop.id IN :shopIds AND p.isActive = true " +
+           "AND p.shop.subscriptionEndDate < :now ORDER BY p.id")
+    List<Long> findActiveIdsOfExpiredShops(@Param("shopIds") List<Long> shopIds, @Param("now") LocalDateTime now,
+                                           Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.isActive = false WHERE p.id IN :ids AND p.isActive = true " +
+           "AND p.shop.id IN (SELECT s.id FROM Shop s WHERE s.id IN :shopIds AND s.subscriptionEndDate < :now)")
+    int deactivateAllOfExpiredShops(@Param("ids") List<Long> ids, @Param("shopIds") List<Long> shopIds,
+                                    @Param("now") LocalDateTime now);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.isActive = false")
+    List<Long> findInactiveIds(@Param("ids") List<Long> ids);
 }
 
@@ -0,0 +1,30 @@
+package org.backend.stockease.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.backend.stockease.entity.ShopDailyStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ShopDailyStatisticsRepository extends JpaRepository<ShopDailyStatistics, Long> {
+    @Modifying
+    @Query("UPDATE ShopDailyStatistics d SET d.revenue = d.revenue + :revenue, d.orders = d.orders + :orders " +
+           "WHERE d.shopId = :shopId AND d.bucketDate = :day")
+    int addOrders(@Param("shopId") Long shopId, @Param("day") LocalDate day, @Param("revenue") BigDecimal revenue,
+                  @Param("orders") Integer orders);
+
+    @Query("SELECT COALESCE(SUM(d.revenue), 0) FROM ShopDailyStatistics d WHERE d.shopId = :shopId AND d.bucketDate > :since")
+    BigDecimal sumRevenueSince(@Param("shopId") Long shopId, @Param("since") LocalDate since);
+
+    @Query("SELECT COALESCE(SUM(d.orders), 0) FROM ShopDailyStatistics d WHERE d.shopId = :shopId AND d.bucketDate > :since")
+    Long sumOrdersSince(@Param("shopId") Long shopId, @Param("since") LocalDate since);
+
+    @Modifying
+    @Query("DELETE FROM ShopDailyStatistics d WHERE d.shopId = :shopId")
+    void deleteByShopId(@Param("shopId") Long shopId);
+}
@@ -1,28 +1,90 @@
 package org.backend.stockease.repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.backend.stockease.dto.AdminShopSummary;
+import org.backend.stockease.dto.ShopSubscriptionTerm;
+import org.backend.stockease.dto.ShopSummary;
 import org.backend.stockease.entity.Shop;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ShopRepository extends JpaRepository<Shop, Long> {
+    @Override
+    @EntityGraph("Shop.withPlan")
+    Optional<Shop> findById(Long id);
+
+    @Override
+    @EntityGraph("Shop.withPlan")
+    List<Shop> findAll();
+
+    @EntityGraph("Shop.withPlan")
     Optional<Shop> findByOwnerId(Long ownerId);
+
+    @EntityGraph("Shop.withPlan")
     List<Shop> findAllByOwnerId(Long ownerId);
+
     Optional<Shop> findByName(String name);
+
+    @EntityGraph("Shop.withPlan")
     List<Shop> findByIsActiveTrue();
     
     @Query("SELECT COUNT(s) FROM Shop s WHERE s.isActive = true")
     Long countActiveShops();
     
-    @Query("SELECT SUM(sp.monthlyPrice) FROM Shop s JOIN s.subscriptionPlan sp WHERE s.isActive = true")
+    @Query("SELECT COALESCE(SUM(sp.monthlyPrice), 0) FROM Shop s JOIN s.subscriptionPlan sp WHERE s.isActive = true")
     BigDecimal calculateTotalMonthlyRevenue();
 
-    @Query("SELECT s FROM Shop s LEFT JOIN FETCH s.owner LEFT JOIN FETCH s.subscriptionPlan")
+    @Query("SELECT new org.backend.stockease.dto.ShopSubscriptionTerm(s.subscriptionStartDate, s.subscriptionEndDate, sp.monthlyPrice) " +
+           "FROM Shop s JOIN s.subscriptionPlan sp WHERE s.isActive = true")
+    List<ShopSubscriptionTerm> findActiveSubscriptionTerms();
+
+    // The owner's cart is the inverse side of a one-to-one, which Hibernate would otherwise load per owner
+    @Query("SELECT s FROM Shop s LEFT JOIN FETCH s.owner o LEFT JOIN FETCH o.cart LEFT JOIN FETCH s.subscriptionPlan")
     List<Shop> findAllWithOwnerAndPlan();
-}
 
+    @Query("SELECT new org.backend.stockease.dto.ShopSummary(s.id, s.name, s.description, s.isActive, sp.name, " +
+           "s.subscriptionEndDate, s.createdAt) " +
+           "FROM Shop s JOIN s.subscriptionPlan sp " +
+           "WHERE s.id > :after AND (:activeOnly = false OR s.isActive = true) ORDER BY s.id")
+    List<ShopSummary> findSummariesAfter(@Param("after") Long after, @Param("activeOnly") boolean activeOnly, Pageable pageable);
+
+    @Query("SELECT new org.backend.stockease.dto.AdminShopSummary(s.id, s.name, s.isActive, o.id, o.name, o.email, " +
+           "sp.id, sp.name, s.subscriptionStartDate, s.subscriptionEndDate, s.totalRevenue, s.totalOrders) " +
+           "FROM Shop s LEFT JOIN s.owner o LEFT JOIN s.subscriptionPlan sp " +
+           "WHERE s.id > :after ORDER BY s.id")
+    List<AdminShopSummary> findAdminSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Shop s SET s.totalRevenue = s.totalRevenue + :revenue, s.totalOrders = s.totalOrders + :orders WHERE s.id = :shopId")
+    int addOrderTotals(@Param("shopId") Long shopId, @Param("revenue") BigDecimal revenue, @Param("orders") Integer orders);
+
+    // Served by idx_shops_active_end_date
+    @Query("SELECT s.id FROM Shop s WHERE s.isActive = true AND s.subscriptionEndDate < :now ORDER BY s.subscriptionEndDate")
+    List<Long> findExpiredActiveIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Re-checks the end date so a subscription renewed meanwhile stays active
+    @Modifying
+    @Query("UPDATE Shop s SET s.isActive = false WHERE s.id IN :ids AND s.isActive = true AND s.subscriptionEndDate < :now")
+    int deactivateExpired(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    // Admin export, read row by row; must run inside a transaction
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                  @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT s FROM Shop s LEFT JOIN FETCH s.owner LEFT JOIN FETCH s.subscriptionPlan ORDER BY s.id")
+    Stream<Shop> streamAllWithOwnerAndPlan();
+}
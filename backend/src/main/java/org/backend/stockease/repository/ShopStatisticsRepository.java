@@ -0,0 +1,18 @@
+package org.backend.stockease.repository;
+
+import org.backend.stockease.entity.ShopStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ShopStatisticsRepository extends JpaRepository<ShopStatistics, Long> {
+    @Modifying
+    @Query("UPDATE ShopStatistics s SET s.totalProducts = s.totalProducts + :productDelta, " +
+           "s.inStockProducts = s.inStockProducts + :inStockDelta WHERE s.shopId = :shopId")
+    int adjustProductCounts(@Param("shopId") Long shopId,
+                            @Param("productDelta") int productDelta,
+                            @Param("inStockDelta") int inStockDelta);
+}
@@ -1,14 +1,37 @@
 package org.backend.stockease.repository;
 
+import org.backend.stockease.dto.UserSummary;
 import org.backend.stockease.entity.User;
+import org.backend.stockease.entity.enums.Role;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-}
 
+    @Query("SELECT u.role FROM User u WHERE u.id = :id")
+    Optional<Role> findRoleById(@Param("id") Long id);
+
+    @Query("SELECT new org.backend.stockease.dto.UserSummary(u.id, u.name, u.email, u.phone, u.role) " +
+           "FROM User u WHERE u.id > :after ORDER BY u.id")
+    List<UserSummary> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    // Admin export; the cart is fetched with the user since it can't be loaded lazily
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                  @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.cart ORDER BY u.id")
+    Stream<User> streamAll();
+}
@@ -0,0 +1,85 @@
+package org.backend.stockease.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already verified tokens, so a client sending the same token
+ * on every request is only parsed and checked against the users table once per
+ * TTL window. The TTL is therefore also how long a deleted or demoted user can
+ * keep using a token, unless {@link #evictUser} is called.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    @Value("${stockease.security.token-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${stockease.security.token-cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    private Cache<String, Entry> entries;
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, Entry>() {
+                @Override
+                public long expireAfterCreate(String token, Entry entry, long currentTime) {
+                    return entry.ttlNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(String token, Entry entry, long currentTime, long currentDuration) {
+                    return entry.ttlNanos;
+                }
+
+                @Override
+                public long expireAfterRead(String token, Entry entry, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    public UserDetails get(String token) {
+        Entry entry = entries.getIfPresent(token);
+        return entry != null ? entry.userDetails : null;
+    }
+
+    /**
+     * Caches the principal until the TTL elapses or the token itself expires, whichever comes first.
+     */
+    public void put(String token, UserDetails userDetails, long tokenExpiresAt) {
+        long ttl = Math.min(ttlMillis, tokenExpiresAt - System.currentTimeMillis());
+        if (ttl <= 0) {
+            return;
+        }
+        entries.put(token, new Entry(userDetails, TimeUnit.MILLISECONDS.toNanos(ttl)));
+    }
+
+    /**
+     * Drops every cached token of a user, so the next request checks the users table again.
+     */
+    public void evictUser(Long userId) {
+        String username = userId.toString();
+        entries.asMap().values().removeIf(entry -> entry.userDetails.getUsername().equals(username));
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    private record Entry(UserDetails userDetails, long ttlNanos) {
+    }
+}
@@ -1,5 +1,7 @@
 package org.backend.stockease.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,12 +11,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Date;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -25,23 +29,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
         String token = getJwtFromRequest(request);
 
-        if (StringUtils.hasText(token) && jwtProvider.validateToken(token)) {
-            String email = jwtProvider.getEmailFromToken(token);
-            Long userId = jwtProvider.getUserIdFromToken(token);
-            
-            UserDetails userDetails = null;
-            if (email != null) {
-                // Token contains email
-                userDetails = userDetailsService.loadUserByUsername(email);
-            } else if (userId != null) {
-                // Token contains userId, need to load by userId
-                userDetails = userDetailsService.loadUserById(userId);
+        if (StringUtils.hasText(token)) {
+            UserDetails userDetails = authenticationCache.get(token);
+            if (userDetails == null) {
+                userDetails = authenticate(token);
             }
             
             if (userDetails != null) {
@@ -56,6 +56,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails authenticate(String token) {
+        Claims claims;
+        try {
+            // Single parse: verifies signature and expiry and gives us every claim
+            claims = jwtProvider.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+
+        Long userId = jwtProvider.getUserIdFromClaims(claims);
+
+        UserDetails userDetails;
+        try {
+            if (userId != null) {
+                // One role lookup per cache miss: deleted or demoted users are caught within the cache TTL
+                userDetails = userDetailsService.loadTokenPrincipal(userId);
+            } else {
+                // Older tokens without a user id: load the user by email as before
+                String email = jwtProvider.getEmailFromClaims(claims);
+                if (email == null) {
+                    return null;
+                }
+                userDetails = userDetailsService.loadUserByUsername(email);
+            }
+        } catch (UsernameNotFoundException ex) {
+            return null;
+        }
+
+        Date expiration = claims.getExpiration();
+        authenticationCache.put(token, userDetails, expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+        return userDetails;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
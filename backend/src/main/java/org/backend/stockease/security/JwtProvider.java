@@ -1,6 +1,7 @@
 package org.backend.stockease.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -16,6 +17,8 @@ public class JwtProvider {
 
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
     private final long expirationTime = 2592000000L; // 30 days (30 * 24 * 60 * 60 * 1000)
+    // Parsers are immutable and thread-safe, build it once
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
 
     public String generateToken(Authentication authentication) {
         User principal = (User) authentication.getPrincipal();
@@ -45,13 +48,19 @@ public class JwtProvider {
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry and returns the claims.
+     * Throws a JwtException when the token is invalid.
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return getEmailFromClaims(parseClaims(token));
+    }
 
+    public String getEmailFromClaims(Claims claims) {
         // Check if email is in claims, otherwise subject might be email or userId
         String email = (String) claims.get("email");
         if (email != null) {
@@ -71,12 +80,10 @@ public class JwtProvider {
     }
     
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return getUserIdFromClaims(parseClaims(token));
+    }
 
+    public Long getUserIdFromClaims(Claims claims) {
         String subject = claims.getSubject();
         try {
             return Long.parseLong(subject);
@@ -87,7 +94,7 @@ public class JwtProvider {
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (Exception ex) {
             // Can log different exceptions like ExpiredJwtException, SignatureException etc.
@@ -0,0 +1,20 @@
+package org.backend.stockease.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Full-table exports for the admin console, written as NDJSON (one JSON object
+ * per line) while the rows are still being read.
+ */
+public interface AdminExportService {
+    String MEDIA_TYPE = "application/x-ndjson";
+
+    void exportShops(OutputStream output) throws IOException;
+
+    void exportUsers(OutputStream output) throws IOException;
+
+    void exportOrders(OutputStream output) throws IOException;
+
+    void exportOrderItems(OutputStream output) throws IOException;
+}
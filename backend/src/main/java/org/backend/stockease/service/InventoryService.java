@@ -0,0 +1,9 @@
+package org.backend.stockease.service;
+
+import java.util.List;
+import java.util.Map;
+
+public interface InventoryService {
+    List<Long> reserve(Map<Long, Integer> quantitiesByProductId); // Ids of products this took out of stock
+    List<Long> release(Map<Long, Integer> quantitiesByProductId); // Ids of products this put back in stock
+}
@@ -3,12 +3,16 @@ package org.backend.stockease.service;
 import java.util.List;
 import java.util.Optional;
 
+import org.backend.stockease.dto.CursorPage;
+import org.backend.stockease.dto.OrderSummary;
 import org.backend.stockease.entity.Order;
 
 public interface OrderService {
     Order createOrder(Long userId, String address, String deliveryOption);
     List<Order> getUserOrders(Long userId);
+    CursorPage<OrderSummary> getUserOrderPage(Long userId, Long after, Integer limit);
     Optional<Order> getOrderByNumber(String orderNumber);
     Optional<Order> getOrderById(Long orderId);
+    Optional<Order> cancelOrder(Long orderId);
 }
 
@@ -0,0 +1,14 @@
+package org.backend.stockease.service;
+
+import java.util.List;
+
+import org.backend.stockease.dto.PlatformStatisticsResponse;
+import org.backend.stockease.entity.PlatformDailyRollup;
+import org.backend.stockease.entity.PlatformMonthlyRollup;
+
+public interface PlatformStatisticsService {
+    PlatformStatisticsResponse getPlatformStatistics();
+    List<PlatformDailyRollup> getDailyRollups(int days);
+    List<PlatformMonthlyRollup> getMonthlyRollups();
+    void refreshRollups();
+}
@@ -0,0 +1,42 @@
+package org.backend.stockease.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.backend.stockease.dto.ProductImportResult;
+
+public interface ProductBulkService {
+    enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (value != null && (value.equalsIgnoreCase(format.extension) || value.toLowerCase().startsWith(format.mediaType))) {
+                    return format;
+                }
+            }
+            throw new RuntimeException("Unsupported format: " + value + " (use csv or ndjson)");
+        }
+    }
+
+    ProductImportResult importProducts(Long shopId, Format format, InputStream input);
+    void exportProducts(Long shopId, Format format, OutputStream output) throws IOException;
+}
@@ -1,5 +1,7 @@
 package org.backend.stockease.service;
 
+import org.backend.stockease.dto.CursorPage;
+import org.backend.stockease.dto.ProductSummary;
 import org.backend.stockease.entity.Product;
 
 import java.util.List;
@@ -7,10 +9,14 @@ import java.util.Optional;
 
 public interface ProductService {
     List<Product> getAllProducts();
+    CursorPage<ProductSummary> getActiveProductPage(Long after, Integer limit);
     Optional<Product> getProductById(Long id);
     List<Product> getProductsByCategory(Long categoryId);
     List<Product> searchProducts(String keyword);
+    List<Product> searchProducts(String keyword, int page, int size);
     List<Product> getBestSellers();
+    List<Product> getBestSellersInCategory(Long categoryId);
+    List<Product> getBestSellersOfShop(Long shopId);
     List<Product> getProductsByShopId(Long shopId);
     List<Product> getAllProductsByShopId(Long shopId); // Includes inactive products
     Product createProduct(Product product);
@@ -1,7 +1,10 @@
 package org.backend.stockease.service;
 
+import org.backend.stockease.dto.AdminShopSummary;
+import org.backend.stockease.dto.CursorPage;
 import org.backend.stockease.dto.ShopCreationRequest;
 import org.backend.stockease.dto.ShopStatisticsResponse;
+import org.backend.stockease.dto.ShopSummary;
 import org.backend.stockease.entity.Shop;
 
 import java.util.List;
@@ -13,6 +16,8 @@ public interface ShopService {
     Optional<Shop> getShopById(Long id);
     List<Shop> getAllShops();
     List<Shop> getActiveShops();
+    CursorPage<ShopSummary> getShopPage(boolean activeOnly, Long after, Integer limit);
+    CursorPage<AdminShopSummary> getAdminShopPage(Long after, Integer limit);
     Optional<Shop> updateShop(Long id, Shop shopDetails);
     void deleteShop(Long id);
     ShopStatisticsResponse getShopStatistics(Long shopId);
@@ -0,0 +1,16 @@
+package org.backend.stockease.service;
+
+import org.backend.stockease.dto.ShopStatisticsResponse;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.entity.Shop;
+
+public interface ShopStatisticsService {
+    ShopStatisticsResponse getStatistics(Shop shop);
+    void productCreated(Product product);
+    void productsImported(Long shopId, int count, int inStockCount);
+    void productChanged(Long previousShopId, Integer previousStock, Product product);
+    void productDeleted(Product product);
+    void inStockChanged(Long shopId, int inStockDelta); // Stock of some products crossed zero through orders
+    void initializeShop(Long shopId);
+    void deleteShop(Long shopId);
+}
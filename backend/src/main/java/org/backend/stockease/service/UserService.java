@@ -1,5 +1,7 @@
 package org.backend.stockease.service;
 
+import org.backend.stockease.dto.CursorPage;
+import org.backend.stockease.dto.UserSummary;
 import org.backend.stockease.entity.User;
 
 import java.util.List;
@@ -7,6 +9,7 @@ import java.util.Optional;
 
 public interface UserService {
     List<User> getAllUsers();
+    CursorPage<UserSummary> getUserPage(Long after, Integer limit);
     Optional<User> getUserById(Long userId);
     Optional<User> updateUser(Long userId, User userDetails);
     void deleteUser(Long userId);
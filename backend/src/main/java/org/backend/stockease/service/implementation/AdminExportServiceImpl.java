@@ -0,0 +1,156 @@
+package org.backend.stockease.service.implementation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.backend.stockease.dto.AdminShopSummary;
+import org.backend.stockease.dto.OrderExportRow;
+import org.backend.stockease.dto.OrderItemExportRow;
+import org.backend.stockease.dto.UserSummary;
+import org.backend.stockease.entity.Delivery;
+import org.backend.stockease.entity.Order;
+import org.backend.stockease.entity.OrderItem;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.SubscriptionPlan;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.repository.OrderItemRepository;
+import org.backend.stockease.repository.OrderRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.service.AdminExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Reads each table through a repository Stream (fetch size set on the query) and
+ * writes every entity out as soon as it arrives, so memory use does not grow with
+ * the table. Written entities are detached, and the persistence context is cleared
+ * every CLEAR_INTERVAL rows to drop the references a detach doesn't cascade to.
+ */
+@Service
+public class AdminExportServiceImpl implements AdminExportService {
+
+    // Matches the fetch size hint on the stream queries
+    private static final int CLEAR_INTERVAL = 500;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnlyTransaction;
+    private ObjectWriter rowWriter;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // Flushing after every row would send each line to the client on its own
+        rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void exportShops(OutputStream output) throws IOException {
+        // Left joins, like the paged admin listing: a shop missing its owner or plan is still exported
+        export(output, shopRepository::streamAllWithOwnerAndPlan, (Shop shop) -> {
+            User owner = shop.getOwner();
+            SubscriptionPlan plan = shop.getSubscriptionPlan();
+            return new AdminShopSummary(shop.getId(), shop.getName(), shop.getIsActive(),
+                owner != null ? owner.getId() : null, owner != null ? owner.getName() : null,
+                owner != null ? owner.getEmail() : null,
+                plan != null ? plan.getId() : null, plan != null ? plan.getName() : null,
+                shop.getSubscriptionStartDate(), shop.getSubscriptionEndDate(), shop.getTotalRevenue(), shop.getTotalOrders());
+        });
+    }
+
+    @Override
+    public void exportUsers(OutputStream output) throws IOException {
+        export(output, userRepository::streamAll, (User user) -> new UserSummary(
+            user.getId(), user.getName(), user.getEmail(), user.getPhone(), user.getRole()));
+    }
+
+    @Override
+    public void exportOrders(OutputStream output) throws IOException {
+        export(output, orderRepository::streamAll, (Order order) -> {
+            Delivery delivery = order.getDelivery();
+            return new OrderExportRow(order.getId(), order.getOrderNumber(), order.getUser().getId(),
+                order.getTotalAmount(), order.getStatus(), order.getOrderDate(), order.getDeliveryOption(),
+                delivery != null ? delivery.getStatus() : null, delivery != null ? delivery.getTrackingNumber() : null);
+        });
+    }
+
+    @Override
+    public void exportOrderItems(OutputStream output) throws IOException {
+        // Only the ids of order and product are read, so neither proxy is initialized
+        export(output, orderItemRepository::streamAll, (OrderItem item) -> new OrderItemExportRow(
+            item.getId(), item.getOrder().getId(), item.getProduct().getId(), item.getQuantity(), item.getPrice()));
+    }
+
+    private <T> void export(OutputStream output, Supplier<Stream<T>> query, Function<T, Object> toRow) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        json.setRootValueSeparator(null);
+        try {
+            // Read-only, so a replica serves it when there is one
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<T> rows = query.get()) {
+                    long written = 0;
+                    Iterator<T> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        T entity = iterator.next();
+                        rowWriter.writeValue(json, toRow.apply(entity));
+                        json.writeRaw('\n');
+                        entityManager.detach(entity);
+                        if (++written == 1) {
+                            // Get the first line to the client right away
+                            json.flush();
+                        } else if (written % CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        json.flush();
+    }
+}
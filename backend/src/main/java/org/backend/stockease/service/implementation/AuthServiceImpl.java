@@ -78,11 +78,13 @@ public class AuthServiceImpl implements AuthService {
         );
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = jwtProvider.generateToken(authentication);
         
         User user = userRepository.findByEmail(request.getEmail())
             .orElseThrow(() -> new RuntimeException("User not found after authentication"));
 
+        // Same token shape as registration so the role claim is always present
+        String token = jwtProvider.generateTokenFromUserId(user.getId(), user.getEmail(), user.getRole().name());
+
         return new AuthResponse(user.getId(), user.getName(), user.getEmail(), user.getRole(), token, "Login successful");
     }
 }
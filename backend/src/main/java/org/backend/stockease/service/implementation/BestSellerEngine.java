@@ -0,0 +1,535 @@
+package org.backend.stockease.service.implementation;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.backend.stockease.entity.OrderItem;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Best sellers ranked by the units sold over the last stockease.bestsellers.window-hours.
+ * Checkouts are recorded as they commit into a ring of time buckets per product
+ * (and cancellations taken back out of the bucket of the order's date),
+ * kept in flat primitive arrays, so a sale costs a few array writes. A scheduled
+ * pass ranks the top stockease.bestsellers.top-k products overall, per category
+ * and per shop, and publishes the lists ready to serve. The counts are written to
+ * bestseller_snapshots periodically; on startup the snapshot is loaded and the
+ * orders placed since it was taken are replayed from order_items.
+ */
+@Component
+public class BestSellerEngine {
+
+    private static final String INSERT_SNAPSHOT_SQL =
+        "INSERT INTO bestseller_snapshots (product_id, bucket_start_millis, quantity, taken_at_millis) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${stockease.bestsellers.window-hours:168}")
+    private long windowHours;
+
+    @Value("${stockease.bestsellers.buckets:28}")
+    private int buckets;
+
+    @Value("${stockease.bestsellers.top-k:20}")
+    private int topK;
+
+    // Guards everything below; a lock rather than a monitor so virtual threads don't pin
+    private final ReentrantLock lock = new ReentrantLock();
+    private final SlotIndex slotIndex = new SlotIndex();
+    private long bucketMillis;
+    private long currentBucket;
+    private int slotCount;
+    // Per slot (one slot per product that ever sold); 0 stands for no category or shop
+    private long[] productIds;
+    private long[] categoryIds;
+    private long[] shopIds;
+    private long[] totals;
+    // Units sold per slot and bucket, at slot * buckets + bucket % buckets
+    private int[] counts;
+
+    private volatile Ranking ranking = new Ranking(List.of(), Map.of(), Map.of());
+    private volatile boolean loaded = false;
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    void init() {
+        bucketMillis = Math.max(1, TimeUnit.HOURS.toMillis(windowHours) / buckets);
+        currentBucket = System.currentTimeMillis() / bucketMillis;
+        productIds = new long[1024];
+        categoryIds = new long[1024];
+        shopIds = new long[1024];
+        totals = new long[1024];
+        counts = new int[1024 * buckets];
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Records the items of an order once the caller's (checkout) transaction commits.
+     */
+    public void recordOrder(List<OrderItem> items) {
+        afterCommit(items, (products, categories, shops, quantities) ->
+            record(products, categories, shops, quantities, System.currentTimeMillis()));
+    }
+
+    /**
+     * Takes the items of a cancelled order back out of the window once the caller's
+     * (cancel) transaction commits. Orders older than the window are left alone.
+     */
+    public void recordCancellation(List<OrderItem> items, LocalDateTime orderDate) {
+        long orderedAt = orderDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        afterCommit(items, (products, categories, shops, quantities) -> {
+            lock.lock();
+            try {
+                for (int i = 0; i < products.length; i++) {
+                    subtract(products[i], quantities[i], orderedAt);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    // Copies what is needed out of the (managed) items now and applies it after commit
+    private void afterCommit(List<OrderItem> items, OrderLines action) {
+        int size = items.size();
+        long[] products = new long[size];
+        long[] categories = new long[size];
+        long[] shops = new long[size];
+        int[] quantities = new int[size];
+        for (int i = 0; i < size; i++) {
+            Product product = items.get(i).getProduct();
+            products[i] = product.getId();
+            categories[i] = product.getCategory() != null ? product.getCategory().getId() : 0;
+            shops[i] = product.getShop() != null ? product.getShop().getId() : 0;
+            quantities[i] = items.get(i).getQuantity();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.apply(products, categories, shops, quantities);
+                }
+            });
+        } else {
+            action.apply(products, categories, shops, quantities);
+        }
+    }
+
+    /**
+     * Adds the units sold at {@code atMillis}; the arrays describe one order line per index.
+     */
+    public void record(long[] products, long[] categories, long[] shops, int[] quantities, long atMillis) {
+        lock.lock();
+        try {
+            for (int i = 0; i < products.length; i++) {
+                add(products[i], categories[i], shops[i], quantities[i], atMillis);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Long> topProducts() {
+        return ranking.global();
+    }
+
+    public List<Long> topProductsInCategory(Long categoryId) {
+        return ranking.byCategory().getOrDefault(categoryId, List.of());
+    }
+
+    public List<Long> topProductsOfShop(Long shopId) {
+        return ranking.byShop().getOrDefault(shopId, List.of());
+    }
+
+    @Scheduled(fixedDelayString = "${stockease.bestsellers.rank-interval-ms:5000}")
+    public void rank() {
+        rank(System.currentTimeMillis());
+    }
+
+    void rank(long nowMillis) {
+        int size;
+        long[] slotProducts;
+        long[] slotCategories;
+        long[] slotShops;
+        long[] slotTotals;
+        lock.lock();
+        try {
+            advanceTo(nowMillis / bucketMillis);
+            size = slotCount;
+            slotProducts = Arrays.copyOf(productIds, size);
+            slotCategories = Arrays.copyOf(categoryIds, size);
+            slotShops = Arrays.copyOf(shopIds, size);
+            slotTotals = Arrays.copyOf(totals, size);
+        } finally {
+            lock.unlock();
+        }
+
+        // Ranked from the copies so recording never waits on the ranking
+        TopK global = new TopK(topK);
+        Map<Long, TopK> byCategory = new HashMap<>();
+        Map<Long, TopK> byShop = new HashMap<>();
+        for (int slot = 0; slot < size; slot++) {
+            long sold = slotTotals[slot];
+            if (sold <= 0) {
+                continue;
+            }
+            long productId = slotProducts[slot];
+            global.offer(productId, sold);
+            if (slotCategories[slot] != 0) {
+                byCategory.computeIfAbsent(slotCategories[slot], id -> new TopK(topK)).offer(productId, sold);
+            }
+            if (slotShops[slot] != 0) {
+                byShop.computeIfAbsent(slotShops[slot], id -> new TopK(topK)).offer(productId, sold);
+            }
+        }
+
+        Ranking next = new Ranking(global.toList(), toLists(byCategory), toLists(byShop));
+        Ranking previous = ranking;
+        ranking = next;
+        if (!next.equals(previous)) {
+            catalogCache.invalidateBestSellers();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${stockease.bestsellers.snapshot-interval-ms:60000}",
+               fixedDelayString = "${stockease.bestsellers.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        if (!loaded) {
+            // Writing now would replace the previous snapshot before it has been read
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        lock.lock();
+        try {
+            long takenAt = System.currentTimeMillis();
+            advanceTo(takenAt / bucketMillis);
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (totals[slot] == 0) {
+                    continue;
+                }
+                for (int column = 0; column < buckets; column++) {
+                    int sold = counts[slot * buckets + column];
+                    if (sold != 0) {
+                        long bucket = currentBucket - Math.floorMod(currentBucket - column, buckets);
+                        rows.add(new Object[] { productIds[slot], bucket * bucketMillis, sold, takenAt });
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM bestseller_snapshots");
+                jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, rows);
+            });
+        } catch (RuntimeException ex) {
+            // The previous snapshot stays in place; replay covers the gap after a restart
+            System.err.println("❌ Best-seller snapshot failed, will retry: " + ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        snapshot();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long now = System.currentTimeMillis();
+        long windowStart = (now / bucketMillis - buckets + 1) * bucketMillis;
+        Long takenAt = jdbcTemplate.queryForObject("SELECT MAX(taken_at_millis) FROM bestseller_snapshots", Long.class);
+        long replayFrom = takenAt != null ? Math.max(takenAt, windowStart) : windowStart;
+
+        lock.lock();
+        try {
+            advanceTo(now / bucketMillis);
+            jdbcTemplate.query(
+                "SELECT s.product_id, p.category_id, p.shop_id, s.quantity, s.bucket_start_millis FROM bestseller_snapshots s " +
+                "JOIN products p ON p.id = s.product_id WHERE p.is_active = true AND s.bucket_start_millis >= ?",
+                rs -> {
+                    add(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getInt(4), rs.getLong(5));
+                }, windowStart);
+            // Orders committed after the snapshot was taken
+            jdbcTemplate.query(
+                "SELECT oi.product_id, p.category_id, p.shop_id, oi.quantity, o.order_date FROM order_items oi " +
+                "JOIN orders o ON o.id = oi.order_id JOIN products p ON p.id = oi.product_id " +
+                "WHERE o.order_date >= ? AND o.status <> 'CANCELLED' AND p.is_active = true",
+                rs -> {
+                    add(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getInt(4), rs.getTimestamp(5).getTime());
+                }, new Timestamp(replayFrom));
+        } finally {
+            lock.unlock();
+        }
+        loaded = true;
+        rank(now);
+        System.out.println("✅ Best-seller window loaded with " + slotCount + " products");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        boolean listed = event.getType() != ProductChangedEvent.Type.DELETED
+            && Boolean.TRUE.equals(product.getIsActive());
+        lock.lock();
+        try {
+            int slot = slotIndex.get(product.getId());
+            if (slot < 0) {
+                return;
+            }
+            if (!listed) {
+                // Dropped from every ranking; it starts from zero if it is listed again
+                Arrays.fill(counts, slot * buckets, (slot + 1) * buckets, 0);
+                totals[slot] = 0;
+            } else {
+                categoryIds[slot] = product.getCategory() != null ? product.getCategory().getId() : 0;
+                shopIds[slot] = product.getShop() != null ? product.getShop().getId() : 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private void add(long productId, long categoryId, long shopId, int quantity, long atMillis) {
+        long bucket = atMillis / bucketMillis;
+        if (bucket > currentBucket) {
+            advanceTo(bucket);
+        } else if (bucket <= currentBucket - buckets) {
+            return;
+        }
+        int slot = slotIndex.get(productId);
+        if (slot < 0) {
+            slot = newSlot(productId);
+        }
+        categoryIds[slot] = categoryId;
+        shopIds[slot] = shopId;
+        counts[slot * buckets + (int) (bucket % buckets)] += quantity;
+        totals[slot] += quantity;
+    }
+
+    // Caller holds the lock. Never below zero: the slot may have been reset since the sale.
+    private void subtract(long productId, int quantity, long atMillis) {
+        long bucket = atMillis / bucketMillis;
+        int slot = slotIndex.get(productId);
+        if (slot < 0 || bucket > currentBucket || bucket <= currentBucket - buckets) {
+            return;
+        }
+        int cell = slot * buckets + (int) (bucket % buckets);
+        int removed = Math.min(quantity, counts[cell]);
+        counts[cell] -= removed;
+        totals[slot] -= removed;
+    }
+
+    // Caller holds the lock. Clears the buckets that fall out of the window.
+    private void advanceTo(long bucket) {
+        if (bucket <= currentBucket) {
+            return;
+        }
+        long expired = Math.min(bucket - currentBucket, buckets);
+        for (long reused = bucket - expired + 1; reused <= bucket; reused++) {
+            int column = (int) (reused % buckets);
+            for (int slot = 0, cell = column; slot < slotCount; slot++, cell += buckets) {
+                totals[slot] -= counts[cell];
+                counts[cell] = 0;
+            }
+        }
+        currentBucket = bucket;
+    }
+
+    private int newSlot(long productId) {
+        if (slotCount == productIds.length) {
+            int capacity = productIds.length * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            shopIds = Arrays.copyOf(shopIds, capacity);
+            totals = Arrays.copyOf(totals, capacity);
+            counts = Arrays.copyOf(counts, capacity * buckets);
+        }
+        int slot = slotCount++;
+        productIds[slot] = productId;
+        slotIndex.put(productId, slot);
+        return slot;
+    }
+
+    private static Map<Long, List<Long>> toLists(Map<Long, TopK> heaps) {
+        Map<Long, List<Long>> lists = new HashMap<>(heaps.size() * 2);
+        heaps.forEach((id, heap) -> lists.put(id, heap.toList()));
+        return lists;
+    }
+
+    @FunctionalInterface
+    private interface OrderLines {
+        void apply(long[] products, long[] categories, long[] shops, int[] quantities);
+    }
+
+    private record Ranking(List<Long> global, Map<Long, List<Long>> byCategory, Map<Long, List<Long>> byShop) {
+    }
+
+    /**
+     * The best {@code k} products offered so far: a heap with the weakest entry at
+     * the root, so each offer is O(log k). Ties go to the lower product id.
+     */
+    private static class TopK {
+        private final long[] ids;
+        private final long[] sold;
+        private int size;
+
+        private TopK(int k) {
+            ids = new long[k];
+            sold = new long[k];
+        }
+
+        private void offer(long id, long units) {
+            if (size < ids.length) {
+                ids[size] = id;
+                sold[size] = units;
+                siftUp(size++);
+            } else if (size > 0 && ranksAbove(units, id, sold[0], ids[0])) {
+                ids[0] = id;
+                sold[0] = units;
+                siftDown(0);
+            }
+        }
+
+        // Best first; empties the heap
+        private List<Long> toList() {
+            Long[] ranked = new Long[size];
+            while (size > 0) {
+                ranked[size - 1] = ids[0];
+                swap(0, --size);
+                siftDown(0);
+            }
+            return List.of(ranked);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!ranksAbove(sold[parent], ids[parent], sold[i], ids[i])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int weakest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && ranksAbove(sold[weakest], ids[weakest], sold[left], ids[left])) {
+                    weakest = left;
+                }
+                if (right < size && ranksAbove(sold[weakest], ids[weakest], sold[right], ids[right])) {
+                    weakest = right;
+                }
+                if (weakest == i) {
+                    return;
+                }
+                swap(i, weakest);
+                i = weakest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            long units = sold[a];
+            sold[a] = sold[b];
+            sold[b] = units;
+        }
+
+        private static boolean ranksAbove(long unitsA, long idA, long unitsB, long idB) {
+            return unitsA > unitsB || (unitsA == unitsB && idA < idB);
+        }
+    }
+
+    /**
+     * Product id to slot, open addressing over primitive arrays. Product ids are
+     * never 0, which marks an empty cell.
+     */
+    private static class SlotIndex {
+        private long[] keys = new long[2048];
+        private int[] slots = new int[2048];
+        private int size;
+
+        private int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return slots[i];
+                }
+                if (keys[i] == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        private void put(long key, int slot) {
+            if ((size + 1) * 2 > keys.length) {
+                long[] oldKeys = keys;
+                int[] oldSlots = slots;
+                keys = new long[oldKeys.length * 2];
+                slots = new int[oldKeys.length * 2];
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldKeys[i] != 0) {
+                        insert(oldKeys[i], oldSlots[i]);
+                    }
+                }
+            }
+            insert(key, slot);
+            size++;
+        }
+
+        private void insert(long key, int slot) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            slots[i] = slot;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
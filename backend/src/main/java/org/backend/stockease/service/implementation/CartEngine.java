@@ -0,0 +1,505 @@
+package org.backend.stockease.service.implementation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.backend.stockease.entity.Cart;
+import org.backend.stockease.entity.CartItem;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.event.ProductChangedEvent;
+import org.backend.stockease.repository.CartItemRepository;
+import org.backend.stockease.repository.CartRepository;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.repository.UserRepository;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Per-user carts kept in memory. Reads are answered from the cached state; every
+ * change is diffed against what was last persisted and written to carts/cart_items
+ * before the call returns, so a change the user was told about survives a crash.
+ *
+ * A change whose write fails is reported to the caller but stays in memory, and
+ * a background task retries dirty carts (sending the inserts, updates and deletes
+ * of all of them as three JDBC batches in one transaction) and evicts idle ones.
+ */
+@Component
+public class CartEngine {
+
+    private static final String INSERT_SQL = "INSERT INTO cart_items (id, cart_id, product_id, quantity) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE cart_items SET quantity = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM cart_items WHERE id = ?";
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${stockease.cart.idle-eviction-ms:1800000}")
+    private long idleEvictionMillis;
+
+    private final Map<Long, CartState> carts = new ConcurrentHashMap<>();
+
+    private SessionFactoryImplementor sessionFactory;
+    private IdentifierGenerator itemIdGenerator;
+
+    @PostConstruct
+    void init() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        itemIdGenerator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+            .getEntityDescriptor(CartItem.class).getGenerator();
+    }
+
+    public List<CartItem> getItems(Long userId) {
+        return withState(userId, state -> {
+            List<CartItem> items = new ArrayList<>(state.lines.size());
+            for (CartLine line : state.lines.values()) {
+                items.add(line.toCartItem());
+            }
+            return items;
+        });
+    }
+
+    public CartItem add(Long userId, Long productId, Integer quantity) {
+        CartItem existing = withState(userId, state -> increment(state, productId, quantity));
+        if (existing != null) {
+            return written(userId, existing);
+        }
+
+        // Loaded outside the lock so a slow query doesn't block the user's other requests;
+        // the same goes for the id, which now and then needs a trip to the sequence
+        Product product = productRepository.findById(productId)
+            .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        long itemId = nextItemId();
+
+        return written(userId, withState(userId, state -> {
+            CartItem item = increment(state, productId, quantity);
+            if (item != null) {
+                return item;
+            }
+            CartLine line = new CartLine(itemId, product, quantity);
+            state.lines.put(line.id, line);
+            state.version++;
+            return line.toCartItem();
+        }));
+    }
+
+    public CartItem update(Long userId, Long cartItemId, Integer quantity) {
+        return written(userId, withState(userId, state -> {
+            CartLine line = state.lines.get(cartItemId);
+            if (line == null) {
+                throw new RuntimeException("Cart item not found");
+            }
+            line.quantity = quantity;
+            state.version++;
+            return line.toCartItem();
+        }));
+    }
+
+    public void remove(Long userId, Long cartItemId) {
+        written(userId, withState(userId, state -> {
+            if (state.lines.remove(cartItemId) == null) {
+                throw new RuntimeException("Cart item not found");
+            }
+            state.version++;
+            return null;
+        }));
+    }
+
+    public void clear(Long userId) {
+        written(userId, withState(userId, state -> {
+            if (!state.lines.isEmpty()) {
+                state.lines.clear();
+                state.version++;
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Writes the user's pending changes in the caller's transaction, or a new one
+     * when there is none. Used at checkout so the order sees exactly what the user saw.
+     */
+    public void flush(Long userId) {
+        CartState state = carts.get(userId);
+        if (state != null) {
+            state.flushLock.lock();
+            flush(List.of(state));
+        }
+    }
+
+    /**
+     * Drops the ordered lines once the checkout commits. The rows themselves are
+     * deleted by the order outbox; the state stays cached (with the lines still
+     * counted as persisted, so the next flush deletes them too) rather than being
+     * reloaded from a table that may still hold them.
+     */
+    public void checkedOut(Long userId, Collection<Long> cartItemIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    discard(userId, cartItemIds);
+                }
+            });
+        } else {
+            discard(userId, cartItemIds);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stockease.cart.flush-interval-ms:2000}")
+    public void flushDirtyCarts() {
+        long idleBefore = System.currentTimeMillis() - idleEvictionMillis;
+        List<CartState> dirty = new ArrayList<>();
+        for (CartState state : carts.values()) {
+            // A cart being flushed by a checkout is skipped and picked up next time
+            if (state.isDirty() && state.flushLock.tryLock()) {
+                dirty.add(state);
+            } else if (state.lastAccess < idleBefore) {
+                state.lock.lock();
+                try {
+                    if (!state.isDirty() && state.lastAccess < idleBefore) {
+                        state.evicted = true;
+                        carts.remove(state.userId, state);
+                    }
+                } finally {
+                    state.lock.unlock();
+                }
+            }
+        }
+        if (!dirty.isEmpty()) {
+            try {
+                flush(dirty);
+            } catch (RuntimeException ex) {
+                System.err.println("❌ Cart flush failed, will retry: " + ex.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushDirtyCarts();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.getProduct().getId();
+        List<CartState> holding = new ArrayList<>();
+        for (CartState state : carts.values()) {
+            state.lock.lock();
+            try {
+                if (state.holds(productId)) {
+                    holding.add(state);
+                }
+            } finally {
+                state.lock.unlock();
+            }
+        }
+        if (holding.isEmpty()) {
+            return;
+        }
+
+        // Reload once with category and shop so every cart shows the current price and stock
+        Product fresh = event.getType() == ProductChangedEvent.Type.DELETED
+            ? null
+            : productRepository.findById(productId).orElse(null);
+        for (CartState state : holding) {
+            state.lock.lock();
+            try {
+                if (fresh == null) {
+                    if (state.lines.values().removeIf(line -> line.product.getId().equals(productId))) {
+                        state.version++;
+                    }
+                } else {
+                    for (CartLine line : state.lines.values()) {
+                        if (line.product.getId().equals(productId)) {
+                            line.product = fresh;
+                        }
+                    }
+                }
+            } finally {
+                state.lock.unlock();
+            }
+        }
+    }
+
+    // A change is only acknowledged once it is in the table. A cart stays dirty until a
+    // flush that picked up the change has committed, so this waits for one in progress
+    private <T> T written(Long userId, T result) {
+        CartState state = carts.get(userId);
+        if (state != null && state.isDirty()) {
+            flush(userId);
+        }
+        return result;
+    }
+
+    // Actions run under the state's lock and must not touch the database
+    private <T> T withState(Long userId, Function<CartState, T> action) {
+        while (true) {
+            CartState state = load(userId);
+            state.lock.lock();
+            try {
+                // An evicted state is no longer in the map; retry against a fresh one
+                if (!state.evicted) {
+                    state.touch();
+                    return action.apply(state);
+                }
+            } finally {
+                state.lock.unlock();
+            }
+        }
+    }
+
+    private CartItem increment(CartState state, Long productId, Integer quantity) {
+        for (CartLine line : state.lines.values()) {
+            if (line.product.getId().equals(productId)) {
+                line.quantity += quantity;
+                state.version++;
+                return line.toCartItem();
+            }
+        }
+        return null;
+    }
+
+    private void discard(Long userId, Collection<Long> cartItemIds) {
+        CartState state = carts.get(userId);
+        if (state != null) {
+            state.lock.lock();
+            try {
+                if (state.lines.keySet().removeAll(cartItemIds)) {
+                    state.version++;
+                }
+            } finally {
+                state.lock.unlock();
+            }
+        }
+    }
+
+    private CartState load(Long userId) {
+        CartState cached = carts.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        // Read outside computeIfAbsent, which would hold up other users' carts in the same
+        // bin for the length of the queries; if two requests race, the first one in wins
+        CartState state = new CartState(userId);
+        cartRepository.findByUserId(userId).ifPresentOrElse(cart -> {
+            state.cartId = cart.getId();
+            for (CartItem item : cartItemRepository.findByCartId(cart.getId())) {
+                state.lines.put(item.getId(), new CartLine(item.getId(), item.getProduct(), item.getQuantity()));
+                state.persisted.put(item.getId(), item.getQuantity());
+            }
+        }, () -> {
+            if (!userRepository.existsById(userId)) {
+                throw new RuntimeException("User not found with id: " + userId);
+            }
+        });
+        CartState existing = carts.putIfAbsent(userId, state);
+        return existing != null ? existing : state;
+    }
+
+    // Callers must hold each state's flushLock; it is released once the transaction completes
+    private void flush(Collection<CartState> states) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> {
+                List<Object[]> inserts = new ArrayList<>();
+                List<Object[]> updates = new ArrayList<>();
+                List<Object[]> deletes = new ArrayList<>();
+                Map<CartState, Snapshot> snapshots = new HashMap<>();
+
+                for (CartState state : states) {
+                    Snapshot snapshot;
+                    state.lock.lock();
+                    try {
+                        snapshot = new Snapshot(state.version, state.cartId, new LinkedHashMap<>());
+                        for (CartLine line : state.lines.values()) {
+                            snapshot.lines.put(line.id, new long[] { line.product.getId(), line.quantity });
+                        }
+                    } finally {
+                        state.lock.unlock();
+                    }
+                    for (Map.Entry<Long, Integer> persisted : state.persisted.entrySet()) {
+                        if (!snapshot.lines.containsKey(persisted.getKey())) {
+                            deletes.add(new Object[] { persisted.getKey() });
+                        }
+                    }
+                    if (snapshot.cartId == null && !snapshot.lines.isEmpty()) {
+                        Cart cart = new Cart();
+                        cart.setUser(userRepository.getReferenceById(state.userId));
+                        snapshot.cartId = cartRepository.save(cart).getId();
+                    }
+                    for (Map.Entry<Long, long[]> line : snapshot.lines.entrySet()) {
+                        Integer persistedQuantity = state.persisted.get(line.getKey());
+                        int quantity = (int) line.getValue()[1];
+                        if (persistedQuantity == null) {
+                            inserts.add(new Object[] { line.getKey(), snapshot.cartId, line.getValue()[0], quantity });
+                        } else if (persistedQuantity != quantity) {
+                            updates.add(new Object[] { quantity, line.getKey() });
+                        }
+                    }
+                    snapshots.put(state, snapshot);
+                }
+
+                if (!deletes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+                }
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+                }
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                }
+
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int completionStatus) {
+                        for (Map.Entry<CartState, Snapshot> entry : snapshots.entrySet()) {
+                            if (completionStatus == STATUS_COMMITTED) {
+                                entry.getKey().flushed(entry.getValue());
+                            }
+                        }
+                        unlockAll(states);
+                    }
+                });
+            });
+        } catch (RuntimeException ex) {
+            // Nothing was registered, so release the locks here
+            unlockAll(states);
+            throw ex;
+        }
+    }
+
+    private void unlockAll(Collection<CartState> states) {
+        for (CartState state : states) {
+            if (state.flushLock.isHeldByCurrentThread()) {
+                state.flushLock.unlock();
+            }
+        }
+    }
+
+    // New lines need a stable id before they reach the table. It comes from CartItem's own
+    // pooled sequence generator, so rows saved through JPA never get the same id, and only
+    // one call in allocationSize goes to the database
+    private long nextItemId() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return ((Number) itemIdGenerator.generate((SharedSessionContractImplementor) session, null)).longValue();
+        }
+    }
+
+    private static class CartState {
+        private final Long userId;
+        // Guards lines, cartId, version and evicted; never held across a database call
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, CartLine> lines = new LinkedHashMap<>();
+        // Quantities by item id as they are in cart_items; only touched under flushLock
+        private final Map<Long, Integer> persisted = new HashMap<>();
+        private final ReentrantLock flushLock = new ReentrantLock();
+        private Long cartId;
+        private long version;
+        private boolean evicted;
+        private volatile long flushedVersion;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private CartState(Long userId) {
+            this.userId = userId;
+        }
+
+        private void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+
+        private boolean isDirty() {
+            lock.lock();
+            try {
+                return version != flushedVersion;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean holds(Long productId) {
+            return lines.values().stream().anyMatch(line -> line.product.getId().equals(productId));
+        }
+
+        private void flushed(Snapshot snapshot) {
+            persisted.clear();
+            snapshot.lines.forEach((id, line) -> persisted.put(id, (int) line[1]));
+            lock.lock();
+            try {
+                cartId = snapshot.cartId;
+                flushedVersion = snapshot.version;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static class CartLine {
+        private final Long id;
+        private Product product;
+        private int quantity;
+
+        private CartLine(Long id, Product product, int quantity) {
+            this.id = id;
+            this.product = product;
+            this.quantity = quantity;
+        }
+
+        private CartItem toCartItem() {
+            return new CartItem(id, null, product, quantity);
+        }
+    }
+
+    private static class Snapshot {
+        private final long version;
+        private Long cartId;
+        // Item id to {product id, quantity}
+        private final Map<Long, long[]> lines;
+
+        private Snapshot(long version, Long cartId, Map<Long, long[]> lines) {
+            this.version = version;
+            this.cartId = cartId;
+            this.lines = lines;
+        }
+    }
+}
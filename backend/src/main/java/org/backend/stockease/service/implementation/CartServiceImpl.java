@@ -1,114 +1,41 @@
 package org.backend.stockease.service.implementation;
 
-import org.backend.stockease.entity.Cart;
 import org.backend.stockease.entity.CartItem;
-import org.backend.stockease.entity.Product;
-import org.backend.stockease.repository.CartItemRepository;
-import org.backend.stockease.repository.CartRepository;
-import org.backend.stockease.repository.ProductRepository;
-import org.backend.stockease.repository.UserRepository;
 import org.backend.stockease.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
 
 @Service
 public class CartServiceImpl implements CartService {
     
+    // Carts are served from memory and written behind, see CartEngine
     @Autowired
-    private CartRepository cartRepository;
-    
-    @Autowired
-    private CartItemRepository cartItemRepository;
-    
-    @Autowired
-    private UserRepository userRepository;
-    
-    @Autowired
-    private ProductRepository productRepository;
+    private CartEngine cartEngine;
 
     @Override
     public List<CartItem> getCartItems(Long userId) {
-        Cart cart = cartRepository.findByUserId(userId)
-            .orElseGet(() -> {
-                Cart newCart = new Cart();
-                newCart.setUser(userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found with id: " + userId)));
-                return cartRepository.save(newCart);
-            });
-        return cartItemRepository.findByCartId(cart.getId());
+        return cartEngine.getItems(userId);
     }
 
     @Override
-    @Transactional
     public CartItem addToCart(Long userId, Long productId, Integer quantity) {
-        // Validate user exists
-        if (!userRepository.existsById(userId)) {
-            throw new RuntimeException("User not found with id: " + userId);
-        }
-        
-        Cart cart = cartRepository.findByUserId(userId)
-            .orElseGet(() -> {
-                Cart newCart = new Cart();
-                newCart.setUser(userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found with id: " + userId)));
-                return cartRepository.save(newCart);
-            });
-        
-        Product product = productRepository.findById(productId)
-            .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
-        
-        Optional<CartItem> existingItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId);
-        
-        if (existingItem.isPresent()) {
-            CartItem item = existingItem.get();
-            item.setQuantity(item.getQuantity() + quantity);
-            return cartItemRepository.save(item);
-        } else {
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setProduct(product);
-            newItem.setQuantity(quantity);
-            return cartItemRepository.save(newItem);
-        }
+        return cartEngine.add(userId, productId, quantity);
     }
 
     @Override
-    @Transactional
     public void removeFromCart(Long userId, Long cartItemId) {
-        CartItem item = cartItemRepository.findById(cartItemId)
-            .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        
-        if (!item.getCart().getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized");
-        }
-        
-        cartItemRepository.delete(item);
+        cartEngine.remove(userId, cartItemId);
     }
 
     @Override
-    @Transactional
     public CartItem updateCartItem(Long userId, Long cartItemId, Integer quantity) {
-        CartItem item = cartItemRepository.findById(cartItemId)
-            .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        
-        if (!item.getCart().getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized");
-        }
-        
-        item.setQuantity(quantity);
-        return cartItemRepository.save(item);
+        return cartEngine.update(userId, cartItemId, quantity);
     }
 
     @Override
-    @Transactional
     public void clearCart(Long userId) {
-        Cart cart = cartRepository.findByUserId(userId)
-            .orElseThrow(() -> new RuntimeException("Cart not found"));
-        cartItemRepository.deleteByCartId(cart.getId());
+        cartEngine.clear(userId);
     }
 }
-
@@ -0,0 +1,222 @@
+package org.backend.stockease.service.implementation;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.backend.stockease.dto.CacheStatistics;
+import org.backend.stockease.dto.CursorPage;
+import org.backend.stockease.dto.ProductSummary;
+import org.backend.stockease.entity.Category;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.event.ProductChangedEvent;
+import org.backend.stockease.event.ShopChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Serialized JSON of the public catalog listings. Entries remember which products
+ * and shops they contain (and, for keyset pages, which id range they cover), so a
+ * product or shop change evicts only the listings it can affect. Bounded by a
+ * W-TinyLFU size limit with a TTL per kind of listing.
+ */
+@Component
+public class CatalogCache {
+
+    public static final String ALL_PRODUCTS = "products:all";
+    public static final String BESTSELLERS = "products:bestsellers";
+    public static final String CATEGORIES = "categories:all";
+    private static final String BESTSELLERS_CATEGORY_PREFIX = "products:bestsellers:category:";
+    private static final String BESTSELLERS_SHOP_PREFIX = "products:bestsellers:shop:";
+    private static final String CATEGORY_PREFIX = "products:category:";
+    private static final String PAGE_PREFIX = "products:page:";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${stockease.catalog-cache.max-entries:500}")
+    private long maxEntries;
+
+    @Value("${stockease.catalog-cache.listing-ttl-ms:60000}")
+    private long listingTtlMillis;
+
+    @Value("${stockease.catalog-cache.categories-ttl-ms:600000}")
+    private long categoriesTtlMillis;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private Cache<String, Entry> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfter(new Expiry<String, Entry>() {
+                @Override
+                public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                    return entry.ttlNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                    return entry.ttlNanos;
+                }
+
+                @Override
+                public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+    }
+
+    public static String categoryKey(Long categoryId) {
+        return CATEGORY_PREFIX + categoryId;
+    }
+
+    public static String bestSellersInCategoryKey(Long categoryId) {
+        return BESTSELLERS_CATEGORY_PREFIX + categoryId;
+    }
+
+    public static String bestSellersOfShopKey(Long shopId) {
+        return BESTSELLERS_SHOP_PREFIX + shopId;
+    }
+
+    public byte[] getProducts(String key, Supplier<List<Product>> loader) {
+        return cache.get(key, k -> {
+            List<Product> products = loader.get();
+            Entry entry = new Entry(serialize(products), listingTtlMillis);
+            for (Product product : products) {
+                entry.productIds.add(product.getId());
+                if (product.getShop() != null) {
+                    entry.shopIds.add(product.getShop().getId());
+                }
+            }
+            return entry;
+        }).json;
+    }
+
+    public byte[] getProductPage(Long after, Integer limit, Supplier<CursorPage<ProductSummary>> loader) {
+        long from = after != null ? after : 0L;
+        String key = PAGE_PREFIX + from + ":" + CursorPage.clampLimit(limit);
+        return cache.get(key, k -> {
+            CursorPage<ProductSummary> page = loader.get();
+            Entry entry = new Entry(serialize(page), listingTtlMillis);
+            for (ProductSummary product : page.getItems()) {
+                entry.productIds.add(product.getId());
+                if (product.getShopId() != null) {
+                    entry.shopIds.add(product.getShopId());
+                }
+            }
+            // A new product falls into this page if its id is inside the range it covers
+            entry.idFrom = from;
+            entry.idTo = Boolean.TRUE.equals(page.getHasMore()) ? page.getNextCursor() : Long.MAX_VALUE;
+            return entry;
+        }).json;
+    }
+
+    public byte[] getCategories(Supplier<List<Category>> loader) {
+        return cache.get(CATEGORIES, k -> new Entry(serialize(loader.get()), categoriesTtlMillis)).json;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        Long productId = product.getId();
+        boolean listed = event.getType() != ProductChangedEvent.Type.DELETED
+            && Boolean.TRUE.equals(product.getIsActive());
+        Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+
+        invalidateWhere((key, entry) -> {
+            // Listings that show the product now, plus the ones it is joining
+            if (entry.productIds.contains(productId)) {
+                return true;
+            }
+            if (!listed) {
+                return false;
+            }
+            return key.equals(ALL_PRODUCTS)
+                || (key.equals(BESTSELLERS) && Boolean.TRUE.equals(product.getIsBestSeller()))
+                || (categoryId != null && key.equals(categoryKey(categoryId)))
+                || (key.startsWith(PAGE_PREFIX) && productId > entry.idFrom && productId <= entry.idTo);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShopChanged(ShopChangedEvent event) {
+        Long shopId = event.getShopId();
+        invalidateWhere((key, entry) -> entry.shopIds.contains(shopId));
+    }
+
+    /**
+     * Called when the sales ranking has moved.
+     */
+    public void invalidateBestSellers() {
+        invalidateWhere((key, entry) -> key.startsWith(BESTSELLERS));
+    }
+
+    public void invalidateAll() {
+        invalidations.addAndGet(cache.estimatedSize());
+        cache.invalidateAll();
+    }
+
+    public CacheStatistics getStatistics() {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics("catalog", cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+            stats.hitRate(), stats.evictionCount(), invalidations.get());
+    }
+
+    private void invalidateWhere(KeyEntryPredicate predicate) {
+        Set<String> keys = new HashSet<>();
+        cache.asMap().forEach((key, entry) -> {
+            if (predicate.test(key, entry)) {
+                keys.add(key);
+            }
+        });
+        if (!keys.isEmpty()) {
+            invalidations.addAndGet(keys.size());
+            cache.invalidateAll(keys);
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize catalog listing", e);
+        }
+    }
+
+    private interface KeyEntryPredicate {
+        boolean test(String key, Entry entry);
+    }
+
+    private static class Entry {
+        private final byte[] json;
+        private final long ttlNanos;
+        private final Set<Long> productIds = new HashSet<>();
+        private final Set<Long> shopIds = new HashSet<>();
+        private long idFrom;
+        private long idTo;
+
+        private Entry(byte[] json, long ttlMillis) {
+            this.json = json;
+            this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.backend.stockease.service.implementation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.backend.stockease.service.InventoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stock reservation through conditional in-place updates. A product is only
+ * decremented when enough stock is left, so concurrent checkouts never read and
+ * rewrite the stock column and it can never go negative. All rows of a cart are
+ * sent as one JDBC batch; if any of them could not be reserved an exception is
+ * thrown and the surrounding transaction rolls back the others.
+ *
+ * Both directions report the products whose stock crossed zero, read back while
+ * the rows are still locked by the update, so callers can keep the in-stock
+ * counters of the shop statistics in step.
+ */
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    private static final String RESERVE_SQL = "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?";
+    private static final String RELEASE_SQL = "UPDATE products SET stock = stock + ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public List<Long> reserve(Map<Long, Integer> quantitiesByProductId) {
+        // Lock rows in id order so two carts with the same products cannot deadlock
+        List<Map.Entry<Long, Integer>> rows = new ArrayList<>(new TreeMap<>(quantitiesByProductId).entrySet());
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Map.Entry<Long, Integer> row : rows) {
+            args.add(new Object[] { row.getValue(), row.getKey(), row.getValue() });
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(RESERVE_SQL, args);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new RuntimeException("Insufficient stock for product with id: " + rows.get(i).getKey());
+            }
+        }
+        // Every row had at least the quantity left, so one at zero now was emptied by this call
+        return crossedZero(quantitiesByProductId, true);
+    }
+
+    @Override
+    @Transactional
+    public List<Long> release(Map<Long, Integer> quantitiesByProductId) {
+        List<Object[]> args = new ArrayList<>(quantitiesByProductId.size());
+        for (Map.Entry<Long, Integer> row : new TreeMap<>(quantitiesByProductId).entrySet()) {
+            args.add(new Object[] { row.getValue(), row.getKey() });
+        }
+        jdbcTemplate.batchUpdate(RELEASE_SQL, args);
+        // A row holding exactly what was put back was at zero before
+        return crossedZero(quantitiesByProductId, false);
+    }
+
+    private List<Long> crossedZero(Map<Long, Integer> quantitiesByProductId, boolean reserved) {
+        if (quantitiesByProductId.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(quantitiesByProductId.size(), "?"));
+        List<Long> crossed = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, stock FROM products WHERE id IN (" + placeholders + ")", rs -> {
+            long productId = rs.getLong(1);
+            int stock = rs.getInt(2);
+            if (stock == (reserved ? 0 : quantitiesByProductId.get(productId))) {
+                crossed.add(productId);
+            }
+        }, quantitiesByProductId.keySet().toArray());
+        return crossed;
+    }
+}
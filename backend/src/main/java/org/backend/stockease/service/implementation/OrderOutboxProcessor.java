@@ -0,0 +1,280 @@
+package org.backend.stockease.service.implementation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.backend.stockease.entity.Delivery;
+import org.backend.stockease.entity.Order;
+import org.backend.stockease.entity.OrderOutbox;
+import org.backend.stockease.entity.enums.DeliveryStatus;
+import org.backend.stockease.entity.enums.OutboxStatus;
+import org.backend.stockease.repository.CartItemRepository;
+import org.backend.stockease.repository.DeliveryRepository;
+import org.backend.stockease.repository.OrderOutboxRepository;
+import org.backend.stockease.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Finishes checkouts outside the checkout transaction. createOrder only writes
+ * the order, its items and an {@link OrderOutbox} entry; once that commits the
+ * entry goes to a small fixed pool of workers, which add the shop revenue,
+ * create the delivery and delete the ordered cart items, each step in its own
+ * transaction. Failed entries are retried with exponential backoff by a poller
+ * that also picks up whatever a restart left behind.
+ */
+@Component
+public class OrderOutboxProcessor {
+
+    private static final long MAX_BACKOFF_MILLIS = 300000;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ShopRevenueCounter shopRevenueCounter;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CartEngine cartEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${stockease.outbox.workers:4}")
+    private int workers;
+
+    @Value("${stockease.outbox.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${stockease.outbox.dispatch-on-commit:true}")
+    private boolean dispatchOnCommit;
+
+    @Value("${stockease.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${stockease.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "order-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Queued entries stay PENDING in the table and are picked up after the restart
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes the entry in the caller's (checkout) transaction and hands it to the
+     * workers once that commits.
+     */
+    public void enqueue(Order order, Long userId, String address, Map<Long, BigDecimal> shopRevenue, List<Long> cartItemIds) {
+        OrderOutbox entry = new OrderOutbox();
+        entry.setOrderId(order.getId());
+        entry.setUserId(userId);
+        entry.setOrderNumber(order.getOrderNumber());
+        entry.setAddress(address);
+        entry.setShopRevenue(shopRevenue.entrySet().stream()
+            .map(shop -> shop.getKey() + "=" + shop.getValue().toPlainString())
+            .collect(Collectors.joining(",")));
+        entry.setCartItemIds(cartItemIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        entry.setCreatedAt(order.getOrderDate());
+        Long id = outboxRepository.save(entry).getId();
+
+        if (dispatchOnCommit && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Cart items that earlier checkouts of the user ordered but that are still in
+     * cart_items because their entry has not been processed yet.
+     */
+    public Set<Long> cartItemsAwaitingCleanup(Long userId) {
+        Set<Long> ids = new HashSet<>();
+        for (String cartItemIds : outboxRepository.findUnclearedCartItemIds(userId)) {
+            ids.addAll(parseIds(cartItemIds));
+        }
+        return ids;
+    }
+
+    @Scheduled(initialDelayString = "${stockease.outbox.poll-interval-ms:5000}",
+               fixedDelayString = "${stockease.outbox.poll-interval-ms:5000}")
+    public void dispatchDue() {
+        for (Long id : outboxRepository.findDueIds(LocalDateTime.now(), PageRequest.of(0, batchSize))) {
+            dispatch(id);
+        }
+    }
+
+    /**
+     * Runs every step the entry still needs, then marks it done. Safe to call
+     * again for the same entry, from any thread or instance.
+     */
+    public void process(Long id) {
+        // Read in a read-write transaction so it comes from the primary, never a lagging replica
+        OrderOutbox entry = transaction.execute(status -> outboxRepository.findById(id).orElse(null));
+        if (entry == null || entry.getStatus() != OutboxStatus.PENDING) {
+            return;
+        }
+        try {
+            if (!entry.getShopCountersApplied()) {
+                transaction.executeWithoutResult(status -> applyShopCounters(entry));
+            }
+            if (!entry.getDeliveryCreated()) {
+                transaction.executeWithoutResult(status -> createDelivery(entry));
+            }
+            if (!entry.getCartCleared()) {
+                transaction.executeWithoutResult(status -> clearCart(entry));
+            }
+            transaction.executeWithoutResult(status -> outboxRepository.finish(id, OutboxStatus.DONE, LocalDateTime.now()));
+        } catch (RuntimeException ex) {
+            recordFailure(entry, ex);
+        }
+    }
+
+    private void dispatch(Long id) {
+        if (!inFlight.add(id)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(id);
+                } finally {
+                    inFlight.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Queue full or shutting down: the entry stays due and the poller tries again
+            inFlight.remove(id);
+        }
+    }
+
+    private void applyShopCounters(OrderOutbox entry) {
+        if (outboxRepository.claimShopCounters(entry.getId()) == 0) {
+            return;
+        }
+        for (Map.Entry<Long, BigDecimal> shop : parseRevenue(entry.getShopRevenue()).entrySet()) {
+            shopRevenueCounter.add(shop.getKey(), shop.getValue());
+        }
+    }
+
+    private void createDelivery(OrderOutbox entry) {
+        if (outboxRepository.claimDelivery(entry.getId()) == 0) {
+            return;
+        }
+        Delivery delivery = new Delivery();
+        delivery.setOrder(orderRepository.getReferenceById(entry.getOrderId()));
+        delivery.setStatus(DeliveryStatus.PENDING);
+        delivery.setTrackingNumber("TRK" + entry.getOrderNumber());
+        delivery.setAddress(entry.getAddress());
+        delivery.setEstimatedDeliveryDate(entry.getCreatedAt().plusDays(5));
+        deliveryRepository.save(delivery);
+    }
+
+    private void clearCart(OrderOutbox entry) {
+        if (outboxRepository.claimCartCleanup(entry.getId()) == 0) {
+            return;
+        }
+        List<Long> cartItemIds = parseIds(entry.getCartItemIds());
+        if (!cartItemIds.isEmpty()) {
+            cartItemRepository.deleteAllByIdInBatch(cartItemIds);
+        }
+        cartEngine.checkedOut(entry.getUserId(), cartItemIds);
+    }
+
+    private void recordFailure(OrderOutbox entry, RuntimeException ex) {
+        int attempts = entry.getAttempts() + 1;
+        boolean giveUp = attempts >= maxAttempts;
+        long backoffMillis = Math.min(1000L << Math.min(attempts, 20), MAX_BACKOFF_MILLIS);
+        String error = String.valueOf(ex.getMessage());
+        try {
+            transaction.executeWithoutResult(status -> outboxRepository.recordFailure(entry.getId(),
+                giveUp ? OutboxStatus.FAILED : OutboxStatus.PENDING,
+                LocalDateTime.now().plusNanos(backoffMillis * 1_000_000),
+                error.length() > 1000 ? error.substring(0, 1000) : error));
+        } catch (RuntimeException recordEx) {
+            // Still PENDING and due, so the poller retries it anyway
+            System.err.println("❌ Could not record outbox failure for order " + entry.getOrderNumber() + ": " + recordEx.getMessage());
+        }
+        if (giveUp) {
+            System.err.println("❌ Giving up on post-checkout work for order " + entry.getOrderNumber()
+                + " after " + attempts + " attempts: " + error);
+        } else {
+            System.err.println("⚠️ Post-checkout work for order " + entry.getOrderNumber() + " failed (attempt "
+                + attempts + "), retrying in " + backoffMillis + " ms: " + error);
+        }
+    }
+
+    // Sorted by shop so concurrent workers lock counter rows in the same order
+    private static Map<Long, BigDecimal> parseRevenue(String value) {
+        Map<Long, BigDecimal> revenue = new TreeMap<>();
+        if (value != null && !value.isEmpty()) {
+            for (String pair : value.split(",")) {
+                int separator = pair.indexOf('=');
+                revenue.put(Long.valueOf(pair.substring(0, separator)), new BigDecimal(pair.substring(separator + 1)));
+            }
+        }
+        return revenue;
+    }
+
+    private static List<Long> parseIds(String value) {
+        List<Long> ids = new ArrayList<>();
+        if (value != null && !value.isEmpty()) {
+            for (String id : value.split(",")) {
+                ids.add(Long.valueOf(id));
+            }
+        }
+        return ids;
+    }
+}
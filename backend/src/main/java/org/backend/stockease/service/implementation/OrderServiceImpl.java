@@ -2,28 +2,34 @@ package org.backend.stockease.service.implementation;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import org.backend.stockease.config.ReadYourWrites;
+import org.backend.stockease.dto.CursorPage;
+import org.backend.stockease.dto.OrderSummary;
 import org.backend.stockease.entity.Cart;
 import org.backend.stockease.entity.CartItem;
-import org.backend.stockease.entity.Delivery;
 import org.backend.stockease.entity.Order;
 import org.backend.stockease.entity.OrderItem;
-import org.backend.stockease.entity.Shop;
 import org.backend.stockease.entity.User;
-import org.backend.stockease.entity.enums.DeliveryStatus;
 import org.backend.stockease.entity.enums.OrderStatus;
 import org.backend.stockease.repository.CartItemRepository;
 import org.backend.stockease.repository.CartRepository;
 import org.backend.stockease.repository.DeliveryRepository;
-import org.backend.stockease.repository.OrderItemRepository;
+import org.backend.stockease.repository.OrderOutboxRepository;
 import org.backend.stockease.repository.OrderRepository;
-import org.backend.stockease.repository.ShopRepository;
 import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.service.InventoryService;
 import org.backend.stockease.service.OrderService;
+import org.backend.stockease.service.ShopStatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,13 +49,34 @@ public class OrderServiceImpl implements OrderService {
     private CartItemRepository cartItemRepository;
     
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    private InventoryService inventoryService;
     
+    @Autowired
+    private CartEngine cartEngine;
+    
+    @Autowired
+    private ReadYourWrites readYourWrites;
+    
+    @Autowired
+    private OrderOutboxProcessor outboxProcessor;
+    
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
     @Autowired
     private DeliveryRepository deliveryRepository;
     
     @Autowired
-    private ShopRepository shopRepository;
+    private ShopRevenueCounter shopRevenueCounter;
+    
+    @Autowired
+    private ShopStatisticsService shopStatisticsService;
+    
+    @Autowired
+    private BestSellerEngine bestSellerEngine;
+
+    @Autowired
+    private ShopQuotas shopQuotas;
 
     @Override
     @Transactional
@@ -57,85 +84,159 @@ public class OrderServiceImpl implements OrderService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
+        // Write pending cart changes in this transaction so the order matches what the user saw
+        cartEngine.flush(userId);
+        
         Cart cart = cartRepository.findByUserId(userId)
             .orElseThrow(() -> new RuntimeException("Cart is empty"));
         
-        List<CartItem> cartItems = cartItemRepository.findByCartId(cart.getId());
+        // Products and their shops come back in the same query as the cart items; lines an
+        // earlier checkout ordered stay in the table until the outbox clears them
+        List<CartItem> cartItems = cartItemRepository.findByCartIdWithProducts(cart.getId());
+        Set<Long> alreadyOrdered = outboxProcessor.cartItemsAwaitingCleanup(userId);
+        if (!alreadyOrdered.isEmpty()) {
+            cartItems.removeIf(cartItem -> alreadyOrdered.contains(cartItem.getId()));
+        }
         if (cartItems.isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
         
-        // Calculate total amount first
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        for (CartItem cartItem : cartItems) {
-            totalAmount = totalAmount.add(cartItem.getProduct().getPrice()
-                .multiply(BigDecimal.valueOf(cartItem.getQuantity())));
-        }
-        
-        // Create and save Order first
         Order order = new Order();
         order.setOrderNumber(UUID.randomUUID().toString().substring(0, 8).toUpperCase());
         order.setUser(user);
         // Use PENDING status (maps to "Ordered" in UI) since database constraint doesn't include ORDERED yet
         order.setStatus(OrderStatus.PENDING);
         order.setOrderDate(LocalDateTime.now());
-        order.setTotalAmount(totalAmount);
         order.setDeliveryOption(deliveryOption != null ? deliveryOption : "standard");
-        order = orderRepository.save(order); // Save order first to get an ID
         
-        // Now create and save OrderItems with the persisted Order
-        // Track shop revenue as we process items
-        java.util.Map<Long, BigDecimal> shopRevenueMap = new java.util.HashMap<>();
-        java.util.Map<Long, Integer> shopOrderCountMap = new java.util.HashMap<>();
+        // Build the items and the per-shop revenue in one pass
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        List<OrderItem> orderItems = new ArrayList<>(cartItems.size());
+        List<Long> cartItemIds = new ArrayList<>(cartItems.size());
+        Map<Long, BigDecimal> shopRevenueMap = new HashMap<>();
+        Map<Long, Integer> reservedQuantities = new HashMap<>();
+        Map<Long, Long> shopByProduct = new HashMap<>();
         
         for (CartItem cartItem : cartItems) {
+            BigDecimal itemRevenue = cartItem.getProduct().getPrice()
+                .multiply(BigDecimal.valueOf(cartItem.getQuantity()));
+            totalAmount = totalAmount.add(itemRevenue);
+            
             OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order); // Now order has an ID
+            orderItem.setOrder(order);
             orderItem.setProduct(cartItem.getProduct());
             orderItem.setQuantity(cartItem.getQuantity());
             orderItem.setPrice(cartItem.getProduct().getPrice());
-            orderItemRepository.save(orderItem);
+            orderItems.add(orderItem);
+            reservedQuantities.merge(cartItem.getProduct().getId(), cartItem.getQuantity(), Integer::sum);
+            cartItemIds.add(cartItem.getId());
             
-            // Track revenue by shop
             if (cartItem.getProduct().getShop() != null) {
-                Long shopId = cartItem.getProduct().getShop().getId();
-                BigDecimal itemRevenue = cartItem.getProduct().getPrice()
-                    .multiply(BigDecimal.valueOf(cartItem.getQuantity()));
-                shopRevenueMap.merge(shopId, itemRevenue, BigDecimal::add);
-                shopOrderCountMap.merge(shopId, 1, Integer::sum);
+                shopRevenueMap.merge(cartItem.getProduct().getShop().getId(), itemRevenue, BigDecimal::add);
+                shopByProduct.put(cartItem.getProduct().getId(), cartItem.getProduct().getShop().getId());
             }
         }
+        order.setTotalAmount(totalAmount);
+        order.setItems(orderItems);
         
-        // Update shop revenue and order counts
-        for (java.util.Map.Entry<Long, BigDecimal> entry : shopRevenueMap.entrySet()) {
-            Shop shop = shopRepository.findById(entry.getKey()).orElse(null);
-            if (shop != null) {
-                shop.setTotalRevenue(shop.getTotalRevenue().add(entry.getValue()));
-                shop.setTotalOrders(shop.getTotalOrders() + 1);
-                shopRepository.save(shop);
-            }
+        // Counts against each shop's monthly order limit; undone if the checkout rolls back
+        for (Long shopId : shopRevenueMap.keySet()) {
+            shopQuotas.reserveOrder(shopId);
         }
         
-        // Create delivery
-        Delivery delivery = new Delivery();
-        delivery.setOrder(order);
-        delivery.setStatus(DeliveryStatus.PENDING);
-        delivery.setTrackingNumber("TRK" + order.getOrderNumber());
-        delivery.setAddress(address);
-        delivery.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(5));
-        deliveryRepository.save(delivery);
+        // Items cascade from the order; with sequence ids they are written as JDBC
+        // batches when the transaction flushes
+        order = orderRepository.save(order);
+        
+        // Shop counters, the delivery and the cart cleanup run after commit on the outbox
+        // workers, so concurrent checkouts for the same shop never wait on its row here
+        outboxProcessor.enqueue(order, userId, address, shopRevenueMap, cartItemIds);
+        cartEngine.checkedOut(userId, cartItemIds);
+        bestSellerEngine.recordOrder(orderItems);
         
-        // Clear cart
-        cartItemRepository.deleteByCartId(cart.getId());
+        // Reserve stock last so hot product rows stay locked for as little time as
+        // possible; a shortfall rolls back the whole checkout
+        List<Long> soldOut = inventoryService.reserve(reservedQuantities);
+        adjustInStockCounts(soldOut, shopByProduct, -1);
+        
+        // The buyer's next reads (order history, tracking) must not hit a replica that lacks this order
+        readYourWrites.markWrite();
         
         return order;
     }
 
+    @Override
+    @Transactional
+    public Optional<Order> cancelOrder(Long orderId) {
+        // The status moves in one conditional UPDATE before anything is read, so of two
+        // concurrent cancels (or a cancel racing the shipment) only one goes on to undo the order
+        boolean cancelled = orderRepository.cancelIfNotShipped(orderId) == 1;
+        return orderRepository.findById(orderId).map(order -> {
+            if (!cancelled) {
+                if (order.getStatus() == OrderStatus.CANCELLED) {
+                    return order;
+                }
+                throw new RuntimeException("Order has already been shipped and can no longer be cancelled");
+            }
+            
+            Map<Long, Integer> releasedQuantities = new HashMap<>();
+            Map<Long, BigDecimal> shopRevenueMap = new HashMap<>();
+            Map<Long, Long> shopByProduct = new HashMap<>();
+            for (OrderItem item : order.getItems()) {
+                releasedQuantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+                if (item.getProduct().getShop() != null) {
+                    shopRevenueMap.merge(item.getProduct().getShop().getId(),
+                        item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())), BigDecimal::add);
+                    shopByProduct.put(item.getProduct().getId(), item.getProduct().getShop().getId());
+                }
+            }
+            List<Long> restocked = inventoryService.release(releasedQuantities);
+            bestSellerEngine.recordCancellation(order.getItems(), order.getOrderDate());
+            adjustInStockCounts(restocked, shopByProduct, 1);
+            for (Long shopId : shopRevenueMap.keySet()) {
+                shopQuotas.orderCancelled(shopId, order.getOrderDate());
+            }
+            
+            // Counters the outbox has not applied yet are claimed so it never applies them;
+            // otherwise the order is taken back out of each shop's revenue and order count
+            if (outboxRepository.claimShopCountersOfOrder(orderId) == 0) {
+                for (Map.Entry<Long, BigDecimal> shop : shopRevenueMap.entrySet()) {
+                    shopRevenueCounter.subtract(shop.getKey(), shop.getValue(), order.getOrderDate().toLocalDate());
+                }
+            }
+            // Same for the delivery: never created if the outbox has not got to it, cancelled if it has
+            if (outboxRepository.claimDeliveryOfOrder(orderId) == 0) {
+                deliveryRepository.cancelPendingOfOrder(orderId);
+            }
+            return order;
+        });
+    }
+
+    // Shop statistics count in-stock products; orders that empty or refill one move that count
+    private void adjustInStockCounts(List<Long> productIds, Map<Long, Long> shopByProduct, int delta) {
+        Map<Long, Integer> perShop = new HashMap<>();
+        for (Long productId : productIds) {
+            Long shopId = shopByProduct.get(productId);
+            if (shopId != null) {
+                perShop.merge(shopId, delta, Integer::sum);
+            }
+        }
+        perShop.forEach(shopStatisticsService::inStockChanged);
+    }
+
     @Override
     public List<Order> getUserOrders(Long userId) {
         return orderRepository.findByUserId(userId);
     }
 
+    @Override
+    public CursorPage<OrderSummary> getUserOrderPage(Long userId, Long after, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<OrderSummary> rows = orderRepository.findUserSummariesBefore(
+            userId, after != null ? after : Long.MAX_VALUE, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, OrderSummary::getId);
+    }
+
     @Override
     public Optional<Order> getOrderByNumber(String orderNumber) {
         return orderRepository.findByOrderNumber(orderNumber);
@@ -0,0 +1,163 @@
+package org.backend.stockease.service.implementation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.backend.stockease.dto.PlatformStatisticsResponse;
+import org.backend.stockease.dto.SalesAggregate;
+import org.backend.stockease.dto.ShopSubscriptionTerm;
+import org.backend.stockease.entity.PlatformDailyRollup;
+import org.backend.stockease.entity.PlatformMonthlyRollup;
+import org.backend.stockease.repository.OrderRepository;
+import org.backend.stockease.repository.PlatformDailyRollupRepository;
+import org.backend.stockease.repository.PlatformMonthlyRollupRepository;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.service.PlatformStatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Platform statistics built from aggregate queries. Sales figures for closed days
+ * are read from the monthly rollups; only orders placed since the last rolled-up
+ * day are aggregated live, so the cost does not grow with the order history.
+ */
+@Service
+public class PlatformStatisticsServiceImpl implements PlatformStatisticsService {
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformDailyRollupRepository dailyRollupRepository;
+
+    @Autowired
+    private PlatformMonthlyRollupRepository monthlyRollupRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public PlatformStatisticsResponse getPlatformStatistics() {
+        long totalShops = shopRepository.count();
+        long activeShops = shopRepository.countActiveShops();
+        BigDecimal monthlySubscriptionRevenue = shopRepository.calculateTotalMonthlyRevenue();
+
+        // Total subscription revenue (all time - approximate)
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal totalSubscriptionRevenue = BigDecimal.ZERO;
+        for (ShopSubscriptionTerm term : shopRepository.findActiveSubscriptionTerms()) {
+            LocalDateTime end = term.getSubscriptionEndDate() == null || term.getSubscriptionEndDate().isAfter(now)
+                ? now
+                : term.getSubscriptionEndDate();
+            long monthsActive = ChronoUnit.MONTHS.between(term.getSubscriptionStartDate(), end);
+            totalSubscriptionRevenue = totalSubscriptionRevenue.add(
+                term.getMonthlyPrice().multiply(BigDecimal.valueOf(Math.max(1, monthsActive))));
+        }
+
+        long totalUsers = userRepository.count();
+        long totalProducts = productRepository.count();
+        long totalOrders = orderRepository.count();
+
+        // Closed days come from the rollups, the open tail is aggregated live
+        SalesAggregate rolledUp = monthlyRollupRepository.aggregateAll();
+        SalesAggregate live = orderRepository.aggregateSince(rollupWatermark().atStartOfDay());
+        BigDecimal totalSalesRevenue = rolledUp.getSalesRevenue().add(live.getSalesRevenue());
+
+        return new PlatformStatisticsResponse(
+            totalShops,
+            activeShops,
+            totalSubscriptionRevenue,
+            monthlySubscriptionRevenue,
+            totalUsers,
+            totalProducts,
+            totalOrders,
+            totalSalesRevenue
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PlatformDailyRollup> getDailyRollups(int days) {
+        return dailyRollupRepository.findByRollupDateGreaterThanEqualOrderByRollupDateAsc(
+            LocalDate.now().minusDays(days));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PlatformMonthlyRollup> getMonthlyRollups() {
+        return monthlyRollupRepository.findAllByOrderByRollupMonthAsc();
+    }
+
+    /**
+     * Rolls up every closed day (up to yesterday) not yet present in the daily table,
+     * then rebuilds the monthly rows those days belong to.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${stockease.statistics.rollup-initial-delay-ms:60000}",
+               fixedDelayString = "${stockease.statistics.rollup-interval-ms:300000}")
+    @Transactional
+    public void refreshRollups() {
+        LocalDate today = LocalDate.now();
+        LocalDate day = rollupWatermark();
+        LocalDate touchedMonth = null;
+
+        while (day.isBefore(today)) {
+            SalesAggregate aggregate = orderRepository.aggregateBetween(
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+
+            PlatformDailyRollup rollup = dailyRollupRepository.findByRollupDate(day)
+                .orElseGet(PlatformDailyRollup::new);
+            rollup.setRollupDate(day);
+            rollup.setTotalOrders(aggregate.getTotalOrders());
+            rollup.setSalesRevenue(aggregate.getSalesRevenue());
+            dailyRollupRepository.save(rollup);
+
+            LocalDate month = day.withDayOfMonth(1);
+            if (touchedMonth != null && !touchedMonth.equals(month)) {
+                refreshMonth(touchedMonth);
+            }
+            touchedMonth = month;
+            day = day.plusDays(1);
+        }
+
+        if (touchedMonth != null) {
+            refreshMonth(touchedMonth);
+        }
+    }
+
+    private void refreshMonth(LocalDate month) {
+        SalesAggregate aggregate = dailyRollupRepository.aggregateBetween(month, month.plusMonths(1));
+        PlatformMonthlyRollup rollup = monthlyRollupRepository.findByRollupMonth(month)
+            .orElseGet(PlatformMonthlyRollup::new);
+        rollup.setRollupMonth(month);
+        rollup.setTotalOrders(aggregate.getTotalOrders());
+        rollup.setSalesRevenue(aggregate.getSalesRevenue());
+        monthlyRollupRepository.save(rollup);
+    }
+
+    /**
+     * First day that has not been rolled up yet.
+     */
+    private LocalDate rollupWatermark() {
+        return dailyRollupRepository.findTopByOrderByRollupDateDesc()
+            .map(rollup -> rollup.getRollupDate().plusDays(1))
+            .orElseGet(() -> {
+                LocalDateTime earliest = orderRepository.findEarliestOrderDate();
+                return earliest != null ? earliest.toLocalDate() : LocalDate.now();
+            });
+    }
+}
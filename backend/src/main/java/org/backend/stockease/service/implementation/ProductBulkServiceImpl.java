@@ -0,0 +1,580 @@
+package org.backend.stockease.service.implementation;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.backend.stockease.dto.ProductImportResult;
+import org.backend.stockease.entity.Category;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.repository.CategoryRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.backend.stockease.service.ProductBulkService;
+import org.backend.stockease.service.ShopStatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bulk catalog upload and download for a shop. Uploads are read a row at a time,
+ * validated, and inserted with JDBC batches of stockease.product-import.batch-size,
+ * each batch in its own transaction, so a large file never sits in memory and a
+ * bad row only rejects itself. Exports stream the shop's products straight from
+ * the result set in the same columns an upload accepts.
+ */
+@Service
+public class ProductBulkServiceImpl implements ProductBulkService {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO products (name, description, price, original_price, stock, image_url, rating, is_best_seller, is_active, "
+            + "category_id, shop_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String EXPORT_SQL =
+        "SELECT p.id, p.name, p.description, p.price, p.original_price, p.stock, p.image_url, p.rating, p.is_best_seller, "
+            + "p.is_active, c.name FROM products p LEFT JOIN categories c ON c.id = p.category_id WHERE p.shop_id = ? ORDER BY p.id";
+    private static final String[] COLUMNS = {
+        "id", "name", "description", "price", "originalPrice", "stock", "imageUrl", "rating", "isBestSeller", "isActive", "category"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ShopStatisticsService shopStatisticsService;
+
+    @Autowired
+    private ShopQuotas shopQuotas;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${stockease.product-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${stockease.product-import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${stockease.product-export.fetch-size:500}")
+    private int fetchSize;
+
+    private TransactionTemplate transaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public ProductImportResult importProducts(Long shopId, Format format, InputStream input) {
+        Shop shop = shopRepository.findById(shopId)
+            .orElseThrow(() -> new RuntimeException("Shop not found"));
+        Integer maxProducts = shop.getSubscriptionPlan() != null ? shop.getSubscriptionPlan().getMaxProducts() : null;
+
+        // Categories are few; every row is resolved against this map instead of a query
+        Map<String, Long> categories = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categories.put(category.getName().toLowerCase(Locale.ROOT), category.getId());
+            categories.put(String.valueOf(category.getId()), category.getId());
+        }
+
+        ProductImportResult result = new ProductImportResult();
+        List<Row> batch = new ArrayList<>(batchSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowReader rows = format == Format.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader, objectMapper);
+        try {
+            while (true) {
+                Map<String, String> values;
+                try {
+                    values = rows.next();
+                } catch (IllegalArgumentException e) {
+                    reject(result, rows.line(), e.getMessage());
+                    continue;
+                }
+                if (values == null) {
+                    break;
+                }
+                try {
+                    batch.add(new Row(rows.line(), toInsertValues(values, categories, shopId)));
+                } catch (IllegalArgumentException e) {
+                    reject(result, rows.line(), e.getMessage());
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    insert(shopId, maxProducts, batch, result);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Rows before the break are already in; report where the upload stopped
+            reject(result, rows.line(), "Upload interrupted: " + e.getMessage());
+        }
+        if (!batch.isEmpty()) {
+            insert(shopId, maxProducts, batch, result);
+        }
+
+        if (result.getImported() > 0) {
+            catalogCache.invalidateAll();
+        }
+        System.out.println("✅ Imported " + result.getImported() + " products into shop " + shopId
+            + " (" + result.getRejected() + " rows rejected)");
+        return result;
+    }
+
+    @Override
+    public void exportProducts(Long shopId, Format format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer, objectMapper);
+        try {
+            // Read-only, so a replica serves it when there is one
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL);
+                // Rows are fetched in chunks rather than all at once
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, shopId);
+                return statement;
+            }, rs -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.finish();
+        writer.flush();
+    }
+
+    private void insert(Long shopId, Integer maxProducts, List<Row> batch, ProductImportResult result) {
+        Long lastIdBefore = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM products", Long.class);
+        int inserted;
+        try {
+            inserted = transaction.execute(status -> {
+                // Given back by the quota if this batch rolls back
+                int room = shopQuotas.reserveProducts(shopId, batch.size());
+                if (room > 0) {
+                    List<Object[]> values = new ArrayList<>(room);
+                    int inStock = 0;
+                    for (Row row : batch.subList(0, room)) {
+                        values.add(row.values);
+                        if ((Integer) row.values[4] > 0) {
+                            inStock++;
+                        }
+                    }
+                    jdbcTemplate.batchUpdate(INSERT_SQL, values);
+                    shopStatisticsService.productsImported(shopId, room, inStock);
+                }
+                return room;
+            });
+        } catch (RuntimeException e) {
+            for (Row row : batch) {
+                reject(result, row.line, "Batch failed: " + e.getMessage());
+            }
+            return;
+        }
+
+        result.setImported(result.getImported() + inserted);
+        for (Row row : batch.subList(inserted, batch.size())) {
+            reject(result, row.line, "Plan limit of " + maxProducts + " products reached");
+        }
+        if (inserted > 0) {
+            indexInserted(shopId, lastIdBefore);
+        }
+    }
+
+    // The index only needs these columns; loading the entities would cost far more
+    private void indexInserted(Long shopId, Long lastIdBefore) {
+        jdbcTemplate.query("SELECT id, name, description, is_active FROM products WHERE shop_id = ? AND id > ?", rs -> {
+            Product product = new Product();
+            product.setId(rs.getLong(1));
+            product.setName(rs.getString(2));
+            product.setDescription(rs.getString(3));
+            product.setIsActive(rs.getBoolean(4));
+            productSearchIndex.index(product);
+        }, shopId, lastIdBefore);
+    }
+
+    private void reject(ProductImportResult result, int line, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new ProductImportResult.RowError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static Object[] toInsertValues(Map<String, String> values, Map<String, Long> categories, Long shopId) {
+        String name = text(values, "name", true);
+        BigDecimal price = money(values, "price", true);
+        BigDecimal originalPrice = money(values, "originalprice", false);
+        String stockValue = blankToNull(values.get("stock"));
+        int stock;
+        try {
+            stock = stockValue != null ? Integer.parseInt(stockValue) : 0;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("stock is not a whole number: " + stockValue);
+        }
+        if (stock < 0) {
+            throw new IllegalArgumentException("stock must not be negative");
+        }
+        Double rating = null;
+        String ratingValue = blankToNull(values.get("rating"));
+        if (ratingValue != null) {
+            try {
+                rating = Double.valueOf(ratingValue);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("rating is not a number: " + ratingValue);
+            }
+            if (rating < 0 || rating > 5) {
+                throw new IllegalArgumentException("rating must be between 0 and 5");
+            }
+        }
+        Long categoryId = null;
+        String category = blankToNull(values.get("categoryid") != null ? values.get("categoryid") : values.get("category"));
+        if (category != null) {
+            categoryId = categories.get(category.toLowerCase(Locale.ROOT));
+            if (categoryId == null) {
+                throw new IllegalArgumentException("unknown category: " + category);
+            }
+        }
+        return new Object[] {
+            name, text(values, "description", false), price, originalPrice, stock, text(values, "imageurl", false), rating,
+            flag(values, "isbestseller", false), flag(values, "isactive", true), categoryId, shopId
+        };
+    }
+
+    private static String text(Map<String, String> values, String column, boolean required) {
+        String value = blankToNull(values.get(column));
+        if (value == null && required) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        if (value != null && value.length() > 255) {
+            throw new IllegalArgumentException(column + " is longer than 255 characters");
+        }
+        return value;
+    }
+
+    private static BigDecimal money(Map<String, String> values, String column, boolean required) {
+        String value = blankToNull(values.get(column));
+        if (value == null) {
+            if (required) {
+                throw new IllegalArgumentException(column + " is required");
+            }
+            return null;
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+        if (amount.signum() < 0 || amount.scale() > 2) {
+            throw new IllegalArgumentException(column + " must be a positive amount with at most 2 decimals");
+        }
+        return amount;
+    }
+
+    private static boolean flag(Map<String, String> values, String column, boolean defaultValue) {
+        String value = blankToNull(values.get(column));
+        if (value == null) {
+            return defaultValue;
+        }
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes":
+                return true;
+            case "false", "0", "no":
+                return false;
+            default:
+                throw new IllegalArgumentException(column + " must be true or false: " + value);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // "imageUrl", "image_url" and "Image URL" all name the same column
+    private static String columnKey(String header) {
+        return header.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+
+    private record Row(int line, Object[] values) {
+    }
+
+    private interface RowReader {
+        /** The next row by column key, null at the end; a malformed row throws IllegalArgumentException. */
+        Map<String, String> next() throws IOException;
+
+        /** Line the last row started on. */
+        int line();
+    }
+
+    private static class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private List<String> header;
+        private int lineNumber;
+        private int rowLine;
+
+        private CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (header == null) {
+                List<String> names = readRecord();
+                if (names == null) {
+                    return null;
+                }
+                header = new ArrayList<>(names.size());
+                for (String name : names) {
+                    header.add(columnKey(name));
+                }
+            }
+            List<String> fields;
+            do {
+                fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isBlank());
+
+            if (fields.size() != header.size()) {
+                throw new IllegalArgumentException("expected " + header.size() + " fields, found " + fields.size());
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                values.put(header.get(i), fields.get(i));
+            }
+            return values;
+        }
+
+        @Override
+        public int line() {
+            return rowLine;
+        }
+
+        // One RFC 4180 record; a quoted field may span lines
+        private List<String> readRecord() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            rowLine = ++lineNumber;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    line = reader.readLine();
+                    if (line == null) {
+                        throw new IllegalArgumentException("unterminated quoted field");
+                    }
+                    lineNumber++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    private static class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private int lineNumber;
+
+        private NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                lineNumber++;
+            } while (line.isBlank());
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("expected a JSON object");
+            }
+            Map<String, String> values = new HashMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = field.getValue();
+                if (value.isObject() && columnKey(field.getKey()).equals("category")) {
+                    // A category object as the catalog API returns it
+                    values.put("category", value.hasNonNull("id") ? value.get("id").asText() : value.path("name").asText(null));
+                } else if (!value.isNull()) {
+                    values.put(columnKey(field.getKey()), value.isValueNode() ? value.asText() : value.toString());
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public int line() {
+            return lineNumber;
+        }
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i);
+                if (value instanceof BigDecimal amount) {
+                    writer.write(amount.toPlainString());
+                } else if (value != null) {
+                    writeField(String.valueOf(value));
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+
+        private NdjsonRowWriter(Writer writer, ObjectMapper objectMapper) throws IOException {
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                json.writeFieldName(COLUMNS[i - 1]);
+                Object value = rs.getObject(i);
+                if (value == null) {
+                    json.writeNull();
+                } else if (value instanceof BigDecimal amount) {
+                    json.writeNumber(amount);
+                } else if (value instanceof Number number) {
+                    json.writeNumber(number.toString());
+                } else if (value instanceof Boolean bool) {
+                    json.writeBoolean(bool);
+                } else {
+                    json.writeString(String.valueOf(value));
+                }
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+    }
+}
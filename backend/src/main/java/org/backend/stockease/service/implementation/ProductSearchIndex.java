@@ -0,0 +1,204 @@
+package org.backend.stockease.service.implementation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.event.ProductChangedEvent;
+import org.backend.stockease.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory inverted index over the names and descriptions of active products.
+ * Tokens are lower-cased words kept in a sorted map so a query term matches every
+ * token it is a prefix of. Results are ranked by where and how each term matched.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final double NAME_EXACT = 4.0;
+    private static final double NAME_PREFIX = 2.0;
+    private static final double DESCRIPTION_EXACT = 1.0;
+    private static final double DESCRIPTION_PREFIX = 0.5;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final NavigableMap<String, Set<Long>> nameIndex = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Set<Long>> descriptionIndex = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexedProduct> documents = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    // Writers take a lock rather than a monitor: rebuild() reads every product while holding it,
+    // and a virtual thread blocked on a monitor would pin its carrier for that long
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            nameIndex.clear();
+            descriptionIndex.clear();
+            documents.clear();
+            for (Product product : productRepository.findAllActive()) {
+                add(product);
+            }
+            ready = true;
+        } finally {
+            writeLock.unlock();
+        }
+        System.out.println("✅ Product search index built with " + documents.size() + " products");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(event.getProduct().getId());
+        } else {
+            index(event.getProduct());
+        }
+    }
+
+    public void index(Product product) {
+        writeLock.lock();
+        try {
+            remove(product.getId());
+            if (Boolean.TRUE.equals(product.getIsActive())) {
+                add(product);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        writeLock.lock();
+        try {
+            IndexedProduct previous = documents.remove(productId);
+            if (previous != null) {
+                unpost(nameIndex, previous.nameTokens, productId);
+                unpost(descriptionIndex, previous.descriptionTokens, productId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Ids of matching products, best match first. Every query term has to match
+     * (as a whole word or a word prefix) in the name or the description.
+     */
+    public List<Long> search(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Double> scores = null;
+        for (String term : terms) {
+            Map<Long, Double> termScores = new HashMap<>();
+            collect(nameIndex, term, NAME_EXACT, NAME_PREFIX, termScores);
+            collect(descriptionIndex, term, DESCRIPTION_EXACT, DESCRIPTION_PREFIX, termScores);
+
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                    entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                }
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey()));
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    private void add(Product product) {
+        IndexedProduct document = new IndexedProduct(
+            new HashSet<>(tokenize(product.getName())),
+            new HashSet<>(tokenize(product.getDescription())));
+        documents.put(product.getId(), document);
+        post(nameIndex, document.nameTokens, product.getId());
+        post(descriptionIndex, document.descriptionTokens, product.getId());
+    }
+
+    private void collect(NavigableMap<String, Set<Long>> index, String term, double exactScore,
+                         double prefixScore, Map<Long, Double> scores) {
+        for (Map.Entry<String, Set<Long>> posting : index.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            double score = posting.getKey().equals(term) ? exactScore : prefixScore;
+            for (Long productId : posting.getValue()) {
+                scores.merge(productId, score, Math::max);
+            }
+        }
+    }
+
+    private static void post(NavigableMap<String, Set<Long>> index, Set<String> tokens, Long productId) {
+        for (String token : tokens) {
+            index.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(productId);
+        }
+    }
+
+    private static void unpost(NavigableMap<String, Set<Long>> index, Set<String> tokens, Long productId) {
+        for (String token : tokens) {
+            Set<Long> postings = index.get(token);
+            if (postings != null) {
+                postings.remove(productId);
+                if (postings.isEmpty()) {
+                    index.remove(token);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static class IndexedProduct {
+        private final Set<String> nameTokens;
+        private final Set<String> descriptionTokens;
+
+        IndexedProduct(Set<String> nameTokens, Set<String> descriptionTokens) {
+            this.nameTokens = nameTokens;
+            this.descriptionTokens = descriptionTokens;
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package org.backend.stockease.service.implementation;
 
+import org.backend.stockease.dto.CursorPage;
+import org.backend.stockease.dto.ProductSummary;
 import org.backend.stockease.entity.Product;
+import org.backend.stockease.event.ProductChangedEvent;
 import org.backend.stockease.repository.ProductRepository;
 import org.backend.stockease.service.ProductService;
+import org.backend.stockease.service.ShopStatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -15,53 +27,129 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ShopStatisticsService shopStatisticsService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private BestSellerEngine bestSellerEngine;
+
+    @Autowired
+    private ShopQuotas shopQuotas;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAllActive();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductSummary> getActiveProductPage(Long after, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<ProductSummary> rows = productRepository.findActiveSummariesAfter(
+            after != null ? after : 0L, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, ProductSummary::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> getProductsByCategory(Long categoryId) {
         return productRepository.findActiveByCategoryId(categoryId);
     }
 
     @Override
     public List<Product> searchProducts(String keyword) {
-        return productRepository.searchActiveProducts(keyword);
+        return searchProducts(keyword, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> searchProducts(String keyword, int page, int size) {
+        if (!productSearchIndex.isReady()) {
+            // Index is still being built at startup
+            return productRepository.searchActiveProducts(keyword);
+        }
+
+        List<Long> rankedIds = productSearchIndex.search(keyword);
+        long from = (long) Math.max(page, 0) * Math.max(size, 1);
+        if (from >= rankedIds.size()) {
+            return Collections.emptyList();
+        }
+        List<Long> pageIds = rankedIds.subList((int) from, (int) Math.min(rankedIds.size(), from + Math.max(size, 1)));
+
+        // Load the page and put it back in relevance order
+        return findAllInOrder(pageIds);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> getBestSellers() {
-        return productRepository.findActiveBestSellers();
+        List<Long> rankedIds = bestSellerEngine.topProducts();
+        if (rankedIds.isEmpty()) {
+            // Nothing sold in the window yet: show what the sellers marked as best sellers
+            return productRepository.findActiveBestSellers();
+        }
+        return activeOnly(findAllInOrder(rankedIds));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> getBestSellersInCategory(Long categoryId) {
+        return activeOnly(findAllInOrder(bestSellerEngine.topProductsInCategory(categoryId)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> getBestSellersOfShop(Long shopId) {
+        return activeOnly(findAllInOrder(bestSellerEngine.topProductsOfShop(shopId)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> getProductsByShopId(Long shopId) {
         return productRepository.findByShopId(shopId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> getAllProductsByShopId(Long shopId) {
         return productRepository.findAllByShopId(shopId);
     }
 
     @Override
+    @Transactional
     public Product createProduct(Product product) {
         // Set isActive to true by default if not specified
         if (product.getIsActive() == null) {
             product.setIsActive(true);
         }
-        return productRepository.save(product);
+        if (product.getShop() != null) {
+            shopQuotas.reserveProduct(product.getShop().getId());
+        }
+        Product saved = productRepository.save(product);
+        shopStatisticsService.productCreated(saved);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, saved));
+        return saved;
     }
 
     @Override
+    @Transactional
     public Optional<Product> updateProduct(Long id, Product productDetails) {
         return productRepository.findById(id).map(product -> {
+            Long previousShopId = product.getShop() != null ? product.getShop().getId() : null;
+            Integer previousStock = product.getStock();
             product.setName(productDetails.getName());
             product.setDescription(productDetails.getDescription());
             product.setPrice(productDetails.getPrice());
@@ -72,14 +160,48 @@ public class ProductServiceImpl implements ProductService {
             product.setIsBestSeller(productDetails.getIsBestSeller());
             if (productDetails.getIsActive() != null) product.setIsActive(productDetails.getIsActive());
             product.setCategory(productDetails.getCategory());
-            if (productDetails.getShop() != null) product.setShop(productDetails.getShop());
-            return productRepository.save(product);
+            if (productDetails.getShop() != null) {
+                Long shopId = productDetails.getShop().getId();
+                if (!Objects.equals(shopId, previousShopId)) {
+                    shopQuotas.reserveProduct(shopId);
+                    shopQuotas.productRemoved(previousShopId);
+                }
+                product.setShop(productDetails.getShop());
+            }
+            Product saved = productRepository.save(product);
+            shopStatisticsService.productChanged(previousShopId, previousStock, saved);
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, saved));
+            return saved;
         });
     }
 
     @Override
+    @Transactional
     public void deleteProduct(Long id) {
-        productRepository.deleteById(id);
+        productRepository.findById(id).ifPresent(product -> {
+            productRepository.delete(product);
+            shopStatisticsService.productDeleted(product);
+            shopQuotas.productRemoved(product.getShop() != null ? product.getShop().getId() : null);
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, product));
+        });
     }
-}
 
+    private List<Product> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        List<Product> products = productRepository.findAllById(ids);
+        products.sort(Comparator.comparing(product -> rank.get(product.getId())));
+        return products;
+    }
+
+    // A ranking can still name a product deactivated since it was computed
+    private static List<Product> activeOnly(List<Product> products) {
+        products.removeIf(product -> !Boolean.TRUE.equals(product.getIsActive()));
+        return products;
+    }
+}
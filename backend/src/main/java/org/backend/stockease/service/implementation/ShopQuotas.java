@@ -0,0 +1,315 @@
+package org.backend.stockease.service.implementation;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.backend.stockease.event.ShopChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Enforces SubscriptionPlan.maxProducts and maxOrdersPerMonth (negative or null
+ * means unlimited) without counting rows on the write paths. Each shop has
+ * in-memory usage counters, seeded from the database at startup; a product create
+ * or checkout reserves its unit with a compare-and-set and gives it back if the
+ * transaction rolls back. The order counter carries its month, so the first
+ * order of a new month starts it from zero. A scheduled reconciliation recounts
+ * from the database and corrects any drift.
+ */
+@Component
+public class ShopQuotas {
+
+    private static final String LIMITS_SQL =
+        "SELECT s.id, sp.max_products, sp.max_orders_per_month FROM shops s "
+            + "LEFT JOIN subscription_plans sp ON sp.id = s.subscription_plan_id";
+    private static final String PRODUCTS_SQL =
+        "SELECT shop_id, COUNT(*) FROM products WHERE shop_id IS NOT NULL";
+    private static final String MONTH_ORDERS_SQL =
+        "SELECT p.shop_id, COUNT(DISTINCT oi.order_id) FROM order_items oi "
+            + "JOIN orders o ON o.id = oi.order_id JOIN products p ON p.id = oi.product_id "
+            + "WHERE o.order_date >= ? AND o.status <> 'CANCELLED' AND p.shop_id IS NOT NULL";
+    private static final String SHOP_PRODUCTS_SQL =
+        "SELECT COUNT(*) FROM products WHERE shop_id = ?";
+    private static final String SHOP_MONTH_ORDERS_SQL =
+        "SELECT COUNT(DISTINCT oi.order_id) FROM order_items oi "
+            + "JOIN orders o ON o.id = oi.order_id JOIN products p ON p.id = oi.product_id "
+            + "WHERE o.order_date >= ? AND o.status <> 'CANCELLED' AND p.shop_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${stockease.quotas.enabled:true}")
+    private boolean enabled;
+
+    private final Map<Long, Usage> usages = new ConcurrentHashMap<>();
+
+    /**
+     * Reserves up to {@code requested} products for the shop and returns how many
+     * fit under its plan; those are released again if the caller's transaction rolls back.
+     */
+    public int reserveProducts(Long shopId, int requested) {
+        if (!enabled || shopId == null || requested <= 0) {
+            return requested;
+        }
+        Usage usage = usage(shopId);
+        while (true) {
+            int current = usage.products.get();
+            int limit = usage.maxProducts;
+            int granted = limit < 0 ? requested : Math.min(requested, limit - current);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (usage.products.compareAndSet(current, current + granted)) {
+                undoOnRollback(usage, () -> usage.products.addAndGet(-granted));
+                return granted;
+            }
+        }
+    }
+
+    public void reserveProduct(Long shopId) {
+        if (reserveProducts(shopId, 1) == 0) {
+            throw new RuntimeException("Shop has reached its plan limit of " + usage(shopId).maxProducts + " products");
+        }
+    }
+
+    public void productRemoved(Long shopId) {
+        if (enabled && shopId != null) {
+            Usage usage = usage(shopId);
+            afterCommit(usage, () -> usage.products.decrementAndGet());
+        }
+    }
+
+    /**
+     * Counts one order for the shop this month, failing once its plan's monthly
+     * limit is reached; released again if the checkout rolls back.
+     */
+    public void reserveOrder(Long shopId) {
+        if (!enabled || shopId == null) {
+            return;
+        }
+        Usage usage = usage(shopId);
+        int month = monthIndex(YearMonth.now());
+        while (true) {
+            long current = usage.monthOrders.get();
+            int orders = monthOf(current) == month ? countOf(current) : 0;
+            int limit = usage.maxOrdersPerMonth;
+            if (limit >= 0 && orders >= limit) {
+                throw new RuntimeException("Shop has reached its plan limit of " + limit + " orders this month");
+            }
+            if (usage.monthOrders.compareAndSet(current, pack(month, orders + 1))) {
+                undoOnRollback(usage, () -> releaseOrder(usage, month));
+                return;
+            }
+        }
+    }
+
+    public void orderCancelled(Long shopId, LocalDateTime orderDate) {
+        if (enabled && shopId != null && orderDate != null) {
+            Usage usage = usage(shopId);
+            int month = monthIndex(YearMonth.from(orderDate));
+            afterCommit(usage, () -> releaseOrder(usage, month));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShopChanged(ShopChangedEvent event) {
+        if (event.getType() == ShopChangedEvent.Type.DELETED) {
+            usages.remove(event.getShopId());
+        } else {
+            // The plan may have changed
+            Usage usage = usages.get(event.getShopId());
+            if (usage != null) {
+                readLimits(usage, event.getShopId());
+            }
+        }
+    }
+
+    /**
+     * Re-reads every shop's plan limits, e.g. after a plan was edited.
+     */
+    public void reloadLimits() {
+        jdbcTemplate.query(LIMITS_SQL, rs -> {
+            Usage usage = usages.get(rs.getLong(1));
+            if (usage != null) {
+                usage.maxProducts = limit(rs.getObject(2));
+                usage.maxOrdersPerMonth = limit(rs.getObject(3));
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+        System.out.println("✅ Plan quotas loaded for " + usages.size() + " shops");
+    }
+
+    @Scheduled(initialDelayString = "${stockease.quotas.reconcile-interval-ms:300000}",
+               fixedDelayString = "${stockease.quotas.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        // Counters are read before the database so a change in between shows up as a
+        // counter that moved; shops with reservations in flight are left for next time
+        Map<Long, long[]> before = new HashMap<>();
+        usages.forEach((shopId, usage) ->
+            before.put(shopId, new long[] { usage.pending.get(), usage.products.get(), usage.monthOrders.get() }));
+
+        YearMonth now = YearMonth.now();
+        int month = monthIndex(now);
+        Map<Long, Integer> products = new HashMap<>();
+        jdbcTemplate.query(PRODUCTS_SQL + " GROUP BY shop_id", rs -> {
+            products.put(rs.getLong(1), rs.getInt(2));
+        });
+        Map<Long, Integer> orders = new HashMap<>();
+        jdbcTemplate.query(MONTH_ORDERS_SQL + " GROUP BY p.shop_id", rs -> {
+            orders.put(rs.getLong(1), rs.getInt(2));
+        }, Timestamp.valueOf(now.atDay(1).atStartOfDay()));
+
+        Map<Long, Boolean> seen = new HashMap<>();
+        jdbcTemplate.query(LIMITS_SQL, rs -> {
+            Long shopId = rs.getLong(1);
+            seen.put(shopId, true);
+            int productCount = products.getOrDefault(shopId, 0);
+            long monthOrders = pack(month, orders.getOrDefault(shopId, 0));
+            Usage usage = usages.get(shopId);
+            if (usage == null) {
+                usage = usages.computeIfAbsent(shopId, id -> new Usage(productCount, monthOrders));
+            }
+            usage.maxProducts = limit(rs.getObject(2));
+            usage.maxOrdersPerMonth = limit(rs.getObject(3));
+
+            long[] counted = before.get(shopId);
+            if (counted == null || counted[0] != 0 || usage.pending.get() != 0) {
+                return;
+            }
+            if (usage.products.compareAndSet((int) counted[1], productCount) && counted[1] != productCount) {
+                System.err.println("⚠️ Product quota of shop " + shopId + " drifted: " + counted[1] + " -> " + productCount);
+            }
+            long orderCounter = counted[2];
+            if (monthOf(orderCounter) != month) {
+                // Nothing this month yet; the counter starts over on the first order
+                usage.monthOrders.compareAndSet(orderCounter, monthOrders);
+            } else if (usage.monthOrders.compareAndSet(orderCounter, monthOrders) && orderCounter != monthOrders) {
+                System.err.println("⚠️ Order quota of shop " + shopId + " drifted: " + countOf(orderCounter)
+                    + " -> " + countOf(monthOrders));
+            }
+        });
+        usages.keySet().removeIf(shopId -> !seen.containsKey(shopId));
+    }
+
+    private Usage usage(Long shopId) {
+        Usage usage = usages.get(shopId);
+        if (usage != null) {
+            return usage;
+        }
+        // A shop created since the last reconciliation: seed it on its own
+        YearMonth now = YearMonth.now();
+        Integer productCount = jdbcTemplate.queryForObject(SHOP_PRODUCTS_SQL, Integer.class, shopId);
+        Integer orderCount = jdbcTemplate.queryForObject(SHOP_MONTH_ORDERS_SQL, Integer.class,
+            Timestamp.valueOf(now.atDay(1).atStartOfDay()), shopId);
+        Usage loaded = new Usage(productCount != null ? productCount : 0,
+            pack(monthIndex(now), orderCount != null ? orderCount : 0));
+        readLimits(loaded, shopId);
+        Usage existing = usages.putIfAbsent(shopId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private void readLimits(Usage usage, Long shopId) {
+        jdbcTemplate.query(LIMITS_SQL + " WHERE s.id = ?", rs -> {
+            usage.maxProducts = limit(rs.getObject(2));
+            usage.maxOrdersPerMonth = limit(rs.getObject(3));
+        }, shopId);
+    }
+
+    private static void releaseOrder(Usage usage, int month) {
+        while (true) {
+            long current = usage.monthOrders.get();
+            if (monthOf(current) != month || countOf(current) == 0) {
+                return;
+            }
+            if (usage.monthOrders.compareAndSet(current, pack(month, countOf(current) - 1))) {
+                return;
+            }
+        }
+    }
+
+    private static void undoOnRollback(Usage usage, Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        usage.pending.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+                usage.pending.decrementAndGet();
+            }
+        });
+    }
+
+    private static void afterCommit(Usage usage, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        usage.pending.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    action.run();
+                }
+                usage.pending.decrementAndGet();
+            }
+        });
+    }
+
+    private static int limit(Object value) {
+        return value == null ? -1 : ((Number) value).intValue();
+    }
+
+    private static int monthIndex(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    // Month in the high 32 bits, orders in that month in the low 32
+    private static long pack(int month, int orders) {
+        return ((long) month << 32) | (orders & 0xFFFFFFFFL);
+    }
+
+    private static int monthOf(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int countOf(long packed) {
+        return (int) packed;
+    }
+
+    private static class Usage {
+        private volatile int maxProducts = -1;
+        private volatile int maxOrdersPerMonth = -1;
+        private final AtomicInteger products;
+        private final AtomicLong monthOrders;
+        // Reservations and releases whose transaction has not finished yet
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private Usage(int products, long monthOrders) {
+            this.products = new AtomicInteger(products);
+            this.monthOrders = new AtomicLong(monthOrders);
+        }
+    }
+}
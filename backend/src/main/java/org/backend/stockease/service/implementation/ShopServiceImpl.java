@@ -1,11 +1,18 @@
 package org.backend.stockease.service.implementation;
 
+import org.backend.stockease.dto.AdminShopSummary;
+import org.backend.stockease.dto.CursorPage;
 import org.backend.stockease.dto.ShopCreationRequest;
 import org.backend.stockease.dto.ShopStatisticsResponse;
+import org.backend.stockease.dto.ShopSummary;
 import org.backend.stockease.entity.*;
+import org.backend.stockease.event.ShopChangedEvent;
 import org.backend.stockease.repository.*;
 import org.backend.stockease.service.ShopService;
+import org.backend.stockease.service.ShopStatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,7 +20,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class ShopServiceImpl implements ShopService {
@@ -28,10 +34,10 @@ public class ShopServiceImpl implements ShopService {
     private SubscriptionPlanRepository subscriptionPlanRepository;
     
     @Autowired
-    private ProductRepository productRepository;
+    private ShopStatisticsService shopStatisticsService;
     
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -59,7 +65,10 @@ public class ShopServiceImpl implements ShopService {
         shop.setTotalRevenue(BigDecimal.ZERO);
         shop.setTotalOrders(0);
         
-        return shopRepository.save(shop);
+        shop = shopRepository.save(shop);
+        shopStatisticsService.initializeShop(shop.getId());
+        eventPublisher.publishEvent(new ShopChangedEvent(ShopChangedEvent.Type.CREATED, shop.getId()));
+        return shop;
     }
 
     @Override
@@ -82,80 +91,47 @@ public class ShopServiceImpl implements ShopService {
         return shopRepository.findByIsActiveTrue();
     }
 
+    @Override
+    public CursorPage<ShopSummary> getShopPage(boolean activeOnly, Long after, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<ShopSummary> rows = shopRepository.findSummariesAfter(
+            after != null ? after : 0L, activeOnly, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, ShopSummary::getId);
+    }
+
+    @Override
+    public CursorPage<AdminShopSummary> getAdminShopPage(Long after, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<AdminShopSummary> rows = shopRepository.findAdminSummariesAfter(
+            after != null ? after : 0L, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, AdminShopSummary::getId);
+    }
+
     @Override
     public Optional<Shop> updateShop(Long id, Shop shopDetails) {
         return shopRepository.findById(id).map(shop -> {
             if (shopDetails.getName() != null) shop.setName(shopDetails.getName());
             if (shopDetails.getDescription() != null) shop.setDescription(shopDetails.getDescription());
             if (shopDetails.getIsActive() != null) shop.setIsActive(shopDetails.getIsActive());
-            return shopRepository.save(shop);
+            Shop saved = shopRepository.save(shop);
+            eventPublisher.publishEvent(new ShopChangedEvent(ShopChangedEvent.Type.UPDATED, saved.getId()));
+            return saved;
         });
     }
 
     @Override
+    @Transactional
     public void deleteShop(Long id) {
         shopRepository.deleteById(id);
+        shopStatisticsService.deleteShop(id);
+        eventPublisher.publishEvent(new ShopChangedEvent(ShopChangedEvent.Type.DELETED, id));
     }
 
     @Override
     public ShopStatisticsResponse getShopStatistics(Long shopId) {
         Shop shop = shopRepository.findById(shopId)
             .orElseThrow(() -> new RuntimeException("Shop not found"));
-        
-        // Get all products for this shop
-        List<Product> shopProducts = productRepository.findAll().stream()
-            .filter(p -> p.getShop() != null && p.getShop().getId().equals(shopId))
-            .collect(Collectors.toList());
-        
-        int totalProducts = shopProducts.size();
-        int activeProducts = (int) shopProducts.stream()
-            .filter(p -> p.getStock() > 0)
-            .count();
-        
-        // Calculate revenue from order items
-        List<OrderItem> allOrderItems = orderItemRepository.findAll();
-        BigDecimal totalRevenue = allOrderItems.stream()
-            .filter(oi -> oi.getProduct().getShop() != null && 
-                         oi.getProduct().getShop().getId().equals(shopId))
-            .map(oi -> oi.getPrice().multiply(BigDecimal.valueOf(oi.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Count orders (unique orders that contain products from this shop)
-        long totalOrders = allOrderItems.stream()
-            .filter(oi -> oi.getProduct().getShop() != null && 
-                         oi.getProduct().getShop().getId().equals(shopId))
-            .map(oi -> oi.getOrder().getId())
-            .distinct()
-            .count();
-        
-        // Calculate monthly revenue (last 30 days)
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        BigDecimal monthlyRevenue = allOrderItems.stream()
-            .filter(oi -> oi.getProduct().getShop() != null && 
-                         oi.getProduct().getShop().getId().equals(shopId) &&
-                         oi.getOrder().getOrderDate().isAfter(thirtyDaysAgo))
-            .map(oi -> oi.getPrice().multiply(BigDecimal.valueOf(oi.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Count monthly orders
-        long monthlyOrders = allOrderItems.stream()
-            .filter(oi -> oi.getProduct().getShop() != null && 
-                         oi.getProduct().getShop().getId().equals(shopId) &&
-                         oi.getOrder().getOrderDate().isAfter(thirtyDaysAgo))
-            .map(oi -> oi.getOrder().getId())
-            .distinct()
-            .count();
-        
-        return new ShopStatisticsResponse(
-            shopId,
-            shop.getName(),
-            totalRevenue,
-            (int) totalOrders,
-            totalProducts,
-            activeProducts,
-            monthlyRevenue,
-            (int) monthlyOrders
-        );
+        return shopStatisticsService.getStatistics(shop);
     }
 
     @Override
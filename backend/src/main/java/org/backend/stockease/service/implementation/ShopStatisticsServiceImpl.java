@@ -0,0 +1,182 @@
+package org.backend.stockease.service.implementation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.backend.stockease.dto.ShopStatisticsResponse;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.ShopDailyStatistics;
+import org.backend.stockease.entity.ShopStatistics;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.repository.ShopDailyStatisticsRepository;
+import org.backend.stockease.repository.ShopStatisticsRepository;
+import org.backend.stockease.service.ShopStatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains the per-shop statistics incrementally. Totals come from the counters
+ * already kept on {@link Shop}, product counts from {@link ShopStatistics} and the
+ * rolling 30-day figures from at most 30 {@link ShopDailyStatistics} buckets, so a
+ * read costs the same no matter how many orders the platform holds.
+ */
+@Service
+public class ShopStatisticsServiceImpl implements ShopStatisticsService {
+
+    private static final int ROLLING_WINDOW_DAYS = 30;
+
+    @Autowired
+    private ShopStatisticsRepository shopStatisticsRepository;
+
+    @Autowired
+    private ShopDailyStatisticsRepository shopDailyStatisticsRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShopRevenueCounter shopRevenueCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public ShopStatisticsResponse getStatistics(Shop shop) {
+        ShopStatistics counts = shopStatisticsRepository.findById(shop.getId()).orElse(null);
+        if (counts == null) {
+            counts = seedFromProducts(shop.getId());
+        }
+        if (counts == null) {
+            counts = shopStatisticsRepository.findById(shop.getId()).orElseThrow();
+        }
+
+        LocalDate since = LocalDate.now().minusDays(ROLLING_WINDOW_DAYS);
+        BigDecimal monthlyRevenue = shopDailyStatisticsRepository.sumRevenueSince(shop.getId(), since);
+        Long monthlyOrders = shopDailyStatisticsRepository.sumOrdersSince(shop.getId(), since);
+        // Orders since the last fold are still spread over the counter shards
+        ShopRevenueCounter.Pending pending = shopRevenueCounter.pending(shop.getId(), since);
+
+        return new ShopStatisticsResponse(
+            shop.getId(),
+            shop.getName(),
+            shop.getTotalRevenue().add(pending.revenue),
+            shop.getTotalOrders() + (int) pending.orders,
+            counts.getTotalProducts(),
+            counts.getInStockProducts(),
+            monthlyRevenue.add(pending.revenueSince),
+            (int) (monthlyOrders + pending.ordersSince)
+        );
+    }
+
+    @Override
+    @Transactional
+    public void productCreated(Product product) {
+        Long shopId = shopIdOf(product);
+        if (shopId != null) {
+            adjust(shopId, 1, isInStock(product.getStock()) ? 1 : 0);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void productsImported(Long shopId, int count, int inStockCount) {
+        adjust(shopId, count, inStockCount);
+    }
+
+    @Override
+    @Transactional
+    public void productChanged(Long previousShopId, Integer previousStock, Product product) {
+        Long shopId = shopIdOf(product);
+        boolean wasInStock = isInStock(previousStock);
+        boolean inStock = isInStock(product.getStock());
+
+        if (previousShopId != null && previousShopId.equals(shopId)) {
+            if (wasInStock != inStock) {
+                adjust(shopId, 0, inStock ? 1 : -1);
+            }
+            return;
+        }
+        // Product moved between shops (or into/out of a shop)
+        if (previousShopId != null) {
+            adjust(previousShopId, -1, wasInStock ? -1 : 0);
+        }
+        if (shopId != null) {
+            adjust(shopId, 1, inStock ? 1 : 0);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void productDeleted(Product product) {
+        Long shopId = shopIdOf(product);
+        if (shopId != null) {
+            adjust(shopId, -1, isInStock(product.getStock()) ? -1 : 0);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void inStockChanged(Long shopId, int inStockDelta) {
+        if (inStockDelta != 0) {
+            adjust(shopId, 0, inStockDelta);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void initializeShop(Long shopId) {
+        shopStatisticsRepository.save(new ShopStatistics(shopId, 0, 0));
+    }
+
+    @Override
+    @Transactional
+    public void deleteShop(Long shopId) {
+        shopStatisticsRepository.deleteById(shopId);
+        shopDailyStatisticsRepository.deleteByShopId(shopId);
+        shopRevenueCounter.deleteShop(shopId);
+    }
+
+    private void adjust(Long shopId, int productDelta, int inStockDelta) {
+        if (shopStatisticsRepository.adjustProductCounts(shopId, productDelta, inStockDelta) == 0
+                && seedFromProducts(shopId) == null) {
+            // Another transaction seeded the counters first; its count could not see
+            // this uncommitted change, so it is applied on top
+            shopStatisticsRepository.adjustProductCounts(shopId, productDelta, inStockDelta);
+        }
+    }
+
+    /**
+     * Creates the counters of a shop that has none (e.g. a shop created before statistics
+     * existed). The count queries see this transaction's pending product changes, so the
+     * seeded values already include them. Returns null if another transaction created the
+     * row in the meantime; the failed insert is a plain JDBC statement, so it does not
+     * roll back the caller's product write.
+     */
+    private ShopStatistics seedFromProducts(Long shopId) {
+        ShopStatistics statistics = new ShopStatistics(
+            shopId,
+            (int) productRepository.countByShopId(shopId),
+            (int) productRepository.countByShopIdAndStockGreaterThan(shopId, 0)
+        );
+        try {
+            jdbcTemplate.update("INSERT INTO shop_statistics (shop_id, total_products, in_stock_products) VALUES (?, ?, ?)",
+                statistics.getShopId(), statistics.getTotalProducts(), statistics.getInStockProducts());
+            return statistics;
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+    }
+
+    private Long shopIdOf(Product product) {
+        return product.getShop() != null ? product.getShop().getId() : null;
+    }
+
+    private boolean isInStock(Integer stock) {
+        return stock != null && stock > 0;
+    }
+}
@@ -0,0 +1,109 @@
+package org.backend.stockease.service.implementation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Deactivates shops whose subscription has ended, together with their products,
+ * so request paths only ever have to look at isActive. Expired shops are taken
+ * a chunk at a time; their products are switched off with bulk UPDATEs of at most
+ * product-batch-size rows, and the shops themselves last, so a sweep cut short
+ * picks up where it stopped. Every batch re-checks the end date in its own
+ * transaction, so a shop renewed mid-sweep keeps the products not yet switched off.
+ */
+@Component
+public class SubscriptionExpirySweeper {
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${stockease.subscription-expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${stockease.subscription-expiry.shop-batch-size:100}")
+    private int shopBatchSize;
+
+    @Value("${stockease.subscription-expiry.product-batch-size:1000}")
+    private int productBatchSize;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${stockease.subscription-expiry.interval-ms:60000}",
+               fixedDelayString = "${stockease.subscription-expiry.interval-ms:60000}")
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Deactivates every shop whose subscription ended before {@code now} and
+     * returns how many there were.
+     */
+    public int sweep(LocalDateTime now) {
+        int shops = 0;
+        int products = 0;
+        while (true) {
+            // Not read-only: a lagging replica could hand back shops already switched off
+            List<Long> shopIds = transaction.execute(status ->
+                shopRepository.findExpiredActiveIds(now, PageRequest.of(0, shopBatchSize)));
+            if (shopIds.isEmpty()) {
+                break;
+            }
+            while (true) {
+                List<Long> productIds = transaction.execute(status -> {
+                    List<Long> ids = productRepository.findActiveIdsOfExpiredShops(
+                        shopIds, now, PageRequest.of(0, productBatchSize));
+                    if (!ids.isEmpty() && productRepository.deactivateAllOfExpiredShops(ids, shopIds, now) < ids.size()) {
+                        // A shop was renewed between the two statements; report only what was switched off
+                        return productRepository.findInactiveIds(ids);
+                    }
+                    return ids;
+                });
+                if (productIds.isEmpty()) {
+                    break;
+                }
+                for (Long productId : productIds) {
+                    productSearchIndex.remove(productId);
+                }
+                products += productIds.size();
+            }
+            shops += transaction.execute(status -> shopRepository.deactivateExpired(shopIds, now));
+        }
+
+        if (shops > 0 || products > 0) {
+            catalogCache.invalidateAll();
+            System.out.println("✅ Deactivated " + shops + " expired shops and " + products + " of their products");
+        }
+        return shops;
+    }
+}
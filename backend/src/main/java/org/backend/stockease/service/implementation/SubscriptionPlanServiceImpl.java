@@ -15,6 +15,9 @@ public class SubscriptionPlanServiceImpl implements SubscriptionPlanService {
     @Autowired
     private SubscriptionPlanRepository subscriptionPlanRepository;
 
+    @Autowired
+    private ShopQuotas shopQuotas;
+
     @Override
     public List<SubscriptionPlan> getAllActivePlans() {
         return subscriptionPlanRepository.findByIsActiveTrue();
@@ -43,7 +46,9 @@ public class SubscriptionPlanServiceImpl implements SubscriptionPlanService {
             if (planDetails.getCustomDomainEnabled() != null) plan.setCustomDomainEnabled(planDetails.getCustomDomainEnabled());
             if (planDetails.getPrioritySupport() != null) plan.setPrioritySupport(planDetails.getPrioritySupport());
             if (planDetails.getIsActive() != null) plan.setIsActive(planDetails.getIsActive());
-            return subscriptionPlanRepository.save(plan);
+            SubscriptionPlan saved = subscriptionPlanRepository.save(plan);
+            shopQuotas.reloadLimits();
+            return saved;
         });
     }
 
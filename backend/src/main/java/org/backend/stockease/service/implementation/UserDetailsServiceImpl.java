@@ -1,6 +1,7 @@
 package org.backend.stockease.service.implementation;
 
 import org.backend.stockease.entity.User;
+import org.backend.stockease.entity.enums.Role;
 import org.backend.stockease.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -39,4 +40,19 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
         );
     }
+
+    /**
+     * Principal for a verified token, with the user's current role rather than the one
+     * in the token, so deleted and demoted users lose their access. Only the role is read.
+     */
+    public UserDetails loadTokenPrincipal(Long userId) {
+        Role role = userRepository.findRoleById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+
+        return new org.springframework.security.core.userdetails.User(
+                userId.toString(),
+                "",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()))
+        );
+    }
 }
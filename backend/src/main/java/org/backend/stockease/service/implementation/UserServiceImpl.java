@@ -1,15 +1,21 @@
 package org.backend.stockease.service.implementation;
 
+import org.backend.stockease.dto.CursorPage;
+import org.backend.stockease.dto.UserSummary;
 import org.backend.stockease.entity.Shop;
 import org.backend.stockease.entity.User;
 import org.backend.stockease.repository.ShopRepository;
 import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.security.JwtAuthenticationCache;
 import org.backend.stockease.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,11 +29,22 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private ShopRepository shopRepository;
 
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+
     @Override
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    @Override
+    public CursorPage<UserSummary> getUserPage(Long after, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<UserSummary> rows = userRepository.findSummariesAfter(
+            after != null ? after : 0L, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, UserSummary::getId);
+    }
+
     @Override
     public Optional<User> getUserById(Long userId) {
         return userRepository.findById(userId);
@@ -67,6 +84,14 @@ public class UserServiceImpl implements UserService {
         
         // Delete the user (cascade will handle orders and cart)
         userRepository.deleteById(userId);
+
+        // Revoke the user's cached tokens once the delete is visible to the next lookup
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                authenticationCache.evictUser(userId);
+            }
+        });
     }
 
     @Override
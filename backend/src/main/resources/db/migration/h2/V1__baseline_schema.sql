@@ -0,0 +1,155 @@
+-- Baseline: the schema Hibernate generated from the entities under ddl-auto=create-drop
+
+create sequence orders_seq start with 1 increment by 50;
+create sequence order_items_seq start with 1 increment by 50;
+create sequence deliveries_seq start with 1 increment by 50;
+
+create table users (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null,
+    email varchar(255) not null,
+    phone varchar(255),
+    address varchar(255),
+    password varchar(255) not null,
+    role varchar(32) not null,
+    constraint uk_users_email unique (email)
+);
+
+create table subscription_plans (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null,
+    description varchar(255) not null,
+    monthly_price numeric(38,2) not null,
+    duration_months integer not null,
+    max_products integer,
+    max_orders_per_month integer,
+    analytics_enabled boolean,
+    custom_domain_enabled boolean,
+    priority_support boolean,
+    created_at timestamp(6),
+    is_active boolean,
+    constraint uk_subscription_plans_name unique (name)
+);
+
+create table categories (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null,
+    description varchar(255),
+    image_url varchar(255),
+    constraint uk_categories_name unique (name)
+);
+
+create table shops (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null,
+    description varchar(255),
+    owner_id bigint not null,
+    subscription_plan_id bigint not null,
+    subscription_start_date timestamp(6) not null,
+    subscription_end_date timestamp(6),
+    is_active boolean not null,
+    created_at timestamp(6),
+    total_revenue numeric(38,2),
+    total_orders integer,
+    constraint uk_shops_name unique (name),
+    constraint fk_shops_owner foreign key (owner_id) references users (id),
+    constraint fk_shops_plan foreign key (subscription_plan_id) references subscription_plans (id)
+);
+
+create table products (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null,
+    description varchar(255),
+    price numeric(38,2) not null,
+    original_price numeric(38,2),
+    stock integer not null,
+    image_url varchar(255),
+    rating float(53),
+    is_best_seller boolean,
+    is_active boolean not null,
+    category_id bigint,
+    shop_id bigint,
+    constraint fk_products_category foreign key (category_id) references categories (id),
+    constraint fk_products_shop foreign key (shop_id) references shops (id)
+);
+
+create table carts (
+    id bigint generated by default as identity primary key,
+    user_id bigint not null,
+    constraint uk_carts_user unique (user_id),
+    constraint fk_carts_user foreign key (user_id) references users (id)
+);
+
+create table cart_items (
+    id bigint generated by default as identity primary key,
+    cart_id bigint not null,
+    product_id bigint not null,
+    quantity integer not null,
+    constraint fk_cart_items_cart foreign key (cart_id) references carts (id),
+    constraint fk_cart_items_product foreign key (product_id) references products (id)
+);
+
+create table orders (
+    id bigint not null primary key,
+    order_number varchar(255) not null,
+    user_id bigint not null,
+    total_amount numeric(38,2) not null,
+    status varchar(32),
+    order_date timestamp(6),
+    delivery_option varchar(255),
+    constraint uk_orders_order_number unique (order_number),
+    constraint fk_orders_user foreign key (user_id) references users (id)
+);
+
+create table order_items (
+    id bigint not null primary key,
+    order_id bigint not null,
+    product_id bigint not null,
+    quantity integer not null,
+    price numeric(38,2) not null,
+    constraint fk_order_items_order foreign key (order_id) references orders (id),
+    constraint fk_order_items_product foreign key (product_id) references products (id)
+);
+
+create table deliveries (
+    id bigint not null primary key,
+    order_id bigint not null,
+    status varchar(32),
+    tracking_number varchar(255),
+    address varchar(255),
+    estimated_delivery_date timestamp(6),
+    actual_delivery_date timestamp(6),
+    constraint uk_deliveries_order unique (order_id),
+    constraint fk_deliveries_order foreign key (order_id) references orders (id)
+);
+
+create table shop_statistics (
+    shop_id bigint not null primary key,
+    total_products integer not null,
+    in_stock_products integer not null
+);
+
+create table shop_daily_statistics (
+    id bigint generated by default as identity primary key,
+    shop_id bigint not null,
+    bucket_date date not null,
+    revenue numeric(38,2) not null,
+    orders integer not null,
+    constraint uk_shop_daily_statistics_shop_day unique (shop_id, bucket_date)
+);
+
+create table platform_daily_rollups (
+    id bigint generated by default as identity primary key,
+    rollup_date date not null,
+    total_orders bigint not null,
+    sales_revenue numeric(38,2) not null,
+    constraint uk_platform_daily_rollups_date unique (rollup_date)
+);
+
+create table platform_monthly_rollups (
+    id bigint generated by default as identity primary key,
+    rollup_month date not null,
+    total_orders bigint not null,
+    sales_revenue numeric(38,2) not null,
+    constraint uk_platform_monthly_rollups_month unique (rollup_month)
+);
@@ -0,0 +1,32 @@
+-- Indexes for the repository queries. Foreign keys from V1 already index
+-- order_items.order_id/product_id, cart_items.product_id, carts.user_id and shops.owner_id.
+
+-- ProductRepository
+-- findByShopId / findAllByShopId / countByShopId
+create index idx_products_shop_active on products (shop_id, is_active);
+-- countByShopIdAndStockGreaterThan (covering)
+create index idx_products_shop_stock on products (shop_id, stock);
+-- findByShopIdAndCategoryId
+create index idx_products_shop_category on products (shop_id, category_id);
+-- findActiveByCategoryId / findByCategoryId
+create index idx_products_category_active on products (category_id, is_active);
+-- findActiveBestSellers / findByIsBestSellerTrue
+create index idx_products_best_seller on products (is_best_seller, is_active);
+-- findActiveSummariesAfter (keyset page) / findAllActive
+create index idx_products_active_id on products (is_active, id);
+
+-- OrderRepository
+-- findByUserIdOrderByOrderDateDesc
+create index idx_orders_user_date on orders (user_id, order_date);
+-- findUserSummariesBefore (keyset page, newest first)
+create index idx_orders_user_id on orders (user_id, id);
+-- aggregateBetween / aggregateSince / findEarliestOrderDate (covering)
+create index idx_orders_date_amount on orders (order_date, total_amount);
+
+-- CartItemRepository
+-- findByCartIdAndProductId / findByCartId / deleteByCartId
+create index idx_cart_items_cart_product on cart_items (cart_id, product_id);
+
+-- DeliveryRepository
+-- findByTrackingNumber (findByOrderId uses uk_deliveries_order)
+create unique index uk_deliveries_tracking_number on deliveries (tracking_number);
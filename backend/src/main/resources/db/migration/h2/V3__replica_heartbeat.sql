@@ -0,0 +1,6 @@
+-- Single row rewritten by the primary every second; its age on a replica is the replication lag
+create table replica_heartbeat (
+    id integer not null primary key,
+    beat_millis bigint not null
+);
+insert into replica_heartbeat (id, beat_millis) values (1, 0);
@@ -0,0 +1,25 @@
+-- Post-checkout work (shop counters, delivery, cart cleanup) handed to the outbox workers
+create table order_outbox (
+    id bigint generated by default as identity primary key,
+    order_id bigint not null,
+    user_id bigint not null,
+    order_number varchar(255) not null,
+    address varchar(255),
+    shop_revenue varchar(8000),
+    cart_item_ids varchar(8000),
+    status varchar(32) not null,
+    shop_counters_applied boolean not null,
+    delivery_created boolean not null,
+    cart_cleared boolean not null,
+    attempts integer not null,
+    next_attempt_at timestamp(6) not null,
+    last_error varchar(1000),
+    created_at timestamp(6) not null,
+    processed_at timestamp(6),
+    constraint uk_order_outbox_order unique (order_id)
+);
+
+-- OrderOutboxRepository.findDueIds
+create index idx_order_outbox_due on order_outbox (status, next_attempt_at);
+-- OrderOutboxRepository.findUnclearedCartItemIds
+create index idx_order_outbox_user_cart on order_outbox (user_id, cart_cleared);
@@ -0,0 +1,10 @@
+-- Unfolded shop sales, spread over several rows per shop and day (ShopRevenueCounter)
+create table shop_revenue_shards (
+    id bigint generated by default as identity primary key,
+    shop_id bigint not null,
+    bucket_date date not null,
+    shard integer not null,
+    revenue numeric(38,2) not null,
+    orders integer not null,
+    constraint uk_shop_revenue_shards_shop_day_shard unique (shop_id, bucket_date, shard)
+);
@@ -0,0 +1,5 @@
+-- CartEngine hands out cart item ids before the rows are written, so they come
+-- from a pooled sequence shared with Hibernate instead of the identity column.
+-- Starts past the existing rows: the first block Hibernate takes ends at this value
+create sequence cart_items_seq start with 1 increment by 50;
+alter sequence cart_items_seq restart with (select coalesce(max(id), 0) + 50 from cart_items);
@@ -0,0 +1,8 @@
+-- Every shop gets its product counters up front, so a product write never has to
+-- seed them (shops created since go through ShopStatisticsService.initializeShop)
+insert into shop_statistics (shop_id, total_products, in_stock_products)
+select s.id,
+       (select count(*) from products p where p.shop_id = s.id),
+       (select count(*) from products p where p.shop_id = s.id and p.stock > 0)
+from shops s
+where not exists (select 1 from shop_statistics st where st.shop_id = s.id);
@@ -0,0 +1,25 @@
+-- Post-checkout work (shop counters, delivery, cart cleanup) handed to the outbox workers
+create table order_outbox (
+    id bigint not null auto_increment primary key,
+    order_id bigint not null,
+    user_id bigint not null,
+    order_number varchar(255) not null,
+    address varchar(255),
+    shop_revenue text,
+    cart_item_ids text,
+    status varchar(32) not null,
+    shop_counters_applied bit not null,
+    delivery_created bit not null,
+    cart_cleared bit not null,
+    attempts integer not null,
+    next_attempt_at datetime(6) not null,
+    last_error varchar(1000),
+    created_at datetime(6) not null,
+    processed_at datetime(6),
+    constraint uk_order_outbox_order unique (order_id)
+) engine=InnoDB;
+
+-- OrderOutboxRepository.findDueIds
+create index idx_order_outbox_due on order_outbox (status, next_attempt_at);
+-- OrderOutboxRepository.findUnclearedCartItemIds
+create index idx_order_outbox_user_cart on order_outbox (user_id, cart_cleared);
@@ -0,0 +1,9 @@
+-- Sliding-window sales counts of BestSellerEngine, one row per product and time bucket
+create table bestseller_snapshots (
+    id bigint not null auto_increment primary key,
+    product_id bigint not null,
+    bucket_start_millis bigint not null,
+    quantity bigint not null,
+    taken_at_millis bigint not null,
+    constraint uk_bestseller_snapshots_product_bucket unique (product_id, bucket_start_millis)
+) engine=InnoDB;
@@ -0,0 +1,3 @@
+-- SubscriptionExpirySweeper: ShopRepository.findExpiredActiveIds reads the active
+-- shops whose subscription_end_date has passed, oldest first
+create index idx_shops_active_end_date on shops (is_active, subscription_end_date);
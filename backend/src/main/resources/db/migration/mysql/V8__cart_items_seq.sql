@@ -0,0 +1,5 @@
+-- CartEngine hands out cart item ids before the rows are written, so they come
+-- from a pooled sequence table shared with Hibernate instead of auto_increment.
+-- Starts past the existing rows: the first block Hibernate takes ends at this value
+create table cart_items_seq (next_val bigint) engine=InnoDB;
+insert into cart_items_seq select coalesce(max(id), 0) + 50 from cart_items;
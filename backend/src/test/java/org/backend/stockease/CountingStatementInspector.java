@@ -0,0 +1,44 @@
+package org.backend.stockease;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts (and keeps) every SQL statement Hibernate prepares on the thread that
+ * called {@link #reset()}. Register it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ * Statements from other threads (schedulers, outbox workers, or the ones of
+ * another cached test context) are never counted.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting from zero on the current thread.
+     */
+    public static void reset() {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    public static int count() {
+        List<String> statements = STATEMENTS.get();
+        return statements != null ? statements.size() : 0;
+    }
+
+    public static List<String> statements() {
+        List<String> statements = STATEMENTS.get();
+        return statements != null ? new ArrayList<>(statements) : List.of();
+    }
+}
@@ -0,0 +1,116 @@
+package org.backend.stockease;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.backend.stockease.entity.Cart;
+import org.backend.stockease.entity.CartItem;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.repository.CartItemRepository;
+import org.backend.stockease.repository.CartRepository;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.backend.stockease.repository.SubscriptionPlanRepository;
+import org.backend.stockease.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the users, shops and products the service tests run against. A shop
+ * gets its own owner and the Basic plan; a product is active with
+ * {@link #PRODUCT_PRICE} and {@link #PRODUCT_STOCK} unless the test says otherwise.
+ * Names must be unique within a test database, since emails and shop names are.
+ */
+@Component
+public class TestFixtures {
+
+    public static final BigDecimal PRODUCT_PRICE = new BigDecimal("5.00");
+    public static final int PRODUCT_STOCK = 100;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private SubscriptionPlanRepository subscriptionPlanRepository;
+
+    public User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@test.com");
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+
+    /**
+     * A user with an empty cart row, for tests that fill the cart through the repositories.
+     */
+    public User buyer(String name) {
+        User buyer = user(name);
+        Cart cart = new Cart();
+        cart.setUser(buyer);
+        cartRepository.save(cart);
+        return buyer;
+    }
+
+    public Shop shop(String name) {
+        return shop(name, null);
+    }
+
+    public Shop shop(String name, LocalDateTime subscriptionEndDate) {
+        Shop shop = new Shop();
+        shop.setName(name);
+        shop.setOwner(user(name + "-seller"));
+        shop.setSubscriptionPlan(subscriptionPlanRepository.findByName("Basic").orElseThrow());
+        shop.setSubscriptionStartDate(LocalDateTime.now());
+        shop.setSubscriptionEndDate(subscriptionEndDate);
+        return shopRepository.save(shop);
+    }
+
+    public Product product(Shop shop, String name) {
+        return product(shop, name, PRODUCT_STOCK);
+    }
+
+    public Product product(Shop shop, String name, int stock) {
+        Product product = newProduct(shop, name);
+        product.setStock(stock);
+        return productRepository.save(product);
+    }
+
+    /**
+     * A product that is not saved yet, for tests that go through ProductService.
+     */
+    public Product newProduct(Shop shop, String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(PRODUCT_PRICE);
+        product.setStock(PRODUCT_STOCK);
+        product.setIsActive(true);
+        product.setShop(shop);
+        return product;
+    }
+
+    /**
+     * Saves a cart line straight to cart_items, behind CartEngine; the buyer needs a cart row.
+     */
+    public CartItem addToCart(User buyer, Product product, int quantity) {
+        CartItem item = new CartItem();
+        item.setCart(cartRepository.findByUserId(buyer.getId()).orElseThrow());
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return cartItemRepository.save(item);
+    }
+}
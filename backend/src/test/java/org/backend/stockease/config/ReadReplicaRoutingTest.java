@@ -0,0 +1,93 @@
+package org.backend.stockease.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Two H2 databases stand in for the primary and a replica. Replication is faked
+ * by writing to the replica directly: a row only the replica has tells which
+ * database a transaction read from.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "stockease.read-replica.enabled=true",
+    "stockease.read-replica.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+    "stockease.read-replica.max-lag-ms=2000",
+    "stockease.read-replica.heartbeat-interval-ms=3600000",
+    "stockease.read-replica.sticky-ms=60000"
+})
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String WHERE_AM_I = "SELECT COUNT(*) FROM categories WHERE name = 'replica-marker'";
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsFollowReplicaLagAndRecentWrites() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.update("INSERT INTO categories (name) VALUES ('replica-marker')");
+
+        replica.update("UPDATE replica_heartbeat SET beat_millis = ?", System.currentTimeMillis());
+        replicaRouter.checkLag();
+        assertEquals(1, readOnly(), "read-only transaction goes to the replica");
+        assertEquals(0, readWrite(), "read-write transaction stays on the primary");
+
+        signIn("buyer@stockease.test");
+        readYourWrites.markWrite();
+        assertEquals(0, readOnly(), "a user who just wrote reads from the primary");
+        signIn("someone-else@stockease.test");
+        assertEquals(1, readOnly(), "other users keep reading from the replica");
+
+        replica.update("UPDATE replica_heartbeat SET beat_millis = ?", System.currentTimeMillis() - 60000);
+        replicaRouter.checkLag();
+        assertEquals(0, readOnly(), "a lagging replica is taken out of rotation");
+    }
+
+    private int readOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> jdbcTemplate.queryForObject(WHERE_AM_I, Integer.class));
+    }
+
+    private int readWrite() {
+        return new TransactionTemplate(transactionManager).execute(status -> jdbcTemplate.queryForObject(WHERE_AM_I, Integer.class));
+    }
+
+    private static void signIn(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+}
@@ -0,0 +1,65 @@
+package org.backend.stockease.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.backend.stockease.entity.User;
+import org.backend.stockease.entity.enums.Role;
+import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.security.JwtProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Existing clients get the plain arrays they always got; only callers that pass
+ * after or limit get a CursorPage.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:list-paging;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+class ListEndpointPagingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void listsStayArraysUnlessAPageIsAskedFor() throws Exception {
+        User admin = new User();
+        admin.setName("Paging Admin");
+        admin.setEmail("paging-admin@test.com");
+        admin.setPassword("secret");
+        admin.setRole(Role.ADMIN);
+        admin = userRepository.save(admin);
+        String token = "Bearer " + jwtProvider.generateTokenFromUserId(admin.getId(), admin.getEmail(), "ADMIN");
+
+        List<String> endpoints = List.of("/api/products", "/api/shops", "/api/shops?active=true", "/api/users",
+            "/api/admin/shops", "/api/orders/user/" + admin.getId());
+        for (String endpoint : endpoints) {
+            mockMvc.perform(get(endpoint).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+
+            String separator = endpoint.contains("?") ? "&" : "?";
+            mockMvc.perform(get(endpoint + separator + "limit=2").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.hasMore").isBoolean());
+            mockMvc.perform(get(endpoint + separator + "after=0").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray());
+        }
+    }
+}
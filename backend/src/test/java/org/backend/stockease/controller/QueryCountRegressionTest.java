@@ -0,0 +1,177 @@
+package org.backend.stockease.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.backend.stockease.CountingStatementInspector;
+import org.backend.stockease.entity.Category;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.entity.enums.Role;
+import org.backend.stockease.repository.CategoryRepository;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.backend.stockease.repository.SubscriptionPlanRepository;
+import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.security.JwtProvider;
+import org.backend.stockease.service.CartService;
+import org.backend.stockease.service.OrderService;
+import org.backend.stockease.service.implementation.CatalogCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Guards the fetch plans of the hot read endpoints: the number of SQL statements
+ * per request must not grow with the number of shops, products or orders.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:query-count;DB_CLOSE_DELAY=-1",
+    // Keep the outbox workers from adding their statements to the counts
+    "stockease.outbox.dispatch-on-commit=false",
+    "stockease.outbox.poll-interval-ms=3600000",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "org.backend.stockease.CountingStatementInspector"
+})
+@AutoConfigureMockMvc
+class QueryCountRegressionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private SubscriptionPlanRepository subscriptionPlanRepository;
+
+    private int shopCounter;
+
+    @Test
+    void readEndpointsIssueConstantNumberOfStatements() throws Exception {
+        User admin = createUser("query-admin@test.com", Role.ADMIN);
+        User buyer = createUser("query-buyer@test.com", Role.CLIENT);
+
+        Category category = new Category();
+        category.setName("Query Count Category");
+        category = categoryRepository.save(category);
+
+        String adminToken = jwtProvider.generateTokenFromUserId(admin.getId(), admin.getEmail(), "ADMIN");
+        String buyerToken = jwtProvider.generateTokenFromUserId(buyer.getId(), buyer.getEmail(), "CLIENT");
+
+        Map<String, String> endpoints = new LinkedHashMap<>();
+        endpoints.put("/api/products", buyerToken);
+        endpoints.put("/api/products?limit=5", buyerToken);
+        endpoints.put("/api/products/category/" + category.getId(), buyerToken);
+        endpoints.put("/api/products/bestsellers", buyerToken);
+        endpoints.put("/api/cart/" + buyer.getId(), buyerToken);
+        endpoints.put("/api/orders/user/" + buyer.getId(), buyerToken);
+        endpoints.put("/api/orders/user/" + buyer.getId() + "?limit=5", buyerToken);
+        endpoints.put("/api/admin/shops", adminToken);
+        endpoints.put("/api/admin/shops?limit=5", adminToken);
+
+        // Verify both tokens once, so the role lookup of a token-cache miss stays out of the counts
+        for (String token : Set.copyOf(endpoints.values())) {
+            mockMvc.perform(get("/api/users/" + admin.getId()).header("Authorization", "Bearer " + token));
+        }
+
+        addShopsAndOrder(buyer, category, 2);
+        Map<String, Integer> small = measure(endpoints);
+
+        addShopsAndOrder(buyer, category, 15);
+        Map<String, Integer> large = measure(endpoints);
+
+        assertEquals(small, large);
+    }
+
+    private Map<String, Integer> measure(Map<String, String> endpoints) throws Exception {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, String> endpoint : endpoints.entrySet()) {
+            // Measure the database fetch plan, not the catalog cache
+            catalogCache.invalidateAll();
+            CountingStatementInspector.reset();
+            mockMvc.perform(get(endpoint.getKey()).header("Authorization", "Bearer " + endpoint.getValue()))
+                .andExpect(status().isOk());
+            counts.put(endpoint.getKey(), CountingStatementInspector.count());
+        }
+        return counts;
+    }
+
+    // Each new shop gets its own owner and a best-selling product; the buyer orders all of
+    // them and then puts them back in the cart so every endpoint sees the larger data set
+    private void addShopsAndOrder(User buyer, Category category, int shops) {
+        Product[] products = new Product[shops];
+        for (int i = 0; i < shops; i++) {
+            int n = ++shopCounter;
+            User owner = createUser("query-seller-" + n + "@test.com", Role.SELLER);
+
+            Shop shop = new Shop();
+            shop.setName("Query Shop " + n);
+            shop.setOwner(owner);
+            shop.setSubscriptionPlan(subscriptionPlanRepository.findByName("Basic").orElseThrow());
+            shop.setSubscriptionStartDate(LocalDateTime.now());
+            shop = shopRepository.save(shop);
+
+            Product product = new Product();
+            product.setName("Query product " + n);
+            product.setPrice(new BigDecimal("4.50"));
+            product.setStock(100);
+            product.setIsActive(true);
+            product.setIsBestSeller(true);
+            product.setCategory(category);
+            product.setShop(shop);
+            products[i] = productRepository.save(product);
+        }
+
+        fillCart(buyer, products);
+        orderService.createOrder(buyer.getId(), "1 Query Street", "standard");
+        fillCart(buyer, products);
+    }
+
+    // Through the cart engine, which then answers the cart endpoint from memory
+    private void fillCart(User buyer, Product[] products) {
+        for (Product product : products) {
+            cartService.addToCart(buyer.getId(), product.getId(), 1);
+        }
+    }
+
+    private User createUser(String email, Role role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
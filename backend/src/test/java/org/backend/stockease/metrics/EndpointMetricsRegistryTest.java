@@ -0,0 +1,71 @@
+package org.backend.stockease.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.backend.stockease.dto.EndpointMetrics;
+import org.junit.jupiter.api.Test;
+
+class EndpointMetricsRegistryTest {
+
+    private final EndpointMetricsRegistry registry = new EndpointMetricsRegistry();
+
+    @Test
+    void percentilesAreTheUpperBoundOfTheirBucket() {
+        // 90 fast requests, 9 medium ones and one slow one
+        for (int i = 0; i < 90; i++) {
+            record("GET ProductController.getAllProducts", 2, false);
+        }
+        for (int i = 0; i < 9; i++) {
+            record("GET ProductController.getAllProducts", 40, false);
+        }
+        record("GET ProductController.getAllProducts", 700, true);
+
+        EndpointMetrics metrics = registry.getSnapshot().get(0);
+        assertEquals(100, metrics.getRequests());
+        assertEquals(1, metrics.getErrors());
+        assertEquals(2.5, metrics.getP50Millis());
+        assertEquals(50.0, metrics.getP95Millis());
+        assertEquals(50.0, metrics.getP99Millis());
+        assertEquals(700.0, metrics.getMaxMillis());
+        assertEquals(3.0, metrics.getStatementsPerRequest());
+    }
+
+    @Test
+    void percentilesPastTheLastBucketReportTheMax() {
+        record("POST OrderController.createOrder", 12_000, false);
+
+        EndpointMetrics metrics = registry.getSnapshot().get(0);
+        assertEquals(12_000.0, metrics.getP50Millis());
+        assertEquals(12_000.0, metrics.getP99Millis());
+    }
+
+    @Test
+    void prometheusHistogramBucketsAreCumulative() {
+        record("GET CartController.getCart", 3, false);
+        record("GET CartController.getCart", 30, false);
+        record("GET AdminController.getPlatformStatistics", 300, true);
+
+        String text = registry.toPrometheus();
+        List<String> lines = text.lines().toList();
+        assertTrue(lines.contains("# TYPE stockease_http_request_duration_seconds histogram"));
+        String cart = "endpoint=\"GET CartController.getCart\"";
+        assertTrue(lines.contains("stockease_http_request_duration_seconds_bucket{" + cart + ",le=\"0.001\"} 0"));
+        assertTrue(lines.contains("stockease_http_request_duration_seconds_bucket{" + cart + ",le=\"0.005\"} 1"));
+        assertTrue(lines.contains("stockease_http_request_duration_seconds_bucket{" + cart + ",le=\"0.05\"} 2"));
+        assertTrue(lines.contains("stockease_http_request_duration_seconds_bucket{" + cart + ",le=\"+Inf\"} 2"));
+        assertTrue(lines.contains("stockease_http_request_duration_seconds_count{" + cart + "} 2"));
+        assertTrue(lines.contains("stockease_http_request_duration_seconds_sum{" + cart + "} 0.033"));
+        assertTrue(lines.contains("stockease_http_request_errors_total{endpoint=\"GET AdminController.getPlatformStatistics\"} 1"));
+        assertTrue(lines.contains("stockease_http_sql_statements_total{" + cart + "} 6"));
+        // Endpoints are listed in name order
+        assertTrue(text.indexOf("AdminController") < text.indexOf("CartController"));
+    }
+
+    private void record(String endpoint, long millis, boolean error) {
+        registry.record(endpoint, TimeUnit.MILLISECONDS.toNanos(millis), error, 3, 10, 1000, 4096);
+    }
+}
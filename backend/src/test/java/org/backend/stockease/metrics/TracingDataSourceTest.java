@@ -0,0 +1,141 @@
+package org.backend.stockease.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+
+import org.backend.stockease.dto.SqlTraceEntry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TracingDataSourceTest {
+
+    private JdbcDataSource h2;
+    private SqlTracer tracer;
+    private TracingDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:tracing-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        wrap(new SqlTracer());
+        jdbcTemplate.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, name VARCHAR(50), password VARCHAR(60))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestTrace.end();
+    }
+
+    @Test
+    void jdbcTemplateStatementsCountAgainstTheRequest() {
+        RequestTrace trace = RequestTrace.start();
+
+        jdbcTemplate.update("INSERT INTO items (id, name) VALUES (?, ?)", 1L, "one");
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name) VALUES (?, ?)",
+            List.of(new Object[] { 2L, "two" }, new Object[] { 3L, "three" }));
+        jdbcTemplate.queryForList("SELECT name FROM items ORDER BY id", String.class);
+        jdbcTemplate.queryForList("SELECT name FROM items ORDER BY id", String.class);
+
+        // One execution per round trip, whatever the size of the batch
+        assertEquals(4, trace.getStatements());
+        Map<String, Integer> counts = trace.getStatementCounts();
+        assertEquals(2, counts.get("INSERT INTO items (id, name) VALUES (?, ?)"));
+        assertEquals(2, counts.get("SELECT name FROM items ORDER BY id"));
+    }
+
+    @Test
+    void nothingIsCountedOutsideARequest() {
+        jdbcTemplate.update("INSERT INTO items (id, name) VALUES (?, ?)", 1L, "one");
+
+        RequestTrace trace = RequestTrace.start();
+        assertEquals(0, trace.getStatements());
+    }
+
+    @Test
+    void disabledTraceRecordsNothingButStillCounts() {
+        traceEverything(false, true);
+        RequestTrace trace = RequestTrace.start();
+
+        jdbcTemplate.update("INSERT INTO items (id, name) VALUES (?, ?)", 1L, "one");
+
+        assertTrue(tracer.getRecentSlowQueries().isEmpty());
+        assertEquals(1, trace.getStatements());
+    }
+
+    @Test
+    void batchesAreRecordedOnceWithTheirSizeAndTheCountStartsOverAfterwards() {
+        traceEverything(true, true);
+
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name) VALUES (?, ?)",
+            List.of(new Object[] { 1L, "one" }, new Object[] { 2L, "two" }, new Object[] { 3L, "three" }));
+        jdbcTemplate.update("INSERT INTO items (id, name) VALUES (?, ?)", 4L, "four");
+
+        List<SqlTraceEntry> entries = tracer.getRecentSlowQueries();
+        assertEquals(2, entries.size());
+        assertEquals(3, entries.get(0).getBatchSize());
+        assertEquals("[3, 'three']", entries.get(0).getBinds());
+        assertEquals(1, entries.get(1).getBatchSize());
+    }
+
+    @Test
+    void clearParametersDropsTheBindsOfTheLastExecution() throws Exception {
+        traceEverything(true, true);
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("UPDATE items SET name = ? WHERE id > ?")) {
+            statement.setString(1, "first");
+            statement.setLong(2, 1L);
+            statement.executeUpdate();
+            statement.clearParameters();
+            statement.setNull(1, java.sql.Types.VARCHAR);
+            statement.setLong(2, 2L);
+            statement.executeUpdate();
+        }
+
+        List<SqlTraceEntry> entries = tracer.getRecentSlowQueries();
+        assertEquals("['first', 1]", entries.get(0).getBinds());
+        assertEquals("[null, 2]", entries.get(1).getBinds());
+    }
+
+    @Test
+    void bindsAreRedactedOrLeftOutUnlessCaptured() {
+        traceEverything(true, true);
+        jdbcTemplate.update("INSERT INTO items (id, name, password) VALUES (?, ?, ?)", 1L, "one", "$2a$10$hash");
+        assertEquals("<redacted>", tracer.getRecentSlowQueries().get(0).getBinds());
+
+        traceEverything(true, false);
+        jdbcTemplate.update("INSERT INTO items (id, name) VALUES (?, ?)", 2L, "two");
+        SqlTraceEntry entry = tracer.getRecentSlowQueries().get(0);
+        assertEquals("INSERT INTO items (id, name) VALUES (?, ?)", entry.getSql());
+        assertNull(entry.getBinds());
+    }
+
+    // Every statement counts as slow, so it is kept in getRecentSlowQueries
+    private void traceEverything(boolean enabled, boolean captureBinds) {
+        SqlTracer tracer = new SqlTracer();
+        ReflectionTestUtils.setField(tracer, "enabled", enabled);
+        ReflectionTestUtils.setField(tracer, "slowQueryMillis", 0L);
+        ReflectionTestUtils.setField(tracer, "logToConsole", false);
+        ReflectionTestUtils.setField(tracer, "captureBinds", captureBinds);
+        ReflectionTestUtils.setField(tracer, "redactedColumns", new String[] { "password" });
+        ReflectionTestUtils.invokeMethod(tracer, "init");
+        wrap(tracer);
+    }
+
+    private void wrap(SqlTracer tracer) {
+        this.tracer = tracer;
+        dataSource = new TracingDataSource(h2, tracer);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+}
@@ -0,0 +1,134 @@
+package org.backend.stockease.repository;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.backend.stockease.CountingStatementInspector;
+import org.backend.stockease.config.SyntheticDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the repository queries against the Flyway schema filled with a few
+ * thousand rows and fails if H2 plans a full table scan for any of them.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "org.backend.stockease.CountingStatementInspector"
+})
+class RepositoryQueryPlanTest {
+
+    // A leading-wildcard LIKE and the unpaged full catalog read every row whatever the indexes
+    private static final Set<String> FULL_SCAN_EXPECTED = Set.of(
+        "ProductRepository.searchActiveProducts",
+        "ProductRepository.findAllActive");
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Test
+    void repositoryQueriesDoNotScanWholeTables() {
+        generator.generate(40, 5000, 400, 2000, 7L);
+        jdbcTemplate.execute("ANALYZE");
+
+        Long productId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+        Long shopId = jdbcTemplate.queryForObject("SELECT shop_id FROM products WHERE id = ?", Long.class, productId);
+        Long categoryId = jdbcTemplate.queryForObject("SELECT category_id FROM products WHERE id = ?", Long.class, productId);
+        Long orderId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders", Long.class);
+        Long userId = jdbcTemplate.queryForObject("SELECT user_id FROM orders WHERE id = ?", Long.class, orderId);
+        String orderNumber = jdbcTemplate.queryForObject("SELECT order_number FROM orders WHERE id = ?", String.class, orderId);
+        String trackingNumber = jdbcTemplate.queryForObject("SELECT tracking_number FROM deliveries WHERE order_id = ?", String.class, orderId);
+        Long cartId = jdbcTemplate.queryForObject("SELECT id FROM carts WHERE user_id = ?", Long.class, userId);
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("ProductRepository.findById", () -> productRepository.findById(productId));
+        queries.put("ProductRepository.findAllById", () -> productRepository.findAllById(List.of(productId, productId - 1)));
+        queries.put("ProductRepository.findByCategoryId", () -> productRepository.findByCategoryId(categoryId));
+        queries.put("ProductRepository.findActiveByCategoryId", () -> productRepository.findActiveByCategoryId(categoryId));
+        queries.put("ProductRepository.searchActiveProducts", () -> productRepository.searchActiveProducts("laptop"));
+        queries.put("ProductRepository.findAllActive", () -> productRepository.findAllActive());
+        queries.put("ProductRepository.findByIsBestSellerTrue", () -> productRepository.findByIsBestSellerTrue());
+        queries.put("ProductRepository.findActiveBestSellers", () -> productRepository.findActiveBestSellers());
+        queries.put("ProductRepository.findByShopId", () -> productRepository.findByShopId(shopId));
+        queries.put("ProductRepository.findByShopIdAndCategoryId", () -> productRepository.findByShopIdAndCategoryId(shopId, categoryId));
+        queries.put("ProductRepository.findAllByShopId", () -> productRepository.findAllByShopId(shopId));
+        queries.put("ProductRepository.findActiveSummariesAfter", () -> productRepository.findActiveSummariesAfter(productId - 100, PageRequest.of(0, 20)));
+        queries.put("ProductRepository.countByShopId", () -> productRepository.countByShopId(shopId));
+        queries.put("ProductRepository.countByShopIdAndStockGreaterThan", () -> productRepository.countByShopIdAndStockGreaterThan(shopId, 0));
+        queries.put("OrderRepository.findByUserIdOrderByOrderDateDesc", () -> orderRepository.findByUserIdOrderByOrderDateDesc(userId));
+        queries.put("OrderRepository.findByOrderNumber", () -> orderRepository.findByOrderNumber(orderNumber));
+        queries.put("OrderRepository.findById", () -> orderRepository.findById(orderId));
+        queries.put("OrderRepository.findUserSummariesBefore", () -> orderRepository.findUserSummariesBefore(userId, Long.MAX_VALUE, PageRequest.of(0, 20)));
+        queries.put("OrderRepository.aggregateBetween", () -> orderRepository.aggregateBetween(yesterday, yesterday.plusDays(1)));
+        queries.put("OrderRepository.aggregateSince", () -> orderRepository.aggregateSince(yesterday));
+        queries.put("OrderRepository.findEarliestOrderDate", () -> orderRepository.findEarliestOrderDate());
+        queries.put("CartItemRepository.findByCartId", () -> cartItemRepository.findByCartId(cartId));
+        queries.put("CartItemRepository.findByCartIdAndProductId", () -> cartItemRepository.findByCartIdAndProductId(cartId, productId));
+        queries.put("CartItemRepository.findByCartIdWithProducts", () -> cartItemRepository.findByCartIdWithProducts(cartId));
+        queries.put("CartItemRepository.deleteByCartId", () -> cartItemRepository.deleteByCartId(cartId));
+        queries.put("DeliveryRepository.findByOrderId", () -> deliveryRepository.findByOrderId(orderId));
+        queries.put("DeliveryRepository.findByTrackingNumber", () -> deliveryRepository.findByTrackingNumber(trackingNumber));
+
+        List<String> fullScans = new ArrayList<>();
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            CountingStatementInspector.reset();
+            transactionTemplate.executeWithoutResult(status -> {
+                query.getValue().run();
+                status.setRollbackOnly();
+            });
+            if (FULL_SCAN_EXPECTED.contains(query.getKey())) {
+                continue;
+            }
+            for (String sql : CountingStatementInspector.statements()) {
+                String plan = explain(sql);
+                if (plan.contains("tableScan")) {
+                    fullScans.add(query.getKey() + ":\n" + plan);
+                }
+            }
+        }
+
+        assertTrue(fullScans.isEmpty(), "Full table scans:\n\n" + String.join("\n\n", fullScans));
+    }
+
+    // Parameters only need to be bound for EXPLAIN to run; H2 picks the plan from the statement
+    private String explain(String sql) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        return String.join("\n", jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+        }, (rs, row) -> rs.getString(1)));
+    }
+}
@@ -0,0 +1,82 @@
+package org.backend.stockease.security;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.backend.stockease.entity.User;
+import org.backend.stockease.entity.enums.Role;
+import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:jwt-filter;DB_CLOSE_DELAY=-1",
+    "stockease.security.token-cache.ttl-ms=200"
+})
+@AutoConfigureMockMvc
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void theRoleComesFromTheUsersTableNotTheToken() throws Exception {
+        User client = createUser("jwt-client", Role.CLIENT);
+        String forged = jwtProvider.generateTokenFromUserId(client.getId(), client.getEmail(), "ADMIN");
+
+        expect("/api/users", forged, status().isForbidden());
+        expect("/api/users/" + client.getId(), forged, status().isOk());
+    }
+
+    @Test
+    void demotedUsersLoseTheirRoleWhenTheCachedTokenExpires() throws Exception {
+        User admin = createUser("jwt-demoted", Role.ADMIN);
+        String token = jwtProvider.generateTokenFromUserId(admin.getId(), admin.getEmail(), "ADMIN");
+        expect("/api/users", token, status().isOk());
+
+        admin.setRole(Role.CLIENT);
+        userRepository.save(admin);
+        Thread.sleep(400);
+
+        expect("/api/users", token, status().isForbidden());
+    }
+
+    @Test
+    void deletedUsersAreRejectedRightAway() throws Exception {
+        User client = createUser("jwt-deleted", Role.CLIENT);
+        String token = jwtProvider.generateTokenFromUserId(client.getId(), client.getEmail(), "CLIENT");
+        expect("/api/users/" + client.getId(), token, status().isOk());
+
+        // Evicted from the token cache on commit, no need to wait for the TTL
+        userService.deleteUser(client.getId());
+
+        expect("/api/users/" + client.getId(), token, status().isForbidden());
+    }
+
+    private void expect(String path, String token, ResultMatcher result) throws Exception {
+        mockMvc.perform(get(path).header("Authorization", "Bearer " + token)).andExpect(result);
+    }
+
+    private User createUser(String name, Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@test.com");
+        user.setPassword("secret");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
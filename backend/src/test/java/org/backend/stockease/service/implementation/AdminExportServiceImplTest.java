@@ -0,0 +1,122 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.backend.stockease.entity.Order;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.repository.OrderRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.backend.stockease.repository.SubscriptionPlanRepository;
+import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.service.AdminExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:admin-export;DB_CLOSE_DELAY=-1"
+})
+class AdminExportServiceImplTest {
+
+    @Autowired
+    private AdminExportService adminExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private SubscriptionPlanRepository subscriptionPlanRepository;
+
+    @Test
+    void writesOneLinePerRowPastTheClearInterval() throws Exception {
+        for (int i = 0; i < 1200; i++) {
+            createUser("export-" + i + "@test.com");
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        adminExportService.exportUsers(output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(userRepository.count(), lines.size());
+        long previousId = 0;
+        for (String line : lines) {
+            JsonNode user = objectMapper.readTree(line);
+            assertTrue(user.get("id").asLong() > previousId);
+            assertFalse(user.has("password"));
+            previousId = user.get("id").asLong();
+        }
+    }
+
+    @Test
+    void exportsShopsWithOwnerAndPlanAndOrdersWithTheirBuyer() throws Exception {
+        User owner = createUser("export-owner@test.com");
+        Shop shop = new Shop();
+        shop.setName("Export Shop");
+        shop.setOwner(owner);
+        shop.setSubscriptionPlan(subscriptionPlanRepository.findByName("Professional").orElseThrow());
+        shop.setSubscriptionStartDate(LocalDateTime.now());
+        shop = shopRepository.save(shop);
+
+        Order order = new Order();
+        order.setOrderNumber("EXPORT01");
+        order.setUser(owner);
+        order.setTotalAmount(new BigDecimal("12.50"));
+        order = orderRepository.save(order);
+
+        JsonNode exportedShop = find(export(adminExportService::exportShops), shop.getId());
+        assertEquals("export-owner@test.com", exportedShop.get("ownerEmail").asText());
+        assertEquals("Professional", exportedShop.get("subscriptionPlanName").asText());
+
+        JsonNode exportedOrder = find(export(adminExportService::exportOrders), order.getId());
+        assertEquals(owner.getId().longValue(), exportedOrder.get("userId").asLong());
+        assertEquals("EXPORT01", exportedOrder.get("orderNumber").asText());
+    }
+
+    private interface Export {
+        void to(ByteArrayOutputStream output) throws Exception;
+    }
+
+    private List<String> export(Export export) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        export.to(output);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private JsonNode find(List<String> lines, Long id) throws Exception {
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            if (row.get("id").asLong() == id) {
+                return row;
+            }
+        }
+        throw new AssertionError("Row " + id + " not exported");
+    }
+
+    private User createUser(String email) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,122 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.backend.stockease.TestFixtures;
+import org.backend.stockease.entity.Order;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.service.CartService;
+import org.backend.stockease.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:bestsellers;DB_CLOSE_DELAY=-1",
+    "stockease.bestsellers.rank-interval-ms=3600000",
+    "stockease.bestsellers.snapshot-interval-ms=3600000"
+})
+class BestSellerEngineTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @Autowired
+    private BestSellerEngine bestSellerEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void ranksBySalesInsideTheWindowAndSurvivesARestart() {
+        Shop shop = fixtures.shop("window");
+        long a = fixtures.product(shop, "Window product A").getId();
+        long b = fixtures.product(shop, "Window product B").getId();
+        long c = fixtures.product(shop, "Window product C").getId();
+        long shopId = shop.getId();
+        long now = System.currentTimeMillis();
+
+        sell(a, shopId, 5, now);
+        sell(b, shopId, 3, now);
+        sell(c, shopId, 4, now - 6 * DAY);
+        // Already outside the seven day window
+        sell(b, shopId, 100, now - 8 * DAY);
+
+        bestSellerEngine.rank(now);
+        assertEquals(List.of(a, c, b), bestSellerEngine.topProductsOfShop(shopId));
+
+        // Two days later the sales of C have slid out of the window
+        bestSellerEngine.rank(now + 2 * DAY);
+        assertEquals(List.of(a, b), bestSellerEngine.topProductsOfShop(shopId));
+
+        bestSellerEngine.snapshot();
+        BestSellerEngine restarted = restart();
+        restarted.rank(now + 2 * DAY);
+
+        assertEquals(List.of(a, b), restarted.topProductsOfShop(shopId));
+    }
+
+    @Test
+    void cancelledOrdersLeaveTheRankingAndAreNotReplayed() {
+        Shop shop = fixtures.shop("cancel");
+        long kept = fixtures.product(shop, "Kept order product").getId();
+        long cancelled = fixtures.product(shop, "Cancelled order product").getId();
+        User buyer = fixtures.user("cancel-buyer");
+
+        cartService.addToCart(buyer.getId(), kept, 2);
+        orderService.createOrder(buyer.getId(), "1 Ranking Street", "standard");
+        cartService.addToCart(buyer.getId(), cancelled, 5);
+        Order order = orderService.createOrder(buyer.getId(), "1 Ranking Street", "standard");
+        bestSellerEngine.rank(System.currentTimeMillis());
+        assertEquals(List.of(cancelled, kept), bestSellerEngine.topProductsOfShop(shop.getId()));
+
+        orderService.cancelOrder(order.getId());
+        bestSellerEngine.rank(System.currentTimeMillis());
+        assertEquals(List.of(kept), bestSellerEngine.topProductsOfShop(shop.getId()));
+
+        // Without a snapshot, a restart rebuilds the window from order_items alone
+        jdbcTemplate.update("DELETE FROM bestseller_snapshots");
+        BestSellerEngine restarted = restart();
+        restarted.rank(System.currentTimeMillis());
+        assertEquals(List.of(kept), restarted.topProductsOfShop(shop.getId()));
+    }
+
+    private BestSellerEngine restart() {
+        BestSellerEngine restarted = new BestSellerEngine();
+        ReflectionTestUtils.setField(restarted, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(restarted, "catalogCache", catalogCache);
+        ReflectionTestUtils.setField(restarted, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(restarted, "windowHours", 168L);
+        ReflectionTestUtils.setField(restarted, "buckets", 28);
+        ReflectionTestUtils.setField(restarted, "topK", 20);
+        ReflectionTestUtils.invokeMethod(restarted, "init");
+        restarted.load();
+        return restarted;
+    }
+
+    private void sell(long productId, long shopId, int quantity, long atMillis) {
+        bestSellerEngine.record(new long[] { productId }, new long[] { 0 }, new long[] { shopId },
+            new int[] { quantity }, atMillis);
+    }
+}
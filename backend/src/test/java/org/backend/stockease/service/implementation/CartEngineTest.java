@@ -0,0 +1,205 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.backend.stockease.TestFixtures;
+import org.backend.stockease.entity.Cart;
+import org.backend.stockease.entity.CartItem;
+import org.backend.stockease.entity.Order;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.repository.CartItemRepository;
+import org.backend.stockease.repository.CartRepository;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.service.OrderService;
+import org.backend.stockease.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:cart-engine;DB_CLOSE_DELAY=-1",
+    // Retries and evictions only happen when the test calls flushDirtyCarts
+    "stockease.cart.flush-interval-ms=3600000",
+    "stockease.cart.idle-eviction-ms=200",
+    "stockease.outbox.dispatch-on-commit=false",
+    "stockease.outbox.poll-interval-ms=3600000"
+})
+class CartEngineTest {
+
+    @Autowired
+    private CartEngine cartEngine;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void everyChangeIsInTheTableWhenTheCallReturns() {
+        Shop shop = fixtures.shop("write-through");
+        User buyer = fixtures.user("write-through-buyer");
+        Product first = fixtures.product(shop, "Write-through product 1");
+        Product second = fixtures.product(shop, "Write-through product 2");
+
+        CartItem kept = cartEngine.add(buyer.getId(), first.getId(), 2);
+        CartItem removed = cartEngine.add(buyer.getId(), second.getId(), 1);
+        Long cartId = cartRepository.findByUserId(buyer.getId()).orElseThrow().getId();
+        assertEquals(2, quantityOf(kept.getId()));
+        assertEquals(1, quantityOf(removed.getId()));
+
+        cartEngine.update(buyer.getId(), kept.getId(), 5);
+        cartEngine.remove(buyer.getId(), removed.getId());
+        assertEquals(5, quantityOf(kept.getId()));
+        assertEquals(List.of(kept.getId()), itemIds(cartId));
+
+        cartEngine.clear(buyer.getId());
+        assertEquals(List.of(), itemIds(cartId));
+    }
+
+    @Test
+    void acknowledgedChangesSurviveLosingTheCachedCarts() {
+        Shop shop = fixtures.shop("crash");
+        User buyer = fixtures.user("crash-buyer");
+        Product first = fixtures.product(shop, "Crash product 1");
+        Product second = fixtures.product(shop, "Crash product 2");
+
+        CartItem kept = cartEngine.add(buyer.getId(), first.getId(), 2);
+        CartItem removed = cartEngine.add(buyer.getId(), second.getId(), 1);
+        cartEngine.update(buyer.getId(), kept.getId(), 4);
+        cartEngine.remove(buyer.getId(), removed.getId());
+
+        // What a restart after a crash starts from: no flush, nothing in memory
+        ((Map<?, ?>) ReflectionTestUtils.getField(cartEngine, "carts")).clear();
+
+        List<CartItem> items = cartEngine.getItems(buyer.getId());
+        assertEquals(1, items.size());
+        assertEquals(kept.getId(), items.get(0).getId());
+        assertEquals(4, items.get(0).getQuantity());
+    }
+
+    @Test
+    void aChangeThatCannotBeWrittenIsNotAcknowledged() {
+        Shop shop = fixtures.shop("failed-write");
+        User buyer = fixtures.user("failed-write-buyer");
+        Product first = fixtures.product(shop, "Failed write product 1");
+        Product second = fixtures.product(shop, "Failed write product 2");
+        cartEngine.add(buyer.getId(), first.getId(), 1);
+
+        // The cart row goes away behind the engine, so the next insert breaks its foreign key
+        jdbcTemplate.update("DELETE FROM cart_items WHERE cart_id IN (SELECT id FROM carts WHERE user_id = ?)", buyer.getId());
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id = ?", buyer.getId());
+
+        assertThrows(RuntimeException.class, () -> cartEngine.add(buyer.getId(), second.getId(), 1));
+    }
+
+    @Test
+    void itemIdsDoNotCollideWithRowsSavedThroughJpa() {
+        Shop shop = fixtures.shop("item-ids");
+        Product product = fixtures.product(shop, "Item id product");
+        User other = fixtures.user("item-ids-other");
+        Cart otherCart = new Cart();
+        otherCart.setUser(other);
+        otherCart = cartRepository.save(otherCart);
+
+        User buyer = fixtures.user("item-ids-buyer");
+        CartItem line = cartEngine.add(buyer.getId(), product.getId(), 1);
+
+        CartItem saved = new CartItem();
+        saved.setCart(otherCart);
+        saved.setProduct(product);
+        saved.setQuantity(1);
+        saved = cartItemRepository.save(saved);
+        assertNotEquals(line.getId(), saved.getId());
+
+        // The save would have failed on the primary key if the ids overlapped
+        assertEquals(1, quantityOf(line.getId()));
+    }
+
+    @Test
+    void checkoutDropsTheOrderedLines() {
+        Shop shop = fixtures.shop("checkout");
+        User buyer = fixtures.user("checkout-buyer");
+        Product product = fixtures.product(shop, "Checkout product");
+
+        cartEngine.add(buyer.getId(), product.getId(), 2);
+        cartEngine.add(buyer.getId(), product.getId(), 1);
+
+        Order order = orderService.createOrder(buyer.getId(), "1 Cart Street", "standard");
+
+        assertEquals(1, order.getItems().size());
+        assertEquals(3, order.getItems().get(0).getQuantity());
+        assertTrue(cartEngine.getItems(buyer.getId()).isEmpty());
+    }
+
+    @Test
+    void idleCartsAreEvictedAndReloadedFromTheTable() throws Exception {
+        Shop shop = fixtures.shop("eviction");
+        User buyer = fixtures.user("eviction-buyer");
+        Product product = fixtures.product(shop, "Eviction product");
+
+        CartItem line = cartEngine.add(buyer.getId(), product.getId(), 1);
+
+        // Changed behind the engine's back; only a reload can see it
+        jdbcTemplate.update("UPDATE cart_items SET quantity = 7 WHERE id = ?", line.getId());
+        assertEquals(1, cartEngine.getItems(buyer.getId()).get(0).getQuantity());
+
+        Thread.sleep(400);
+        cartEngine.flushDirtyCarts();
+
+        List<CartItem> items = cartEngine.getItems(buyer.getId());
+        assertEquals(1, items.size());
+        assertEquals(line.getId(), items.get(0).getId());
+        assertEquals(7, items.get(0).getQuantity());
+    }
+
+    @Test
+    void productChangesReachTheCachedCarts() {
+        Shop shop = fixtures.shop("product-change");
+        User buyer = fixtures.user("product-change-buyer");
+        Product product = fixtures.product(shop, "Product change product");
+
+        cartEngine.add(buyer.getId(), product.getId(), 1);
+        assertEquals(0, TestFixtures.PRODUCT_PRICE.compareTo(cartEngine.getItems(buyer.getId()).get(0).getProduct().getPrice()));
+
+        Product details = productRepository.findById(product.getId()).orElseThrow();
+        details.setPrice(new BigDecimal("4.25"));
+        productService.updateProduct(product.getId(), details);
+
+        assertEquals(0, new BigDecimal("4.25").compareTo(cartEngine.getItems(buyer.getId()).get(0).getProduct().getPrice()));
+    }
+
+    private int quantityOf(Long cartItemId) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM cart_items WHERE id = ?", Integer.class, cartItemId);
+    }
+
+    private List<Long> itemIds(Long cartId) {
+        return jdbcTemplate.queryForList("SELECT id FROM cart_items WHERE cart_id = ? ORDER BY id", Long.class, cartId);
+    }
+}
@@ -0,0 +1,293 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.backend.stockease.dto.CursorPage;
+import org.backend.stockease.dto.ProductSummary;
+import org.backend.stockease.entity.Category;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.event.ProductChangedEvent;
+import org.backend.stockease.event.ShopChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Which listings a product or shop change evicts, and which it leaves alone.
+ * Listings are filled by hand, and a listing counts as evicted when reading it
+ * again has to call the loader.
+ */
+class CatalogCacheTest {
+
+    private static final long SHOP_A = 1;
+    private static final long SHOP_B = 2;
+    private static final long TOOLS = 10;
+    private static final long GARDEN = 20;
+    private static final long KITCHEN = 30;
+
+    private CatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() {
+        catalogCache = new CatalogCache();
+        ReflectionTestUtils.setField(catalogCache, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(catalogCache, "maxEntries", 500L);
+        ReflectionTestUtils.setField(catalogCache, "listingTtlMillis", 60000L);
+        ReflectionTestUtils.setField(catalogCache, "categoriesTtlMillis", 600000L);
+        catalogCache.init();
+    }
+
+    @Test
+    void createdProductJoinsOnlyTheListingsItBelongsTo() {
+        Product hammer = product(1, TOOLS, SHOP_A);
+        Product rake = product(2, GARDEN, SHOP_B);
+        fill(CatalogCache.ALL_PRODUCTS, hammer, rake);
+        fill(CatalogCache.BESTSELLERS, hammer);
+        fill(CatalogCache.categoryKey(TOOLS), hammer);
+        fill(CatalogCache.categoryKey(GARDEN), rake);
+        fill(CatalogCache.bestSellersOfShopKey(SHOP_A), hammer);
+
+        productChanged(ProductChangedEvent.Type.CREATED, product(3, GARDEN, SHOP_A));
+
+        assertFalse(cached(CatalogCache.ALL_PRODUCTS));
+        assertFalse(cached(CatalogCache.categoryKey(GARDEN)));
+        assertTrue(cached(CatalogCache.categoryKey(TOOLS)));
+        // Not a best seller yet; rankings are invalidated by the ranking job
+        assertTrue(cached(CatalogCache.BESTSELLERS));
+        assertTrue(cached(CatalogCache.bestSellersOfShopKey(SHOP_A)));
+    }
+
+    @Test
+    void createdInactiveProductEvictsNothing() {
+        fill(CatalogCache.ALL_PRODUCTS, product(1, TOOLS, SHOP_A));
+        fill(CatalogCache.categoryKey(TOOLS), product(1, TOOLS, SHOP_A));
+
+        Product hidden = product(2, TOOLS, SHOP_A);
+        hidden.setIsActive(false);
+        productChanged(ProductChangedEvent.Type.CREATED, hidden);
+
+        assertTrue(cached(CatalogCache.ALL_PRODUCTS));
+        assertTrue(cached(CatalogCache.categoryKey(TOOLS)));
+    }
+
+    @Test
+    void updatedProductEvictsEveryListingThatShowsIt() {
+        Product hammer = product(1, TOOLS, SHOP_A);
+        Product rake = product(2, GARDEN, SHOP_B);
+        fill(CatalogCache.ALL_PRODUCTS, hammer, rake);
+        fill(CatalogCache.categoryKey(TOOLS), hammer);
+        fill(CatalogCache.categoryKey(GARDEN), rake);
+        fill(CatalogCache.bestSellersInCategoryKey(TOOLS), hammer);
+        fill(CatalogCache.BESTSELLERS, rake);
+
+        hammer.setName("Claw hammer");
+        productChanged(ProductChangedEvent.Type.UPDATED, hammer);
+
+        assertFalse(cached(CatalogCache.ALL_PRODUCTS));
+        assertFalse(cached(CatalogCache.categoryKey(TOOLS)));
+        assertFalse(cached(CatalogCache.bestSellersInCategoryKey(TOOLS)));
+        assertTrue(cached(CatalogCache.categoryKey(GARDEN)));
+        assertTrue(cached(CatalogCache.BESTSELLERS));
+    }
+
+    @Test
+    void productMarkedBestSellerJoinsTheBestSellerListing() {
+        Product hammer = product(1, TOOLS, SHOP_A);
+        Product rake = product(2, GARDEN, SHOP_B);
+        fill(CatalogCache.BESTSELLERS, rake);
+        fill(CatalogCache.categoryKey(GARDEN), rake);
+
+        hammer.setIsBestSeller(true);
+        productChanged(ProductChangedEvent.Type.UPDATED, hammer);
+
+        assertFalse(cached(CatalogCache.BESTSELLERS));
+        assertTrue(cached(CatalogCache.categoryKey(GARDEN)));
+    }
+
+    @Test
+    void deactivatedProductLeavesTheListingsThatShowedIt() {
+        Product hammer = product(1, TOOLS, SHOP_A);
+        Product rake = product(2, GARDEN, SHOP_B);
+        fill(CatalogCache.ALL_PRODUCTS, hammer, rake);
+        fill(CatalogCache.categoryKey(TOOLS), hammer);
+        fill(CatalogCache.categoryKey(GARDEN), rake);
+
+        rake.setIsActive(false);
+        productChanged(ProductChangedEvent.Type.UPDATED, rake);
+
+        assertFalse(cached(CatalogCache.ALL_PRODUCTS));
+        assertFalse(cached(CatalogCache.categoryKey(GARDEN)));
+        assertTrue(cached(CatalogCache.categoryKey(TOOLS)));
+    }
+
+    @Test
+    void changingAProductNoListingShowsOnlyTouchesListingsItJoins() {
+        Product hammer = product(1, TOOLS, SHOP_A);
+        fill(CatalogCache.ALL_PRODUCTS, hammer);
+        fill(CatalogCache.categoryKey(TOOLS), hammer);
+
+        // Already inactive and still inactive: nothing to show or hide
+        Product hidden = product(2, TOOLS, SHOP_A);
+        hidden.setIsActive(false);
+        productChanged(ProductChangedEvent.Type.UPDATED, hidden);
+
+        assertTrue(cached(CatalogCache.ALL_PRODUCTS));
+        assertTrue(cached(CatalogCache.categoryKey(TOOLS)));
+    }
+
+    @Test
+    void deletedProductOnlyEvictsTheListingsThatShowedIt() {
+        Product hammer = product(1, TOOLS, SHOP_A);
+        Product rake = product(2, GARDEN, SHOP_B);
+        fill(CatalogCache.ALL_PRODUCTS, hammer, rake);
+        fill(CatalogCache.categoryKey(TOOLS), hammer);
+        fill(CatalogCache.categoryKey(GARDEN), rake);
+        fillPage(null, 1, true, summary(1, SHOP_A));
+        fillPage(1L, 1, false, summary(2, SHOP_B));
+
+        productChanged(ProductChangedEvent.Type.DELETED, hammer);
+
+        assertFalse(cached(CatalogCache.ALL_PRODUCTS));
+        assertFalse(cached(CatalogCache.categoryKey(TOOLS)));
+        assertFalse(pageCached(null, 1));
+        assertTrue(cached(CatalogCache.categoryKey(GARDEN)));
+        assertTrue(pageCached(1L, 1));
+    }
+
+    @Test
+    void categoryMoveEvictsTheOldAndTheNewCategory() {
+        Product hammer = product(1, TOOLS, SHOP_A);
+        Product rake = product(2, GARDEN, SHOP_B);
+        Product pan = product(3, KITCHEN, SHOP_B);
+        fill(CatalogCache.categoryKey(TOOLS), hammer);
+        fill(CatalogCache.categoryKey(GARDEN), rake);
+        fill(CatalogCache.categoryKey(KITCHEN), pan);
+
+        hammer.setCategory(category(GARDEN));
+        productChanged(ProductChangedEvent.Type.UPDATED, hammer);
+
+        assertFalse(cached(CatalogCache.categoryKey(TOOLS)));
+        assertFalse(cached(CatalogCache.categoryKey(GARDEN)));
+        assertTrue(cached(CatalogCache.categoryKey(KITCHEN)));
+    }
+
+    @Test
+    void newProductOnlyEvictsThePageWhoseIdRangeItFallsIn() {
+        // (0, 2], (2, 4] and (4, end): the last page covers every id after its cursor
+        fillPage(null, 2, true, summary(1, SHOP_A), summary(2, SHOP_A));
+        fillPage(2L, 2, true, summary(3, SHOP_A), summary(4, SHOP_B));
+        fillPage(4L, 2, false, summary(6, SHOP_B));
+
+        productChanged(ProductChangedEvent.Type.CREATED, product(7, TOOLS, SHOP_A));
+
+        assertTrue(pageCached(null, 2));
+        assertTrue(pageCached(2L, 2));
+        assertFalse(pageCached(4L, 2));
+    }
+
+    @Test
+    void productInsideAPageRangeEvictsThatPageOnly() {
+        fillPage(null, 2, true, summary(1, SHOP_A), summary(3, SHOP_A));
+        fillPage(3L, 2, true, summary(4, SHOP_A), summary(6, SHOP_B));
+        fillPage(6L, 2, false, summary(8, SHOP_B));
+
+        // Id 5 is not on any page yet but falls inside (3, 6]
+        productChanged(ProductChangedEvent.Type.UPDATED, product(5, TOOLS, SHOP_A));
+
+        assertTrue(pageCached(null, 2));
+        assertFalse(pageCached(3L, 2));
+        assertTrue(pageCached(6L, 2));
+    }
+
+    @Test
+    void shopChangeEvictsEveryListingWithOneOfItsProducts() {
+        Product hammer = product(1, TOOLS, SHOP_A);
+        Product rake = product(2, GARDEN, SHOP_B);
+        fill(CatalogCache.ALL_PRODUCTS, hammer, rake);
+        fill(CatalogCache.categoryKey(TOOLS), hammer);
+        fill(CatalogCache.categoryKey(GARDEN), rake);
+        fillPage(null, 1, true, summary(1, SHOP_A));
+        fillPage(1L, 1, false, summary(2, SHOP_B));
+        catalogCache.getCategories(() -> List.of(category(TOOLS), category(GARDEN)));
+
+        catalogCache.onShopChanged(new ShopChangedEvent(ShopChangedEvent.Type.UPDATED, SHOP_B));
+
+        assertFalse(cached(CatalogCache.ALL_PRODUCTS));
+        assertFalse(cached(CatalogCache.categoryKey(GARDEN)));
+        assertFalse(pageCached(1L, 1));
+        assertTrue(cached(CatalogCache.categoryKey(TOOLS)));
+        assertTrue(pageCached(null, 1));
+        assertTrue(categoriesCached());
+    }
+
+    private void productChanged(ProductChangedEvent.Type type, Product product) {
+        catalogCache.onProductChanged(new ProductChangedEvent(type, product));
+    }
+
+    private void fill(String key, Product... products) {
+        catalogCache.getProducts(key, () -> List.of(products));
+    }
+
+    private void fillPage(Long after, int limit, boolean hasMore, ProductSummary... items) {
+        Long nextCursor = hasMore ? items[items.length - 1].getId() : null;
+        catalogCache.getProductPage(after, limit, () -> new CursorPage<>(List.of(items), nextCursor, hasMore));
+    }
+
+    private boolean cached(String key) {
+        List<String> loaded = new ArrayList<>();
+        catalogCache.getProducts(key, () -> {
+            loaded.add(key);
+            return List.of();
+        });
+        return loaded.isEmpty();
+    }
+
+    private boolean pageCached(Long after, int limit) {
+        List<Long> loaded = new ArrayList<>();
+        catalogCache.getProductPage(after, limit, () -> {
+            loaded.add(after);
+            return new CursorPage<>(List.of(), null, false);
+        });
+        return loaded.isEmpty();
+    }
+
+    private boolean categoriesCached() {
+        List<String> loaded = new ArrayList<>();
+        catalogCache.getCategories(() -> {
+            loaded.add(CatalogCache.CATEGORIES);
+            return List.of();
+        });
+        return loaded.isEmpty();
+    }
+
+    private static Product product(long id, long categoryId, long shopId) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setIsActive(true);
+        product.setCategory(category(categoryId));
+        Shop shop = new Shop();
+        shop.setId(shopId);
+        product.setShop(shop);
+        return product;
+    }
+
+    private static ProductSummary summary(long id, long shopId) {
+        ProductSummary summary = new ProductSummary();
+        summary.setId(id);
+        summary.setShopId(shopId);
+        return summary;
+    }
+
+    private static Category category(long id) {
+        Category category = new Category();
+        category.setId(id);
+        return category;
+    }
+}
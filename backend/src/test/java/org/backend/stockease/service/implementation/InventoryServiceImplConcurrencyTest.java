@@ -0,0 +1,78 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:inventory-stress;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+})
+class InventoryServiceImplConcurrencyTest {
+
+    private static final int STOCK = 100;
+    private static final int BUYERS = 400;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentBuyersNeverOversellAHotProduct() throws InterruptedException {
+        Product product = new Product();
+        product.setName("Flash sale item");
+        product.setPrice(new BigDecimal("1.00"));
+        product.setStock(STOCK);
+        product.setIsActive(true);
+        Long productId = productRepository.save(product).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(200);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(BUYERS);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        for (int i = 0; i < BUYERS; i++) {
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    inventoryService.reserve(Map.of(productId, 1));
+                    sold.incrementAndGet();
+                } catch (RuntimeException e) {
+                    rejected.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        done.await(60, TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - startedAt;
+        pool.shutdown();
+
+        System.out.printf("Inventory stress: %d reservations (%d sold, %d rejected) in %.1f ms, %.0f ops/s%n",
+            BUYERS, sold.get(), rejected.get(), elapsedNanos / 1_000_000.0, BUYERS / (elapsedNanos / 1_000_000_000.0));
+
+        assertEquals(STOCK, sold.get());
+        assertEquals(BUYERS - STOCK, rejected.get());
+        assertEquals(0, productRepository.findById(productId).orElseThrow().getStock());
+    }
+}
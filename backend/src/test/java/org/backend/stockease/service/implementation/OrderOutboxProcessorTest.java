@@ -0,0 +1,90 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.backend.stockease.TestFixtures;
+import org.backend.stockease.entity.Cart;
+import org.backend.stockease.entity.Order;
+import org.backend.stockease.entity.OrderOutbox;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.entity.enums.OutboxStatus;
+import org.backend.stockease.repository.CartItemRepository;
+import org.backend.stockease.repository.CartRepository;
+import org.backend.stockease.repository.DeliveryRepository;
+import org.backend.stockease.repository.OrderOutboxRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.backend.stockease.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:order-outbox;DB_CLOSE_DELAY=-1",
+    "stockease.outbox.dispatch-on-commit=false",
+    "stockease.outbox.poll-interval-ms=3600000",
+    "stockease.shop-counters.fold-interval-ms=3600000"
+})
+class OrderOutboxProcessorTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderOutboxProcessor outboxProcessor;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private ShopRevenueCounter shopRevenueCounter;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Test
+    void checkoutIsFinishedOnceEvenWhenProcessedTwice() {
+        Shop shop = fixtures.shop("outbox-shop");
+        User buyer = fixtures.buyer("outbox-buyer");
+        Cart cart = cartRepository.findByUserId(buyer.getId()).orElseThrow();
+        fixtures.addToCart(buyer, fixtures.product(shop, "Outbox product 1"), 2);
+        fixtures.addToCart(buyer, fixtures.product(shop, "Outbox product 2"), 2);
+
+        Order order = orderService.createOrder(buyer.getId(), "1 Outbox Street", "standard");
+        OrderOutbox entry = outboxRepository.findAll().stream()
+            .filter(candidate -> candidate.getOrderId().equals(order.getId()))
+            .findFirst().orElseThrow();
+
+        // Nothing beyond the order itself is written until the entry is processed
+        assertEquals(0, shopRepository.findById(shop.getId()).orElseThrow().getTotalOrders());
+        assertTrue(deliveryRepository.findByOrderId(order.getId()).isEmpty());
+        assertEquals(2, cartItemRepository.findByCartId(cart.getId()).size());
+
+        outboxProcessor.process(entry.getId());
+        outboxProcessor.process(entry.getId());
+        shopRevenueCounter.fold();
+
+        Shop processed = shopRepository.findById(shop.getId()).orElseThrow();
+        assertEquals(1, processed.getTotalOrders());
+        // Two products, two of each
+        assertEquals(0, TestFixtures.PRODUCT_PRICE.multiply(BigDecimal.valueOf(4)).compareTo(processed.getTotalRevenue()));
+        assertEquals("TRK" + order.getOrderNumber(), deliveryRepository.findByOrderId(order.getId()).orElseThrow().getTrackingNumber());
+        assertTrue(cartItemRepository.findByCartId(cart.getId()).isEmpty());
+        assertEquals(OutboxStatus.DONE, outboxRepository.findById(entry.getId()).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,167 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.backend.stockease.TestFixtures;
+import org.backend.stockease.entity.Order;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.entity.enums.DeliveryStatus;
+import org.backend.stockease.entity.enums.OrderStatus;
+import org.backend.stockease.repository.DeliveryRepository;
+import org.backend.stockease.repository.OrderOutboxRepository;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.backend.stockease.service.OrderService;
+import org.backend.stockease.service.ShopStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:order-cancel;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "stockease.outbox.dispatch-on-commit=false",
+    "stockease.outbox.poll-interval-ms=3600000",
+    "stockease.shop-counters.fold-interval-ms=3600000"
+})
+class OrderServiceImplCancelTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderOutboxProcessor outboxProcessor;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private ShopRevenueCounter shopRevenueCounter;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private ShopStatisticsService shopStatisticsService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Test
+    void concurrentCancelsReleaseTheStockOnce() throws Exception {
+        Shop shop = fixtures.shop("cancel-race");
+        User buyer = fixtures.buyer("cancel-race-buyer");
+        Product product = fixtures.product(shop, "Cancel race product");
+        fixtures.addToCart(buyer, product, 2);
+        Order order = orderService.createOrder(buyer.getId(), "1 Cancel Street", "standard");
+        assertEquals(98, productRepository.findById(product.getId()).orElseThrow().getStock());
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Order>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return orderService.cancelOrder(order.getId()).orElseThrow();
+            }));
+        }
+        start.countDown();
+        for (Future<Order> result : results) {
+            assertEquals(OrderStatus.CANCELLED, result.get().getStatus());
+        }
+        pool.shutdown();
+
+        assertEquals(100, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void cancelTakesTheOrderOutOfTheShopCounters() {
+        Shop shop = fixtures.shop("cancel-counters");
+        User buyer = fixtures.buyer("cancel-counters-buyer");
+        Product product = fixtures.product(shop, "Cancel counters product");
+
+        // Counted by the outbox before the cancel
+        fixtures.addToCart(buyer, product, 2);
+        Order counted = orderService.createOrder(buyer.getId(), "1 Cancel Street", "standard");
+        processOutbox(counted);
+        shopRevenueCounter.fold();
+        assertEquals(1, shopRepository.findById(shop.getId()).orElseThrow().getTotalOrders());
+
+        orderService.cancelOrder(counted.getId());
+        shopRevenueCounter.fold();
+        Shop afterCancel = shopRepository.findById(shop.getId()).orElseThrow();
+        assertEquals(0, afterCancel.getTotalOrders());
+        assertEquals(0, BigDecimal.ZERO.compareTo(afterCancel.getTotalRevenue()));
+
+        // Cancelled before the outbox got to it: the counters are never applied
+        fixtures.addToCart(buyer, product, 1);
+        Order uncounted = orderService.createOrder(buyer.getId(), "1 Cancel Street", "standard");
+        orderService.cancelOrder(uncounted.getId());
+        processOutbox(uncounted);
+        shopRevenueCounter.fold();
+        Shop afterOutbox = shopRepository.findById(shop.getId()).orElseThrow();
+        assertEquals(0, afterOutbox.getTotalOrders());
+        assertEquals(0, BigDecimal.ZERO.compareTo(afterOutbox.getTotalRevenue()));
+    }
+
+    @Test
+    void inStockCountFollowsOrdersThatEmptyAndRefillAProduct() {
+        Shop shop = fixtures.shop("cancel-in-stock");
+        User buyer = fixtures.buyer("cancel-in-stock-buyer");
+        Product lastUnits = fixtures.product(shop, "Last units product", 2);
+        Product plenty = fixtures.product(shop, "Plenty product");
+        assertEquals(2, shopStatisticsService.getStatistics(shop).getActiveProducts());
+
+        fixtures.addToCart(buyer, lastUnits, 2);
+        fixtures.addToCart(buyer, plenty, 1);
+        Order order = orderService.createOrder(buyer.getId(), "1 Cancel Street", "standard");
+        assertEquals(1, shopStatisticsService.getStatistics(shop).getActiveProducts());
+
+        orderService.cancelOrder(order.getId());
+        assertEquals(2, shopStatisticsService.getStatistics(shop).getActiveProducts());
+    }
+
+    @Test
+    void cancelTakesTheDeliveryDownWithTheOrder() {
+        Shop shop = fixtures.shop("cancel-delivery");
+        User buyer = fixtures.buyer("cancel-delivery-buyer");
+        Product product = fixtures.product(shop, "Cancel delivery product");
+
+        // The outbox already created the delivery: it is cancelled with the order
+        fixtures.addToCart(buyer, product, 1);
+        Order shipped = orderService.createOrder(buyer.getId(), "1 Cancel Street", "standard");
+        processOutbox(shipped);
+        assertEquals(DeliveryStatus.PENDING, deliveryRepository.findByOrderId(shipped.getId()).orElseThrow().getStatus());
+        orderService.cancelOrder(shipped.getId());
+        assertEquals(DeliveryStatus.CANCELLED, deliveryRepository.findByOrderId(shipped.getId()).orElseThrow().getStatus());
+
+        // Cancelled before the outbox got to it: no delivery is ever created
+        fixtures.addToCart(buyer, product, 1);
+        Order unshipped = orderService.createOrder(buyer.getId(), "1 Cancel Street", "standard");
+        orderService.cancelOrder(unshipped.getId());
+        processOutbox(unshipped);
+        assertTrue(deliveryRepository.findByOrderId(unshipped.getId()).isEmpty());
+    }
+
+    private void processOutbox(Order order) {
+        outboxRepository.findAll().stream()
+            .filter(entry -> entry.getOrderId().equals(order.getId()))
+            .forEach(entry -> outboxProcessor.process(entry.getId()));
+    }
+}
@@ -0,0 +1,62 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.backend.stockease.CountingStatementInspector;
+import org.backend.stockease.TestFixtures;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:checkout-statements;DB_CLOSE_DELAY=-1",
+    // Keep the outbox workers from adding their statements to the counts
+    "stockease.outbox.dispatch-on-commit=false",
+    "stockease.outbox.poll-interval-ms=3600000",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "org.backend.stockease.CountingStatementInspector"
+})
+class OrderServiceImplStatementCountTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void checkoutStatementCountDoesNotDependOnCartSize() {
+        Shop shop = fixtures.shop("statement-shop");
+        User buyer = fixtures.buyer("statement-buyer");
+
+        // Warm up sequences and the shop's daily statistics bucket; the pooled id optimizer
+        // reads each sequence twice on first use, so it takes two checkouts
+        for (int i = 0; i < 2; i++) {
+            fillCart(buyer, shop, 1);
+            orderService.createOrder(buyer.getId(), "1 Warmup Street", "standard");
+        }
+
+        fillCart(buyer, shop, 1);
+        int singleItemStatements = countStatements(() -> orderService.createOrder(buyer.getId(), "1 Main Street", "standard"));
+
+        fillCart(buyer, shop, 20);
+        int twentyItemStatements = countStatements(() -> orderService.createOrder(buyer.getId(), "1 Main Street", "standard"));
+
+        assertEquals(singleItemStatements, twentyItemStatements);
+    }
+
+    private int countStatements(Runnable checkout) {
+        CountingStatementInspector.reset();
+        checkout.run();
+        return CountingStatementInspector.count();
+    }
+
+    private void fillCart(User buyer, Shop shop, int items) {
+        for (int i = 0; i < items; i++) {
+            fixtures.addToCart(buyer, fixtures.product(shop, "Checkout product " + i), 2);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.backend.stockease.entity.Order;
+import org.backend.stockease.entity.PlatformDailyRollup;
+import org.backend.stockease.entity.PlatformMonthlyRollup;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.repository.OrderRepository;
+import org.backend.stockease.repository.PlatformDailyRollupRepository;
+import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.service.PlatformStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:platform-statistics;DB_CLOSE_DELAY=-1",
+    // Rollups only run when the test calls refreshRollups
+    "stockease.statistics.rollup-initial-delay-ms=3600000",
+    "stockease.statistics.rollup-interval-ms=3600000"
+})
+class PlatformStatisticsServiceImplTest {
+
+    @Autowired
+    private PlatformStatisticsService platformStatisticsService;
+
+    @Autowired
+    private PlatformDailyRollupRepository dailyRollupRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rollupsAddUpToTheOrdersAndResumeFromTheWatermark() {
+        LocalDate today = LocalDate.now();
+        User buyer = createBuyer("rollup-buyer");
+        // Spans at least one month boundary; today stays open
+        placeOrder(buyer, today.minusDays(45), "10.00");
+        placeOrder(buyer, today.minusDays(40), "5.00");
+        placeOrder(buyer, today.minusDays(40), "5.00");
+        placeOrder(buyer, today.minusDays(3), "7.50");
+        placeOrder(buyer, today.minusDays(1), "2.25");
+        placeOrder(buyer, today, "100.00");
+
+        // Nothing rolled up yet: everything is aggregated live
+        assertSalesRevenue("129.75");
+
+        platformStatisticsService.refreshRollups();
+
+        // One row per closed day from the first order up to yesterday, empty days included
+        List<PlatformDailyRollup> daily = dailyRollupRepository.findAll();
+        assertEquals(45, daily.size());
+        assertDay(today.minusDays(45), 1, "10.00");
+        assertDay(today.minusDays(40), 2, "10.00");
+        assertDay(today.minusDays(20), 0, "0.00");
+        assertDay(today.minusDays(1), 1, "2.25");
+
+        Map<LocalDate, BigDecimal> expectedMonths = new TreeMap<>();
+        expectedMonths.merge(today.minusDays(45).withDayOfMonth(1), new BigDecimal("10.00"), BigDecimal::add);
+        expectedMonths.merge(today.minusDays(40).withDayOfMonth(1), new BigDecimal("10.00"), BigDecimal::add);
+        expectedMonths.merge(today.minusDays(3).withDayOfMonth(1), new BigDecimal("7.50"), BigDecimal::add);
+        expectedMonths.merge(today.minusDays(1).withDayOfMonth(1), new BigDecimal("2.25"), BigDecimal::add);
+        assertMonths(expectedMonths);
+
+        // Rollups plus the live tail, without counting a day twice
+        assertSalesRevenue("129.75");
+
+        // Today is not rolled up, so a new order today only shows up live
+        placeOrder(buyer, today, "0.50");
+        platformStatisticsService.refreshRollups();
+        assertEquals(45, dailyRollupRepository.count());
+        assertMonths(expectedMonths);
+        assertSalesRevenue("130.25");
+
+        // Losing the newest rollups moves the watermark back; the next run redoes only those days
+        dailyRollupRepository.delete(dailyRollupRepository.findByRollupDate(today.minusDays(1)).orElseThrow());
+        dailyRollupRepository.delete(dailyRollupRepository.findByRollupDate(today.minusDays(2)).orElseThrow());
+        platformStatisticsService.refreshRollups();
+        assertEquals(45, dailyRollupRepository.count());
+        assertDay(today.minusDays(2), 0, "0.00");
+        assertDay(today.minusDays(1), 1, "2.25");
+        assertMonths(expectedMonths);
+        assertSalesRevenue("130.25");
+    }
+
+    private void assertSalesRevenue(String expected) {
+        BigDecimal actual = platformStatisticsService.getPlatformStatistics().getTotalSalesRevenue();
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "total sales revenue " + actual);
+    }
+
+    private void assertDay(LocalDate day, long orders, String revenue) {
+        PlatformDailyRollup rollup = dailyRollupRepository.findByRollupDate(day).orElseThrow();
+        assertEquals(orders, rollup.getTotalOrders());
+        assertEquals(0, new BigDecimal(revenue).compareTo(rollup.getSalesRevenue()), "revenue on " + day);
+    }
+
+    private void assertMonths(Map<LocalDate, BigDecimal> expected) {
+        Map<LocalDate, BigDecimal> actual = platformStatisticsService.getMonthlyRollups().stream()
+            .filter(month -> month.getSalesRevenue().signum() != 0)
+            .collect(Collectors.toMap(PlatformMonthlyRollup::getRollupMonth, PlatformMonthlyRollup::getSalesRevenue,
+                (a, b) -> a, TreeMap::new));
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((month, revenue) ->
+            assertEquals(0, revenue.compareTo(actual.get(month)), "revenue in " + month));
+    }
+
+    private void placeOrder(User buyer, LocalDate day, String amount) {
+        Order order = new Order();
+        order.setOrderNumber("ROLLUP-" + System.nanoTime());
+        order.setUser(buyer);
+        order.setTotalAmount(new BigDecimal(amount));
+        order.setDeliveryOption("standard");
+        order = orderRepository.save(order);
+        // Backdated behind JPA, the way historical orders sit in the table
+        jdbcTemplate.update("UPDATE orders SET order_date = ? WHERE id = ?",
+            Timestamp.valueOf(day.atTime(12, 0)), order.getId());
+    }
+
+    private User createBuyer(String name) {
+        User buyer = new User();
+        buyer.setName(name);
+        buyer.setEmail(name + "@test.com");
+        buyer.setPassword("secret");
+        return userRepository.save(buyer);
+    }
+}
@@ -0,0 +1,114 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import org.backend.stockease.dto.ProductImportResult;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.backend.stockease.repository.SubscriptionPlanRepository;
+import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.service.ProductBulkService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:product-bulk;DB_CLOSE_DELAY=-1",
+    "stockease.product-import.batch-size=7"
+})
+class ProductBulkServiceImplTest {
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionPlanRepository subscriptionPlanRepository;
+
+    @Test
+    void importsValidRowsReportsBadOnesAndStopsAtThePlanLimit() throws Exception {
+        // The Basic plan allows 50 products
+        Shop shop = createShop("bulk-basic", "Basic");
+        StringBuilder csv = new StringBuilder("name,description,price,stock,category,is_active\n");
+        csv.append("\"Lamp, brass\",\"Says \"\"hello\"\"\nacross two lines\",12.50,3,Electronics,true\n");
+        csv.append(",missing name,1.00,1,,\n");
+        csv.append("Bad price,,abc,1,,\n");
+        csv.append("Unknown category,,1.00,1,No such category,\n");
+        csv.append("Too few fields,1.00\n");
+        for (int i = 0; i < 60; i++) {
+            csv.append("Bulk item ").append(i).append(",,").append(i).append(".99,").append(i % 2).append(",,\n");
+        }
+
+        ProductImportResult result = productBulkService.importProducts(shop.getId(), ProductBulkService.Format.CSV,
+            new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(50, result.getImported());
+        assertEquals(4 + 11, result.getRejected());
+        assertEquals(50, productRepository.countByShopId(shop.getId()));
+        assertEquals(4, result.getErrors().get(0).getLine());
+        assertTrue(result.getErrors().get(result.getErrors().size() - 1).getMessage().contains("Plan limit"));
+    }
+
+    @Test
+    void exportedCatalogImportsBackUnchanged() throws Exception {
+        Shop source = createShop("bulk-source", "Enterprise");
+        String ndjson = "{\"name\":\"Kettle\",\"price\":19.99,\"stock\":4,\"category\":{\"name\":\"Electronics\"},\"rating\":4.5}\n"
+            + "not json\n"
+            + "\n"
+            + "{\"name\":\"Mug, large\",\"description\":\"Holds \\\"a lot\\\"\",\"price\":\"3.50\",\"stock\":0,\"isActive\":false}\n";
+        ProductImportResult imported = productBulkService.importProducts(source.getId(), ProductBulkService.Format.NDJSON,
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2, imported.getImported());
+        assertEquals(2, imported.getErrors().get(0).getLine());
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        productBulkService.exportProducts(source.getId(), ProductBulkService.Format.CSV, exported);
+
+        Shop copy = createShop("bulk-copy", "Enterprise");
+        ProductImportResult reimported = productBulkService.importProducts(copy.getId(), ProductBulkService.Format.CSV,
+            new ByteArrayInputStream(exported.toByteArray()));
+        assertEquals(2, reimported.getImported());
+        assertEquals(0, reimported.getRejected());
+
+        ByteArrayOutputStream sourceJson = new ByteArrayOutputStream();
+        ByteArrayOutputStream copyJson = new ByteArrayOutputStream();
+        productBulkService.exportProducts(source.getId(), ProductBulkService.Format.NDJSON, sourceJson);
+        productBulkService.exportProducts(copy.getId(), ProductBulkService.Format.NDJSON, copyJson);
+        assertEquals(withoutIds(sourceJson.toString(StandardCharsets.UTF_8)), withoutIds(copyJson.toString(StandardCharsets.UTF_8)));
+    }
+
+    private static String withoutIds(String ndjson) {
+        return ndjson.replaceAll("\"id\":\\d+,", "");
+    }
+
+    private Shop createShop(String name, String plan) {
+        User owner = new User();
+        owner.setName(name + " seller");
+        owner.setEmail(name + "@test.com");
+        owner.setPassword("secret");
+        owner = userRepository.save(owner);
+
+        Shop shop = new Shop();
+        shop.setName(name);
+        shop.setOwner(owner);
+        shop.setSubscriptionPlan(subscriptionPlanRepository.findByName(plan).orElseThrow());
+        shop.setSubscriptionStartDate(LocalDateTime.now());
+        return shopRepository.save(shop);
+    }
+}
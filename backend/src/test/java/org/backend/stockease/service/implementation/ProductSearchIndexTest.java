@@ -0,0 +1,87 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:product-search;DB_CLOSE_DELAY=-1"
+})
+class ProductSearchIndexTest {
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void prefixesMatchAndNameHitsRankAboveDescriptionHits() {
+        long exactName = createProduct("Quartzly Lamp", "A reading lamp").getId();
+        long prefixName = createProduct("Quartzlyish Chair", "Goes with the lamp").getId();
+        long exactDescription = createProduct("Plain Table", "Finished in quartzly grey").getId();
+        long prefixDescription = createProduct("Plain Shelf", "Quartzlyish trim").getId();
+
+        assertEquals(List.of(exactName, prefixName, exactDescription, prefixDescription),
+            productSearchIndex.search("quartzly"));
+        // Only prefix matches: name before description, ties by id
+        assertEquals(List.of(exactName, prefixName, exactDescription, prefixDescription),
+            productSearchIndex.search("QUARTZ"));
+        // Every term has to match somewhere
+        assertEquals(List.of(exactName, prefixName), productSearchIndex.search("quartz lamp"));
+        assertTrue(productSearchIndex.search("quartzlyx").isEmpty());
+        assertTrue(productSearchIndex.search("  ").isEmpty());
+    }
+
+    @Test
+    void productChangesAreIndexedAfterCommit() {
+        Product product = createProduct("Vellichor Kettle", "Whistles when ready");
+        assertEquals(List.of(product.getId()), productSearchIndex.search("vellichor"));
+
+        // Renamed: the old tokens are gone, the new ones found
+        Product renamed = copy(product);
+        renamed.setName("Sonder Kettle");
+        productService.updateProduct(product.getId(), renamed);
+        assertTrue(productSearchIndex.search("vellichor").isEmpty());
+        assertEquals(List.of(product.getId()), productSearchIndex.search("sonder"));
+
+        // Deactivated products are not searchable, reactivated ones are again
+        renamed.setIsActive(false);
+        productService.updateProduct(product.getId(), renamed);
+        assertTrue(productSearchIndex.search("sonder").isEmpty());
+        renamed.setIsActive(true);
+        productService.updateProduct(product.getId(), renamed);
+        assertEquals(List.of(product.getId()), productSearchIndex.search("sonder"));
+
+        productService.deleteProduct(product.getId());
+        assertTrue(productSearchIndex.search("sonder").isEmpty());
+        assertTrue(productSearchIndex.search("whistles").isEmpty());
+    }
+
+    private Product createProduct(String name, String description) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(new BigDecimal("9.00"));
+        product.setStock(5);
+        return productService.createProduct(product);
+    }
+
+    private Product copy(Product product) {
+        Product details = new Product();
+        details.setName(product.getName());
+        details.setDescription(product.getDescription());
+        details.setPrice(product.getPrice());
+        details.setStock(product.getStock());
+        details.setIsActive(product.getIsActive());
+        return details;
+    }
+}
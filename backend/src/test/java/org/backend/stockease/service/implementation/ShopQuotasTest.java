@@ -0,0 +1,101 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.backend.stockease.TestFixtures;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:shop-quotas;DB_CLOSE_DELAY=-1",
+    "stockease.quotas.reconcile-interval-ms=3600000"
+})
+class ShopQuotasTest {
+
+    @Autowired
+    private ShopQuotas shopQuotas;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void concurrentCreatesStopExactlyAtThePlanLimit() throws Exception {
+        // The Basic plan allows 50 products
+        Shop shop = fixtures.shop("quota-products");
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 10; i++) {
+                    try {
+                        productService.createProduct(fixtures.newProduct(shop, "Quota product " + thread + "-" + i));
+                    } catch (RuntimeException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertEquals(30, rejected.get());
+        assertEquals(50, productRepository.countByShopId(shop.getId()));
+
+        // Deleting one makes room for exactly one more
+        productService.deleteProduct(productRepository.findByShopId(shop.getId()).get(0).getId());
+        productService.createProduct(fixtures.newProduct(shop, "Quota product replacement"));
+        assertThrows(RuntimeException.class, () -> productService.createProduct(fixtures.newProduct(shop, "Quota product extra")));
+    }
+
+    @Test
+    void rolledBackReservationsAreReturnedAndReconcileCorrectsDrift() {
+        // The Basic plan allows 100 orders a month
+        Shop shop = fixtures.shop("quota-orders");
+        Long shopId = shop.getId();
+        for (int i = 0; i < 99; i++) {
+            shopQuotas.reserveOrder(shopId);
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            shopQuotas.reserveOrder(shopId);
+            status.setRollbackOnly();
+        });
+        shopQuotas.reserveOrder(shopId);
+        assertThrows(RuntimeException.class, () -> shopQuotas.reserveOrder(shopId));
+
+        // None of those orders exist in the database
+        shopQuotas.reconcile();
+        assertDoesNotThrow(() -> shopQuotas.reserveOrder(shopId));
+    }
+}
@@ -0,0 +1,105 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.backend.stockease.TestFixtures;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.repository.ShopRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Many threads record orders for one shop while folds run continuously; every
+ * committed order must end up in the shop totals and the daily bucket.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:shop-counters;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+    "spring.datasource.hikari.maximum-pool-size=40",
+    "stockease.shop-counters.fold-interval-ms=3600000"
+})
+class ShopRevenueCounterStressTest {
+
+    private static final int THREADS = 32;
+    private static final int ORDERS_PER_THREAD = 200;
+    private static final BigDecimal ORDER_REVENUE = new BigDecimal("1.25");
+
+    @Autowired
+    private ShopRevenueCounter shopRevenueCounter;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void noIncrementIsLostUnderConcurrentOrdersAndFolds() throws Exception {
+        Long shopId = fixtures.shop("counter-shop").getId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        AtomicInteger committed = new AtomicInteger();
+        List<Throwable> failures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        for (int t = 0; t < THREADS; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        transaction.executeWithoutResult(status -> shopRevenueCounter.add(shopId, ORDER_REVENUE));
+                        committed.incrementAndGet();
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        Thread folder = new Thread(() -> {
+            while (running.get()) {
+                shopRevenueCounter.fold();
+            }
+        });
+        folder.start();
+
+        start.countDown();
+        done.await();
+        running.set(false);
+        folder.join();
+        shopRevenueCounter.fold();
+
+        assertEquals(List.of(), failures);
+        assertEquals(THREADS * ORDERS_PER_THREAD, committed.get());
+
+        Shop shop = shopRepository.findById(shopId).orElseThrow();
+        BigDecimal expectedRevenue = ORDER_REVENUE.multiply(BigDecimal.valueOf(committed.get()));
+        assertEquals(committed.get(), shop.getTotalOrders());
+        assertEquals(0, expectedRevenue.compareTo(shop.getTotalRevenue()));
+
+        assertEquals(committed.get(), jdbcTemplate.queryForObject(
+            "SELECT SUM(orders) FROM shop_daily_statistics WHERE shop_id = ?", Integer.class, shopId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(orders), 0) FROM shop_revenue_shards WHERE shop_id = ?", Integer.class, shopId));
+    }
+}
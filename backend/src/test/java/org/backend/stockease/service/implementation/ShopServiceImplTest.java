@@ -0,0 +1,90 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.backend.stockease.dto.AdminShopSummary;
+import org.backend.stockease.dto.CursorPage;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.entity.User;
+import org.backend.stockease.repository.ShopRepository;
+import org.backend.stockease.repository.SubscriptionPlanRepository;
+import org.backend.stockease.repository.UserRepository;
+import org.backend.stockease.service.ShopService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:shop-service;DB_CLOSE_DELAY=-1"
+})
+class ShopServiceImplTest {
+
+    @Autowired
+    private ShopService shopService;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubscriptionPlanRepository subscriptionPlanRepository;
+
+    @Test
+    void adminShopPagesEndExactlyAtTheLastShop() {
+        for (int i = 0; i < 5; i++) {
+            createShop("keyset-" + i);
+        }
+        // An even number of shops, so the last page of two is full
+        if (shopRepository.count() % 2 != 0) {
+            createShop("keyset-extra");
+        }
+        List<Long> allIds = shopRepository.findAll().stream().map(Shop::getId).sorted().toList();
+        int limit = 2;
+
+        List<Long> seen = new ArrayList<>();
+        Long after = null;
+        while (true) {
+            CursorPage<AdminShopSummary> page = shopService.getAdminShopPage(after, limit);
+            assertEquals(limit, page.getItems().size());
+            page.getItems().forEach(shop -> seen.add(shop.getId()));
+            if (!page.getHasMore()) {
+                // The extra row was not there, so no cursor to an empty page
+                assertNull(page.getNextCursor());
+                break;
+            }
+            assertEquals(page.getItems().get(limit - 1).getId(), page.getNextCursor());
+            after = page.getNextCursor();
+        }
+        assertEquals(allIds, seen);
+
+        // Past the last shop
+        CursorPage<AdminShopSummary> empty = shopService.getAdminShopPage(allIds.get(allIds.size() - 1), limit);
+        assertTrue(empty.getItems().isEmpty());
+        assertFalse(empty.getHasMore());
+        assertNull(empty.getNextCursor());
+    }
+
+    private void createShop(String name) {
+        User owner = new User();
+        owner.setName(name + " seller");
+        owner.setEmail(name + "@test.com");
+        owner.setPassword("secret");
+        owner = userRepository.save(owner);
+
+        Shop shop = new Shop();
+        shop.setName(name);
+        shop.setOwner(owner);
+        shop.setSubscriptionPlan(subscriptionPlanRepository.findByName("Basic").orElseThrow());
+        shop.setSubscriptionStartDate(LocalDateTime.now());
+        shopRepository.save(shop);
+    }
+}
@@ -0,0 +1,186 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.backend.stockease.TestFixtures;
+import org.backend.stockease.dto.ShopStatisticsResponse;
+import org.backend.stockease.entity.Product;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.backend.stockease.service.ShopStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:shop-statistics;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "spring.datasource.hikari.maximum-pool-size=20",
+    // Pending sales stay in the shards until the test folds them
+    "stockease.shop-counters.fold-interval-ms=3600000"
+})
+class ShopStatisticsServiceImplTest {
+
+    @Autowired
+    private ShopStatisticsService shopStatisticsService;
+
+    @Autowired
+    private ShopRevenueCounter shopRevenueCounter;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void productChangesMoveTheCounters() {
+        Shop first = fixtures.shop("counters-first");
+        Shop second = fixtures.shop("counters-second");
+        shopStatisticsService.initializeShop(first.getId());
+        shopStatisticsService.initializeShop(second.getId());
+
+        Product stocked = fixtures.product(first, "Counted stocked product");
+        shopStatisticsService.productCreated(stocked);
+        Product empty = fixtures.product(first, "Counted empty product", 0);
+        shopStatisticsService.productCreated(empty);
+        assertCounts(first, 2, 1);
+
+        // Restocked, then sold out: only crossing zero changes the in-stock count
+        shopStatisticsService.productChanged(first.getId(), 0, restock(empty, 5));
+        shopStatisticsService.productChanged(first.getId(), 5, restock(empty, 3));
+        assertCounts(first, 2, 2);
+        shopStatisticsService.productChanged(first.getId(), TestFixtures.PRODUCT_STOCK, restock(stocked, 0));
+        assertCounts(first, 2, 1);
+
+        // Moved to the other shop with its stock
+        empty.setShop(second);
+        empty = productRepository.save(empty);
+        shopStatisticsService.productChanged(first.getId(), 3, empty);
+        assertCounts(first, 1, 0);
+        assertCounts(second, 1, 1);
+
+        // Orders refilled it through a cancellation
+        restock(stocked, 2);
+        shopStatisticsService.inStockChanged(first.getId(), 1);
+        assertCounts(first, 1, 1);
+
+        productRepository.delete(stocked);
+        shopStatisticsService.productDeleted(stocked);
+        assertCounts(first, 0, 0);
+        assertCounts(second, 1, 1);
+    }
+
+    @Test
+    void rollingFiguresSumThirtyDaysOfBucketsPlusTheUnfoldedShards() {
+        Shop shop = fixtures.shop("rolling");
+        shop.setTotalRevenue(new BigDecimal("500.00"));
+        shop.setTotalOrders(40);
+        shop = shopRepository.save(shop);
+        LocalDate today = LocalDate.now();
+        bucket(shop, today.minusDays(1), "10.00", 1);
+        bucket(shop, today.minusDays(29), "5.00", 2);
+        // Just outside the window
+        bucket(shop, today.minusDays(30), "100.00", 7);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long shopId = shop.getId();
+        transaction.executeWithoutResult(status -> shopRevenueCounter.add(shopId, new BigDecimal("2.50")));
+        transaction.executeWithoutResult(status -> shopRevenueCounter.add(shopId, new BigDecimal("1.25")));
+
+        ShopStatisticsResponse statistics = shopStatisticsService.getStatistics(shop);
+        assertEquals(0, new BigDecimal("18.75").compareTo(statistics.getMonthlyRevenue()));
+        assertEquals(5, statistics.getMonthlyOrders());
+        assertEquals(0, new BigDecimal("503.75").compareTo(statistics.getTotalRevenue()));
+        assertEquals(42, statistics.getTotalOrders());
+    }
+
+    @Test
+    void shopWithoutCountersIsSeededFromItsProducts() {
+        // Shops saved straight through the repository never had initializeShop called
+        Shop read = fixtures.shop("seed-on-read");
+        fixtures.product(read, "Seed on read product 1");
+        fixtures.product(read, "Seed on read product 2");
+        fixtures.product(read, "Seed on read product 3", 0);
+        assertCounts(read, 3, 2);
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM shop_statistics WHERE shop_id = ?", Integer.class, read.getId()));
+
+        // The seed already counts the product being written, so its delta is not added again
+        Shop write = fixtures.shop("seed-on-write");
+        fixtures.product(write, "Seed on write product 1");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status ->
+            shopStatisticsService.productCreated(fixtures.product(write, "Seed on write product 2")));
+        assertCounts(write, 2, 2);
+    }
+
+    @Test
+    void concurrentFirstWritesToAShopWithoutCountersAreAllKept() throws Exception {
+        Shop shop = fixtures.shop("seed-race");
+        int threads = 8;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Every transaction has written its product before any of them looks for the counters
+        CyclicBarrier written = new CyclicBarrier(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> transaction.executeWithoutResult(status -> {
+                Product product = fixtures.product(shop, "Seed race product " + thread);
+                try {
+                    written.await(10, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                shopStatisticsService.productCreated(product);
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertEquals(threads, productRepository.countByShopId(shop.getId()));
+        assertCounts(shop, threads, threads);
+    }
+
+    private Product restock(Product product, int stock) {
+        product.setStock(stock);
+        return productRepository.save(product);
+    }
+
+    private void bucket(Shop shop, LocalDate day, String revenue, int orders) {
+        jdbcTemplate.update("INSERT INTO shop_daily_statistics (shop_id, bucket_date, revenue, orders) VALUES (?, ?, ?, ?)",
+            shop.getId(), Date.valueOf(day), new BigDecimal(revenue), orders);
+    }
+
+    private void assertCounts(Shop shop, int products, int inStock) {
+        ShopStatisticsResponse statistics = shopStatisticsService.getStatistics(shop);
+        assertEquals(products, statistics.getTotalProducts(), "products of " + shop.getName());
+        assertEquals(inStock, statistics.getActiveProducts(), "in-stock products of " + shop.getName());
+    }
+}
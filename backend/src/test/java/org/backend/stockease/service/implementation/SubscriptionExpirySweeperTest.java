@@ -0,0 +1,100 @@
+package org.backend.stockease.service.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.backend.stockease.TestFixtures;
+import org.backend.stockease.entity.Shop;
+import org.backend.stockease.repository.ProductRepository;
+import org.backend.stockease.repository.ShopRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:subscription-expiry;DB_CLOSE_DELAY=-1",
+    "stockease.subscription-expiry.interval-ms=3600000",
+    "stockease.subscription-expiry.shop-batch-size=2",
+    "stockease.subscription-expiry.product-batch-size=3"
+})
+class SubscriptionExpirySweeperTest {
+
+    @Autowired
+    private SubscriptionExpirySweeper sweeper;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void deactivatesLapsedShopsAndTheirProductsInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        Shop[] lapsed = new Shop[5];
+        for (int i = 0; i < lapsed.length; i++) {
+            lapsed[i] = fixtures.shop("lapsed-" + i, now.minusDays(i + 1));
+            for (int p = 0; p < 4; p++) {
+                fixtures.product(lapsed[i], "Lapsedware " + i + "-" + p);
+            }
+        }
+        Shop current = fixtures.shop("current", now.plusDays(10));
+        fixtures.product(current, "Currentware");
+        Shop open = fixtures.shop("open-ended", null);
+        fixtures.product(open, "Openware");
+        productSearchIndex.rebuild();
+
+        assertEquals(5, sweeper.sweep(now));
+
+        for (Shop shop : lapsed) {
+            assertFalse(shopRepository.findById(shop.getId()).orElseThrow().getIsActive());
+            assertTrue(productRepository.findByShopId(shop.getId()).isEmpty());
+        }
+        assertTrue(shopRepository.findById(current.getId()).orElseThrow().getIsActive());
+        assertTrue(shopRepository.findById(open.getId()).orElseThrow().getIsActive());
+        assertEquals(1, productRepository.findByShopId(current.getId()).size());
+        assertTrue(productSearchIndex.search("lapsedware").isEmpty());
+        assertEquals(1, productSearchIndex.search("currentware").size());
+
+        // Nothing left to do
+        assertEquals(0, sweeper.sweep(now));
+    }
+
+    @Test
+    void productsOfAShopRenewedAfterItWasPickedUpStayActive() {
+        LocalDateTime now = LocalDateTime.now();
+        Shop renewed = fixtures.shop("renewed", now.minusDays(1));
+        fixtures.product(renewed, "Renewedware 1");
+        fixtures.product(renewed, "Renewedware 2");
+        List<Long> shopIds = List.of(renewed.getId());
+        List<Long> productIds = productRepository.findActiveIdsOfExpiredShops(shopIds, now, PageRequest.of(0, 10));
+        assertEquals(2, productIds.size());
+
+        // Renewed between the sweeper reading the shop and switching off its products
+        renewed.setSubscriptionEndDate(now.plusMonths(1));
+        shopRepository.save(renewed);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int deactivated = transaction.execute(status ->
+            productRepository.deactivateAllOfExpiredShops(productIds, shopIds, now));
+        assertEquals(0, deactivated);
+        assertTrue(productRepository.findActiveIdsOfExpiredShops(shopIds, now, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(2, productRepository.findByShopId(renewed.getId()).size());
+    }
+}